@@ -0,0 +1,49 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the synthetic catalog generated by the {@code seed} profile.
+ * <p>
+ * Products are spread over the categories following a Zipf distribution of exponent {@code zipf-exponent}: the
+ * {@code k}-th largest category holds a share proportional to {@code 1 / k^zipf-exponent} of the products. Two runs
+ * with the same properties on an emptied catalog generate the same rows.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.seed.CatalogSeeder
+ */
+@Data
+@ConfigurationProperties(prefix = "app.seed")
+public class CatalogSeedProperties {
+
+    /**
+     * Number of categories to generate.
+     */
+    private int categories = 1_000;
+
+    /**
+     * Number of products to generate.
+     */
+    private long products = 1_000_000;
+
+    /**
+     * Skew of the category sizes, 0 spreading the products evenly.
+     */
+    private double zipfExponent = 1.0;
+
+    /**
+     * Seed of the random generator, making the generated catalog reproducible.
+     */
+    private long randomSeed = 42;
+
+    /**
+     * Whether the catalog should be emptied, and its IDs restarted, before generating the new one.
+     */
+    private boolean truncate;
+
+    /**
+     * Number of products loaded by each {@code COPY} statement, each committed on its own.
+     */
+    private int chunkSize = 1_000_000;
+}
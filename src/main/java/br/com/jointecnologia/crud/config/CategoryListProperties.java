@@ -0,0 +1,32 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the precomputed category list served by {@code GET /categories}.
+ * <p>
+ * The list follows the changes committed by this instance as they happen. Changes committed by other instances are
+ * picked up by a full reload every {@code refresh-interval}, so with several instances the list may be up to one
+ * interval stale.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.controller.cache.CategoryListCache
+ */
+@Data
+@ConfigurationProperties(prefix = "app.category-list")
+public class CategoryListProperties {
+
+    /**
+     * Delay between two full reloads of the list, in ISO-8601 format (e.g. {@code PT1M}) since it is also read by
+     * {@code @Scheduled}.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Number of changed categories above which the whole list is reloaded rather than only those categories.
+     */
+    private int maxIncrementalCategories = 1000;
+}
@@ -0,0 +1,32 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the per-category price statistics.
+ * <p>
+ * By default statistics are aggregated on every request. When {@code app.category-stats.materialized-view} is
+ * {@code true}, they are read from the {@code category_price_stats} materialized view instead, which is refreshed
+ * every {@code refresh-interval}, so responses may be up to one interval stale.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.stats.CategoryPriceStatsRefresher
+ */
+@Data
+@ConfigurationProperties(prefix = "app.category-stats")
+public class CategoryStatsProperties {
+
+    /**
+     * Whether statistics should be served from the periodically refreshed materialized view.
+     */
+    private boolean materializedView;
+
+    /**
+     * Delay between two refreshes of the materialized view, in ISO-8601 format (e.g. {@code PT5M}) since it is
+     * also read by {@code @Scheduled}.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,27 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the catalog change feed ({@code GET /changes}).
+ *
+ * @see br.com.jointecnologia.crud.service.change.CatalogChangePurger
+ */
+@Data
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * How long changes are kept. Consumers that did not sync for longer must reload the whole catalog.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Delay between two purges of the expired changes, in ISO-8601 format since it is also read by
+     * {@code @Scheduled}.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,37 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Server-Sent Events stream of catalog changes ({@code GET /changes/stream}).
+ *
+ * @see br.com.jointecnologia.crud.controller.stream.ChangeStreamBroadcaster
+ */
+@Data
+@ConfigurationProperties(prefix = "app.change-stream")
+public class ChangeStreamProperties {
+
+    /**
+     * Maximum number of events waiting to be sent to a subscriber. A subscriber falling further behind is
+     * disconnected, and is expected to reconnect and catch up through {@code GET /changes}.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Delay between two keep-alive comments, in ISO-8601 format since it is also read by {@code @Scheduled}.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * How long a subscription lasts before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Number of threads writing events to subscribers.
+     */
+    private int senderThreads = 4;
+}
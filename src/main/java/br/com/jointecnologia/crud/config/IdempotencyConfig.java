@@ -0,0 +1,33 @@
+package br.com.jointecnologia.crud.config;
+
+import br.com.jointecnologia.crud.controller.idempotency.IdempotencyStore;
+import br.com.jointecnologia.crud.controller.idempotency.InMemoryIdempotencyStore;
+import br.com.jointecnologia.crud.controller.idempotency.JdbcIdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Provides the {@link IdempotencyStore} selected by {@code app.idempotency.store}: in memory by default, or in
+ * PostgreSQL when {@code jdbc}.
+ *
+ * @see br.com.jointecnologia.crud.controller.idempotency.IdempotentRequestHandler
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        return new InMemoryIdempotencyStore(properties.getMaxEntries(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        return new JdbcIdempotencyStore(jdbcTemplate, Clock.systemUTC());
+    }
+}
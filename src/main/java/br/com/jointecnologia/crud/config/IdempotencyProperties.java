@@ -0,0 +1,54 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the {@code Idempotency-Key} support of the POST endpoints.
+ *
+ * @see IdempotencyConfig
+ */
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Where idempotency keys are stored.
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * How long a key and its response are kept.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a key stays claimed by a request still in progress, after which it can be claimed again. This bounds
+     * how long the key of a request interrupted by a crash stays unusable, and must exceed the longest request.
+     */
+    private Duration inProgressLease = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of keys kept by the in-memory store.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Delay between two evictions of the expired keys, in ISO-8601 format since it is also read by
+     * {@code @Scheduled}.
+     */
+    private Duration evictionInterval = Duration.ofMinutes(10);
+
+    public enum Store {
+        /**
+         * Keys are kept in the heap of each instance, and lost on restart.
+         */
+        MEMORY,
+        /**
+         * Keys are kept in the {@code idempotency_record} table, shared by every instance.
+         */
+        JDBC
+    }
+}
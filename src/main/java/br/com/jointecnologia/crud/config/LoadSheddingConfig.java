@@ -0,0 +1,51 @@
+package br.com.jointecnologia.crud.config;
+
+import br.com.jointecnologia.crud.controller.limit.AdaptiveConcurrencyLimiter;
+import br.com.jointecnologia.crud.controller.limit.ConcurrencyLimitInterceptor;
+import br.com.jointecnologia.crud.controller.limit.RateLimitInterceptor;
+import br.com.jointecnologia.crud.controller.limit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the rate and concurrency limits in front of the product and category endpoints, configured by
+ * {@link LoadSheddingProperties}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private static final String[] PATHS = {"/products", "/products/**", "/categories", "/categories/**"};
+
+    private final LoadSheddingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<TokenBucketRateLimiter> rateLimiter;
+
+    /**
+     * The rate limiter is a bean so that the buckets of idle clients are discarded on a schedule.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.load-shedding.rate-limit", name = "enabled")
+    public TokenBucketRateLimiter tokenBucketRateLimiter() {
+        return new TokenBucketRateLimiter(properties.getRateLimit(), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        rateLimiter.ifAvailable(limiter -> registry.addInterceptor(
+                        new RateLimitInterceptor(limiter, properties.getRateLimit().getClientHeader(),
+                                properties.getRateLimit().isTrustClientHeader()))
+                .addPathPatterns(PATHS));
+        if (properties.getConcurrency().isEnabled()) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(
+                            new AdaptiveConcurrencyLimiter(properties.getConcurrency(), meterRegistry)))
+                    .addPathPatterns(PATHS);
+        }
+    }
+}
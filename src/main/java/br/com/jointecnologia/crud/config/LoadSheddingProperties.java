@@ -0,0 +1,122 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the protection of the product and category endpoints against overload.
+ * <p>
+ * Requests are first subject to a token bucket per client and endpoint ({@code rate-limit}), answered with
+ * {@code 429 Too Many Requests} when it is empty, and then to an adaptive limit on the number of concurrent
+ * requests ({@code concurrency}), answered with {@code 503 Service Unavailable} when it is reached.
+ * </p>
+ *
+ * @see LoadSheddingConfig
+ */
+@Data
+@ConfigurationProperties(prefix = "app.load-shedding")
+public class LoadSheddingProperties {
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Whether requests should be rate limited. Off by default: unless {@code trust-client-header} is set, clients
+         * are told apart by their remote address, which is the same for every client behind a load balancer.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Header identifying the client, e.g. its API key. Unless {@code trust-client-header} is set, it is only
+         * trusted on authenticated requests: the others are identified by their remote address.
+         */
+        private String clientHeader = "X-API-Key";
+
+        /**
+         * Whether {@code client-header} identifies every request that carries it, authenticated or not. Only set it
+         * when a proxy in front of the application sets that header itself, e.g. a gateway checking the API key or
+         * a load balancer writing the client address to {@code X-Real-IP}, and drops the value sent by the client.
+         * Otherwise a client could get a fresh bucket on every request by changing the header.
+         */
+        private boolean trustClientHeader = false;
+
+        /**
+         * Limit applied to the endpoints without a specific one.
+         */
+        private Bucket defaults = new Bucket();
+
+        /**
+         * Limits of specific endpoints, keyed by method and path pattern, e.g. {@code "[GET /products]"}.
+         */
+        private Map<String, Bucket> endpoints = new HashMap<>();
+
+        /**
+         * Maximum number of buckets tracked. Once reached, the requests of new clients are rejected until the
+         * buckets of idle clients are discarded.
+         */
+        private int maxBuckets = 100_000;
+
+        /**
+         * Delay between two discards of the buckets of idle clients, in ISO-8601 format since it is also read by
+         * {@code @Scheduled}.
+         */
+        private Duration sweepInterval = Duration.ofSeconds(10);
+
+        /**
+         * @return the limit of the given endpoint.
+         */
+        public Bucket bucketFor(String endpoint) {
+            return endpoints.getOrDefault(endpoint, defaults);
+        }
+    }
+
+    @Data
+    public static class Bucket {
+
+        /**
+         * Maximum number of requests a client can burst.
+         */
+        private int capacity = 200;
+
+        /**
+         * Number of requests per second a client can sustain.
+         */
+        private double refillRate = 100;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        /**
+         * Whether the number of concurrent requests should be limited.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Limit used until enough latency samples were collected.
+         */
+        private int initialLimit = 50;
+
+        private int minLimit = 8;
+
+        private int maxLimit = 400;
+
+        /**
+         * Ratio of the recent latency to the long-term latency tolerated before the limit is lowered.
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * Weight of each new limit estimate, between 0 (the limit never changes) and 1.
+         */
+        private double smoothing = 0.2;
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.jointecnologia.crud.config;
+
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.exceptions.ApiError;
+import br.com.jointecnologia.crud.service.ProductBatch;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Registers the runtime hints needed by a GraalVM native image ({@code mvn -Pnative native:compile}) that Spring
+ * AOT cannot infer from the bean definitions.
+ *
+ * @see CrudRuntimeHints
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.CrudRuntimeHints.class)
+public class NativeImageConfig {
+
+    private static final String BASE_PACKAGE = "br.com.jointecnologia.crud.";
+
+    /**
+     * Hints for the classes accessed reflectively at runtime:
+     * <ul>
+     *     <li>the entities of {@code model} and the DTOs of {@code controller.dto}, (de)serialized by Jackson through
+     *     their Lombok-generated accessors, constructors and builders, as well as the error and batch payloads;</li>
+     *     <li>the projection interfaces of {@code repository.projection}, implemented by Spring Data with JDK
+     *     proxies, including when they are requested dynamically by type, and the records built by constructor
+     *     expressions;</li>
+     *     <li>the MapStruct-generated {@link ControllerMapper} implementation;</li>
+     *     <li>the SQL scripts run at startup.</li>
+     * </ul>
+     * The packages are scanned when the hints are computed, at build time.
+     */
+    static class CrudRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            for (Class<?> type : classesIn("model", classLoader)) {
+                bindings.registerReflectionHints(hints.reflection(), type);
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+            bindings.registerReflectionHints(hints.reflection(),
+                    classesIn("controller.dto", classLoader).toArray(Class<?>[]::new));
+            bindings.registerReflectionHints(hints.reflection(), ApiError.class, ProductBatch.class);
+
+            for (Class<?> projection : classesIn("repository.projection", classLoader)) {
+                if (projection.isInterface()) {
+                    hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+                    hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class,
+                            DecoratingProxy.class);
+                } else {
+                    bindings.registerReflectionHints(hints.reflection(), projection);
+                }
+            }
+
+            hints.reflection().registerType(TypeReference.of(ControllerMapper.class.getName() + "Impl"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.resources().registerPattern("schema.sql");
+            hints.resources().registerPattern("db/*.sql");
+        }
+
+        private static List<Class<?>> classesIn(String subPackage, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                    return true;
+                }
+            };
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+            return scanner.findCandidateComponents(BASE_PACKAGE + subPackage).stream()
+                    .<Class<?>>map(definition -> ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader))
+                    .toList();
+        }
+    }
+}
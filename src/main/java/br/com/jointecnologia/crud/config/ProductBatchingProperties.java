@@ -0,0 +1,40 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the micro-batching of product lookups by ID.
+ * <p>
+ * When {@code app.product-batching.enabled} is {@code true}, lookups made by concurrent requests within
+ * {@code window} of each other are served by a single query, at the cost of up to {@code window} of added latency.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.batch.ProductBatchLoader
+ */
+@Data
+@ConfigurationProperties(prefix = "app.product-batching")
+public class ProductBatchingProperties {
+
+    /**
+     * Whether product lookups by ID should be batched.
+     */
+    private boolean enabled;
+
+    /**
+     * How long a batch collects lookups after the first one.
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * Number of distinct IDs after which a batch is queried without waiting for the end of the window.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Number of batches queried concurrently, each using one database connection.
+     */
+    private int threads = 4;
+}
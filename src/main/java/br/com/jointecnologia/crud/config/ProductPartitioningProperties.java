@@ -0,0 +1,30 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the partitioning of the {@code product} table.
+ * <p>
+ * When {@code app.product-partitioning.enabled} is {@code true}, {@code db/partition-product.sql} converts the
+ * table at startup into a table partitioned by hash of {@code category_id}, so that vacuum and index maintenance
+ * work on partitions a fraction of its size, and the queries filtering on a category only read one partition.
+ * The conversion happens once: disabling the property afterwards leaves the table partitioned.
+ * </p>
+ *
+ * @see SchemaMigrationConfig
+ */
+@Data
+@ConfigurationProperties(prefix = "app.product-partitioning")
+public class ProductPartitioningProperties {
+
+    /**
+     * Whether the product table should be partitioned.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of hash partitions created by the conversion.
+     */
+    private int partitions = 16;
+}
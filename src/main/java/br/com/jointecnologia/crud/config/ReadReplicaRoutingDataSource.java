@@ -0,0 +1,71 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@link AbstractRoutingDataSource} that sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * When the replica cannot provide a connection, the request fails over to the primary and the replica is skipped
+ * for the configured cooldown. This data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so that the physical connection is
+ * only requested once the read-only flag of the current transaction is known.
+ * </p>
+ *
+ * @see ReplicaRoutingDataSourceConfig
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration failoverCooldown;
+    private final Clock clock;
+
+    private volatile long replicaRetryAt;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration failoverCooldown) {
+        this(primary, replica, failoverCooldown, Clock.systemUTC());
+    }
+
+    ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration failoverCooldown, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.failoverCooldown = failoverCooldown;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && clock.millis() >= replicaRetryAt ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException ex) {
+            replicaRetryAt = clock.millis() + failoverCooldown.toMillis();
+            log.warn("Read replica unavailable, routing read-only transactions to the primary for {}", failoverCooldown, ex);
+            return primary.getConnection();
+        }
+    }
+}
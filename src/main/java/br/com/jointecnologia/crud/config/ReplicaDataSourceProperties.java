@@ -0,0 +1,45 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the optional PostgreSQL read replica.
+ * <p>
+ * When {@code app.datasource.replica.enabled} is {@code true}, read-only transactions are routed to the replica
+ * described by these properties. Credentials default to the ones of the primary datasource.
+ * </p>
+ *
+ * @see ReplicaRoutingDataSourceConfig
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Whether read-only transactions should be routed to the replica.
+     */
+    private boolean enabled;
+
+    /**
+     * JDBC URL of the replica.
+     */
+    private String url;
+
+    /**
+     * Login username of the replica. Defaults to the primary username.
+     */
+    private String username;
+
+    /**
+     * Login password of the replica. Defaults to the primary password.
+     */
+    private String password;
+
+    /**
+     * How long read-only transactions are sent to the primary after the replica failed to provide a connection.
+     */
+    private Duration failoverCooldown = Duration.ofSeconds(30);
+}
@@ -0,0 +1,52 @@
+package br.com.jointecnologia.crud.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs {@code db/migration.sql} before Hibernate updates the schema.
+ * <p>
+ * {@code spring.jpa.hibernate.ddl-auto=update} cannot convert existing values with a custom expression, nor alter a
+ * column that a view depends on. Such changes go into that script, which runs before the
+ * {@link jakarta.persistence.EntityManagerFactory} is created, whereas {@code schema.sql} runs after it.
+ * </p>
+ * <p>
+ * When {@code app.product-partitioning.enabled} is {@code true}, {@code db/partition-product.sql} runs next on the
+ * same connection, with the number of partitions passed in the {@code crud.product_partitions} setting.
+ * </p>
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    private static final String SCHEMA_MIGRATION = "schemaMigration";
+
+    @Bean(SCHEMA_MIGRATION)
+    public DataSourceInitializer schemaMigration(DataSource dataSource, ProductPartitioningProperties partitioning) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/migration.sql"));
+        if (partitioning.isEnabled()) {
+            if (partitioning.getPartitions() < 1) {
+                throw new IllegalStateException("app.product-partitioning.partitions must be positive");
+            }
+            String setting = "SET crud.product_partitions = " + partitioning.getPartitions();
+            populator.addScript(new ByteArrayResource(setting.getBytes(StandardCharsets.UTF_8)));
+            populator.addScript(new ClassPathResource("db/partition-product.sql"));
+        }
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(populator);
+        return initializer;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigration() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SCHEMA_MIGRATION);
+    }
+}
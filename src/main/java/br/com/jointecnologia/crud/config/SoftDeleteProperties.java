@@ -0,0 +1,57 @@
+package br.com.jointecnologia.crud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the soft deletion of products and categories.
+ * <p>
+ * When {@code app.soft-delete.enabled} is {@code true}, deleting a product or a category only sets its
+ * {@code deleted_at} column, and the deleted rows are removed later, in batches, by the
+ * {@link br.com.jointecnologia.crud.service.purge.SoftDeletePurger}. Deleted rows are hidden from every query
+ * whether or not the mode is enabled, so it can be switched off while rows are still waiting to be purged.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.purge.SoftDeletePurger
+ */
+@Data
+@ConfigurationProperties(prefix = "app.soft-delete")
+public class SoftDeleteProperties {
+
+    /**
+     * Whether deletes should only mark the rows as deleted instead of removing them.
+     */
+    private boolean enabled;
+
+    /**
+     * How long deleted rows are kept before being purged.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Delay between two purges, in ISO-8601 format since it is also read by {@code @Scheduled}.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(5);
+
+    /**
+     * Number of rows removed by each statement of a purge, each in its own transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum number of batches of each table removed by a single purge.
+     */
+    private int maxBatches = 200;
+
+    /**
+     * Pause between two batches, leaving room for other writers and for the replicas to catch up.
+     */
+    private Duration pause = Duration.ofMillis(50);
+
+    /**
+     * Number of HTTP requests in progress above which a purge stops, to resume at the next run.
+     */
+    private int maxActiveRequests = 4;
+}
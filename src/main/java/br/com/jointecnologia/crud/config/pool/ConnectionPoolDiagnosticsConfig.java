@@ -0,0 +1,37 @@
+package br.com.jointecnologia.crud.config.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every Hikari pool in a {@link WaitTrackingDataSource} and registers the {@link ConnectionPoolEndpoint}.
+ * <p>
+ * The wrappers are transparent to the rest of the application: they are {@code DelegatingDataSource}s, which
+ * Spring Boot unwraps to bind the Hikari metrics and health indicators.
+ * </p>
+ */
+@Configuration
+public class ConnectionPoolDiagnosticsConfig {
+
+    @Bean
+    public static BeanPostProcessor waitTrackingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource pool ? new WaitTrackingDataSource(pool) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public ConnectionPoolEndpoint connectionPoolEndpoint(ObjectProvider<DataSource> dataSources,
+                                                         MeterRegistry meterRegistry) {
+        return new ConnectionPoolEndpoint(dataSources, meterRegistry);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.jointecnologia.crud.config.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint ({@code GET /actuator/pool}) describing the state of the connection pools.
+ * <p>
+ * For every pool it reports the active, idle and total connections, the number of threads waiting for one, the
+ * connection acquisition time and timeouts recorded by Micrometer, and the threads waiting the longest together
+ * with the application frames they are waiting from. A pool is saturated when threads are waiting for it.
+ * </p>
+ * <p>
+ * Since it reveals stack frames, the endpoint is only exposed over HTTP with the {@code ops} profile.
+ * </p>
+ */
+@Endpoint(id = "pool")
+public class ConnectionPoolEndpoint {
+
+    private static final int MAX_WAITERS = 10;
+    private static final int MAX_FRAMES = 5;
+    private static final String APPLICATION_PACKAGE = "br.com.jointecnologia.crud.";
+
+    private final ObjectProvider<DataSource> dataSources;
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionPoolEndpoint(ObjectProvider<DataSource> dataSources, MeterRegistry meterRegistry) {
+        this.dataSources = dataSources;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public List<PoolDiagnostics> pools() {
+        return dataSources.orderedStream()
+                .filter(WaitTrackingDataSource.class::isInstance)
+                .map(WaitTrackingDataSource.class::cast)
+                .map(this::diagnose)
+                .toList();
+    }
+
+    private PoolDiagnostics diagnose(WaitTrackingDataSource dataSource) {
+        HikariDataSource pool = dataSource.getPool();
+        String name = pool.getPoolName();
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", name).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", name).counter();
+        long now = System.nanoTime();
+        List<Waiter> waiters = dataSource.getWaiters().entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(MAX_WAITERS)
+                .map(waiter -> new Waiter(waiter.getKey().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(now - waiter.getValue()),
+                        applicationFrames(waiter.getKey())))
+                .toList();
+        return new PoolDiagnostics(
+                name,
+                mxBean != null ? mxBean.getActiveConnections() : 0,
+                mxBean != null ? mxBean.getIdleConnections() : 0,
+                mxBean != null ? mxBean.getTotalConnections() : 0,
+                pool.getMaximumPoolSize(),
+                mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0,
+                acquire != null ? acquire.count() : 0,
+                acquire != null ? acquire.mean(TimeUnit.MILLISECONDS) : 0,
+                acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0,
+                timeouts != null ? (long) timeouts.count() : 0,
+                !waiters.isEmpty(),
+                waiters);
+    }
+
+    private static List<String> applicationFrames(Thread thread) {
+        return Arrays.stream(thread.getStackTrace())
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(APPLICATION_PACKAGE + "config.pool."))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .limit(MAX_FRAMES)
+                .map(StackTraceElement::toString)
+                .toList();
+    }
+
+    /**
+     * State of a connection pool.
+     *
+     * @param pool              the name of the pool.
+     * @param active            the connections in use.
+     * @param idle              the connections available.
+     * @param total             the connections opened.
+     * @param max               the maximum number of connections.
+     * @param pending           the threads waiting for a connection.
+     * @param acquireCount      the number of connections acquired since startup.
+     * @param acquireMeanMillis the mean time taken to acquire a connection since startup.
+     * @param acquireMaxMillis  the longest time taken to acquire a connection recently.
+     * @param timeouts          the number of acquisitions that timed out since startup.
+     * @param saturated         whether threads are waiting for a connection.
+     * @param waiters           the threads waiting the longest, with the application frames they wait from.
+     */
+    public record PoolDiagnostics(String pool, int active, int idle, int total, int max, int pending,
+                                  long acquireCount, double acquireMeanMillis, double acquireMaxMillis,
+                                  long timeouts, boolean saturated, List<Waiter> waiters) {
+    }
+
+    /**
+     * A thread waiting for a connection.
+     *
+     * @param thread        the name of the thread.
+     * @param waitingMillis how long it has been waiting.
+     * @param frames        the innermost application frames of its stack.
+     */
+    public record Waiter(String thread, long waitingMillis, List<String> frames) {
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.jointecnologia.crud.config.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps a Hikari pool to keep track of the threads currently waiting for one of its connections.
+ * <p>
+ * Recording a waiter costs one map insertion and removal per connection checkout. Stack traces of the waiters are
+ * only captured when the diagnostics are read, see {@link ConnectionPoolEndpoint}.
+ * </p>
+ */
+public class WaitTrackingDataSource extends DelegatingDataSource {
+
+    private final Map<Thread, Long> waitingSince = new ConcurrentHashMap<>();
+
+    public WaitTrackingDataSource(HikariDataSource pool) {
+        super(pool);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Thread thread = Thread.currentThread();
+        waitingSince.put(thread, System.nanoTime());
+        try {
+            return super.getConnection();
+        } finally {
+            waitingSince.remove(thread);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Thread thread = Thread.currentThread();
+        waitingSince.put(thread, System.nanoTime());
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            waitingSince.remove(thread);
+        }
+    }
+
+    /**
+     * @return the wrapped pool.
+     */
+    public HikariDataSource getPool() {
+        return (HikariDataSource) obtainTargetDataSource();
+    }
+
+    /**
+     * @return the threads waiting for a connection, with the {@link System#nanoTime()} at which they started.
+     */
+    public Map<Thread, Long> getWaiters() {
+        return Map.copyOf(waitingSince);
+    }
+}
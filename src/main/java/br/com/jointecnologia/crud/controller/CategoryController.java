@@ -1,18 +1,33 @@
 package br.com.jointecnologia.crud.controller;
 
+import br.com.jointecnologia.crud.controller.cache.CategoryListCache;
 import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.controller.dto.CategoryStatsDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.controller.idempotency.IdempotentRequestHandler;
 import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.controller.support.FieldSelection;
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.repository.projection.CategoryTreeNode;
+import br.com.jointecnologia.crud.repository.projection.CategoryUpsertResult;
 import br.com.jointecnologia.crud.service.CategoryService;
+import br.com.jointecnologia.crud.service.CategoryStatsService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -22,10 +37,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -36,32 +56,141 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
 
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_PARENT_ID = "parentId";
+    private static final String FIELD_PRODUCT_COUNT = "productCount";
+    private static final Set<String> FIELDS = Set.of(FIELD_ID, FIELD_NAME, FIELD_PARENT_ID, FIELD_PRODUCT_COUNT);
+
     private final CategoryService categoryService;
+    private final CategoryListCache categoryListCache;
+    private final CategoryStatsService categoryStatsService;
     private final ControllerMapper controllerMapper;
+    private final IdempotentRequestHandler idempotentRequestHandler;
 
     @GetMapping
-    @Operation(tags = "category", description = "Get all categories")
+    @Operation(tags = "category", description = "Get all categories with their product counts")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved all categories"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved all categories",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "The list did not change since the version in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown fields requested"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(
+            @Parameter(description = "Comma-separated list of fields to return (id, name, parentId, productCount)")
+            @RequestParam(required = false) List<String> fields) {
         log.info("Request to get all categories");
-        List<CategoryModel> categories = categoryService.getAllCategories();
-        return new ResponseEntity<>(controllerMapper.toCategoryDTOList(categories), HttpStatus.OK);
+        FieldSelection selection = FieldSelection.of(fields, "category", FIELDS);
+        if (selection.isAll()) {
+            // Served as precomputed bytes, with a 304 when the version matches If-None-Match
+            CategoryListCache.Snapshot snapshot = categoryListCache.snapshot();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(snapshot.eTag())
+                    .body(snapshot.body());
+        }
+        // The product counts cost a subquery per category, so they are only read when requested
+        List<CategoryDTO> categoryDTOs = selection.includes(FIELD_PRODUCT_COUNT)
+                ? categoryService.getCategoryListEntries().stream().map(controllerMapper::toCategoryDTO).toList()
+                : categoryService.getAllCategories(CategoryTreeNode.class).stream()
+                        .map(controllerMapper::toCategoryDTO).toList();
+        List<Map<String, Object>> categories = categoryDTOs.stream()
+                .map(category -> select(category, selection))
+                .toList();
+        return new ResponseEntity<>(categories, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
     @Operation(tags = "category", description = "Get a category by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved the category"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the category",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CategoryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown fields requested"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable @NotNull Long id) {
+    public ResponseEntity<?> getCategoryById(
+            @PathVariable @NotNull Long id,
+            @Parameter(description = "Comma-separated list of fields to return (id, name, parentId, productCount)")
+            @RequestParam(required = false) List<String> fields) {
         log.info("Request to get category by ID: {}", id);
-        CategoryModel category = categoryService.getCategoryById(id);
-        return new ResponseEntity<>(controllerMapper.toCategoryDTO(category), HttpStatus.OK);
+        FieldSelection selection = FieldSelection.of(fields, "category", FIELDS);
+        if (selection.isAll()) {
+            CategoryModel category = categoryService.getCategoryById(id);
+            return new ResponseEntity<>(controllerMapper.toCategoryDTO(category), HttpStatus.OK);
+        }
+        CategoryDTO category = selection.includes(FIELD_PRODUCT_COUNT)
+                ? controllerMapper.toCategoryDTO(categoryService.getCategoryListEntry(id))
+                : controllerMapper.toCategoryDTO(categoryService.getCategoryById(id, CategoryTreeNode.class));
+        return new ResponseEntity<>(select(category, selection), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/breadcrumbs")
+    @Operation(tags = "category", description = "Get a category and its ancestors, from the root down")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the breadcrumbs"),
+            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<CategoryDTO>> getBreadcrumbs(@PathVariable @NotNull Long id) {
+        log.info("Request to get breadcrumbs of category with ID: {}", id);
+        List<CategoryDTO> categories = categoryService.getBreadcrumbs(id).stream()
+                .map(controllerMapper::toCategoryDTO)
+                .toList();
+        return new ResponseEntity<>(categories, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/subtree")
+    @Operation(tags = "category", description = "Get a category and all its descendants, parents first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the subtree"),
+            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<CategoryDTO>> getSubtree(@PathVariable @NotNull Long id) {
+        log.info("Request to get subtree of category with ID: {}", id);
+        return new ResponseEntity<>(controllerMapper.toCategoryDTOList(categoryService.getSubtree(id)), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/products")
+    @Operation(tags = "category", description = "Get the products of a category and of all its descendants")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the products"),
+            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ProductDTO>> getSubtreeProducts(@PathVariable @NotNull Long id) {
+        log.info("Request to get products under category with ID: {}", id);
+        return new ResponseEntity<>(
+                controllerMapper.toProductDTOList(categoryService.getSubtreeProducts(id)), HttpStatus.OK);
+    }
+
+    @GetMapping("/stats")
+    @Operation(tags = "category", description = "Get the price statistics of every category")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<CategoryStatsDTO>> getAllCategoryStats() {
+        log.info("Request to get price statistics of all categories");
+        return new ResponseEntity<>(
+                controllerMapper.toCategoryStatsDTOList(categoryStatsService.getAllCategoryStats()), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/stats")
+    @Operation(tags = "category", description = "Get the price statistics of a category")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics"),
+            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CategoryStatsDTO> getCategoryStats(@PathVariable @NotNull Long id) {
+        log.info("Request to get price statistics of category with ID: {}", id);
+        return new ResponseEntity<>(
+                controllerMapper.toCategoryStatsDTO(categoryStatsService.getCategoryStats(id)), HttpStatus.OK);
     }
 
     @PostMapping
@@ -69,12 +198,20 @@ public class CategoryController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Successfully created the category"),
             @ApiResponse(responseCode = "400", description = "Invalid category data"),
+            @ApiResponse(responseCode = "409", description = "Duplicate name, or idempotency key in use or reused for a different category"),
+            @ApiResponse(responseCode = "422", description = "Parent category does not exist"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CategoryDTO> createCategory(@RequestBody @Valid CategoryDTO categoryDTO) {
+    public ResponseEntity<CategoryDTO> createCategory(
+            @Parameter(description = "Client-generated key making retries of this request safe")
+            @RequestHeader(name = IdempotentRequestHandler.IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = 255) String idempotencyKey,
+            @RequestBody @Valid CategoryDTO categoryDTO) {
         log.info("Request to create a new category: {}", categoryDTO.getName());
-        CategoryModel createdCategory = categoryService.createCategory(controllerMapper.toCategoryModel(categoryDTO));
-        return new ResponseEntity<>(controllerMapper.toCategoryDTO(createdCategory), HttpStatus.CREATED);
+        return idempotentRequestHandler.execute("POST /categories", idempotencyKey, categoryDTO, CategoryDTO.class, () -> {
+            CategoryModel createdCategory = categoryService.createCategory(controllerMapper.toCategoryModel(categoryDTO));
+            return new ResponseEntity<>(controllerMapper.toCategoryDTO(createdCategory), HttpStatus.CREATED);
+        });
     }
 
     @PutMapping("/{id}")
@@ -83,6 +220,8 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully updated the category"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
             @ApiResponse(responseCode = "400", description = "Invalid category data"),
+            @ApiResponse(responseCode = "409", description = "Parent category is the category itself or one of its descendants"),
+            @ApiResponse(responseCode = "422", description = "Parent category does not exist"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<CategoryDTO> updateCategory(@PathVariable @NotNull Long id,
@@ -93,11 +232,29 @@ public class CategoryController {
         return new ResponseEntity<>(controllerMapper.toCategoryDTO(updatedCategory), HttpStatus.OK);
     }
 
+    @PutMapping("/by-name/{name}")
+    @Operation(tags = "category", description = "Get or create a category by name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The category already existed"),
+            @ApiResponse(responseCode = "201", description = "Successfully created the category"),
+            @ApiResponse(responseCode = "400", description = "Invalid category name"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CategoryDTO> upsertCategoryByName(
+            @Parameter(description = "Name of the category")
+            @PathVariable @NotBlank @Size(max = 100) String name) {
+        log.info("Request to upsert category by name: {}", name);
+        CategoryUpsertResult category = categoryService.upsertCategoryByName(name);
+        return new ResponseEntity<>(controllerMapper.toCategoryDTO(category),
+                category.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(tags = "category", description = "Delete a category by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully deleted the category"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "409", description = "Category has subcategories"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<Void> deleteCategory(@PathVariable @NotNull Long id) {
@@ -105,4 +262,25 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Keeps only the fields of the given {@link CategoryDTO} that were requested by the client, so that the fields
+     * left out are absent from the response rather than {@code null}.
+     */
+    private static Map<String, Object> select(CategoryDTO category, FieldSelection selection) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (selection.includes(FIELD_ID)) {
+            fields.put(FIELD_ID, category.getId());
+        }
+        if (selection.includes(FIELD_NAME)) {
+            fields.put(FIELD_NAME, category.getName());
+        }
+        if (selection.includes(FIELD_PARENT_ID)) {
+            fields.put(FIELD_PARENT_ID, category.getParentId());
+        }
+        if (selection.includes(FIELD_PRODUCT_COUNT)) {
+            fields.put(FIELD_PRODUCT_COUNT, category.getProductCount());
+        }
+        return fields;
+    }
 }
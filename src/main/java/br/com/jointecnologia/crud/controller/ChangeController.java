@@ -0,0 +1,89 @@
+package br.com.jointecnologia.crud.controller;
+
+import br.com.jointecnologia.crud.controller.dto.CatalogChangeFeedDTO;
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.controller.stream.ChangeStreamBroadcaster;
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
+import br.com.jointecnologia.crud.service.CatalogChangeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/changes")
+@Tag(name = "Changes", description = "Feed of the changes made to products and categories")
+@Validated
+@Slf4j
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private final CatalogChangeService catalogChangeService;
+    private final ControllerMapper controllerMapper;
+    private final ChangeStreamBroadcaster changeStreamBroadcaster;
+
+    @GetMapping
+    @Operation(tags = "change", description = "Get the product and category changes following a sequence number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the changes"),
+            @ApiResponse(responseCode = "400", description = "Invalid sequence number or limit"),
+            @ApiResponse(responseCode = "410", description = "Changes were purged, the catalog must be reloaded"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CatalogChangeFeedDTO> getChanges(
+            @Parameter(description = "Sequence number of the last change applied, 0 for none")
+            @RequestParam(defaultValue = "0") @Min(0) long since,
+            @Parameter(description = "Maximum number of changes to return")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        log.debug("Request to get catalog changes after {}", since);
+        Slice<CatalogChangeModel> changes = catalogChangeService.getChanges(since, limit);
+        List<CatalogChangeModel> content = changes.getContent();
+        long next = content.isEmpty() ? since : content.get(content.size() - 1).getSeq();
+        return new ResponseEntity<>(new CatalogChangeFeedDTO(
+                controllerMapper.toCatalogChangeDTOList(content), next, changes.hasNext()), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(tags = "change", description = "Stream the product and category changes as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully subscribed to the changes"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "IDs of the categories to follow, every category if omitted")
+            @RequestParam(required = false) Set<Long> categoryId) {
+        log.info("Request to stream catalog changes of categories: {}", categoryId);
+        return changeStreamBroadcaster.subscribe(categoryId != null ? categoryId : Set.of());
+    }
+
+    @GetMapping("/latest")
+    @Operation(tags = "change", description = "Get the sequence number of the latest change")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the latest sequence number"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Long> getLatestSeq() {
+        log.debug("Request to get the latest catalog change");
+        return new ResponseEntity<>(catalogChangeService.getLatestSeq(), HttpStatus.OK);
+    }
+}
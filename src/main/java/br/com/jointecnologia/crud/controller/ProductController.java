@@ -1,18 +1,39 @@
 package br.com.jointecnologia.crud.controller;
 
+import br.com.jointecnologia.crud.controller.dto.ProductBatchDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductCreateDTO;
 import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductIdsDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductImportDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductUpdateDTO;
+import br.com.jointecnologia.crud.controller.idempotency.IdempotentRequestHandler;
 import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.controller.support.FieldSelection;
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.projection.ProductPriceSummary;
+import br.com.jointecnologia.crud.repository.projection.ProductRow;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.ProductImportService;
 import br.com.jointecnologia.crud.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -22,10 +43,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -35,32 +66,156 @@ import java.util.List;
 @Slf4j
 @RequiredArgsConstructor
 public class ProductController {
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_PRICE = "price";
+    private static final String FIELD_CATEGORY = "category";
+    private static final Set<String> FIELDS = Set.of(FIELD_ID, FIELD_NAME, FIELD_PRICE, FIELD_CATEGORY);
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
     private final ControllerMapper controllerMapper;
+    private final IdempotentRequestHandler idempotentRequestHandler;
 
     @GetMapping
     @Operation(tags = "product", description = "Get all products")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved all products"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved all products",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Unknown fields requested"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @Parameter(description = "Comma-separated list of fields to return (id, name, price, category)")
+            @RequestParam(required = false) List<String> fields) {
         log.info("Request to get all products");
-        List<ProductModel> products = productService.getAllProducts();
-        return new ResponseEntity<>(controllerMapper.toProductDTOList(products), HttpStatus.OK);
+        FieldSelection selection = FieldSelection.of(fields, "product", FIELDS);
+        if (selection.isAll()) {
+            List<ProductModel> products = productService.getAllProducts();
+            return new ResponseEntity<>(controllerMapper.toProductDTOList(products), HttpStatus.OK);
+        }
+        List<ProductDTO> products;
+        if (selection.includes(FIELD_CATEGORY)) {
+            products = controllerMapper.toProductDTOList(productService.getAllProducts());
+        } else if (selection.includes(FIELD_PRICE)) {
+            products = productService.getAllProducts(ProductPriceSummary.class).stream()
+                    .map(controllerMapper::toProductDTO)
+                    .toList();
+        } else {
+            products = productService.getAllProducts(ProductSummary.class).stream()
+                    .map(controllerMapper::toProductDTO)
+                    .toList();
+        }
+        return new ResponseEntity<>(products.stream().map(product -> select(product, selection)).toList(), HttpStatus.OK);
+    }
+
+    @GetMapping("/lean")
+    @Operation(tags = "product", description = "Get all products, read and written without intermediate objects")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved all products"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ProductRow>> getAllProductsLean() {
+        log.info("Request to get all products as rows");
+        return new ResponseEntity<>(productService.getAllProductRows(), HttpStatus.OK);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(tags = "product", description = "Get several products by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the products"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too many IDs"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(
+            @Parameter(description = "Comma-separated list of product IDs, at most 100")
+            @RequestParam @NotEmpty @Size(max = 100) List<@NotNull Long> ids) {
+        log.info("Request to get {} products by ID", ids.size());
+        return new ResponseEntity<>(controllerMapper.toProductBatchDTO(productService.getProductsByIds(ids)), HttpStatus.OK);
+    }
+
+    @PostMapping("/batch")
+    @Operation(tags = "product", description = "Get several products by ID, for ID lists too long for a query string")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the products"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too many IDs"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(@RequestBody @Valid ProductIdsDTO request) {
+        log.info("Request to get {} products by ID", request.getIds().size());
+        return new ResponseEntity<>(controllerMapper.toProductBatchDTO(productService.getProductsByIds(request.getIds())), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
     @Operation(tags = "product", description = "Get a product by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved the product"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the product",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown fields requested"),
             @ApiResponse(responseCode = "404", description = "Product not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable @NotNull Long id) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable @NotNull Long id,
+            @Parameter(description = "Comma-separated list of fields to return (id, name, price, category)")
+            @RequestParam(required = false) List<String> fields) {
         log.info("Request to get product by ID: {}", id);
-        ProductModel product = productService.getProductById(id);
-        return new ResponseEntity<>(controllerMapper.toProductDTO(product), HttpStatus.OK);
+        FieldSelection selection = FieldSelection.of(fields, "product", FIELDS);
+        if (selection.isAll()) {
+            ProductModel product = productService.getProductById(id);
+            return new ResponseEntity<>(controllerMapper.toProductDTO(product), HttpStatus.OK);
+        }
+        ProductDTO product;
+        if (selection.includes(FIELD_CATEGORY)) {
+            product = controllerMapper.toProductDTO(productService.getProductById(id));
+        } else if (selection.includes(FIELD_PRICE)) {
+            product = controllerMapper.toProductDTO(productService.getProductById(id, ProductPriceSummary.class));
+        } else {
+            product = controllerMapper.toProductDTO(productService.getProductById(id, ProductSummary.class));
+        }
+        return new ResponseEntity<>(select(product, selection), HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    @Operation(tags = "product", description = "Search products by name, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the matching products"),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ProductDTO>> searchProducts(
+            @Parameter(description = "Text to search for in the product name")
+            @RequestParam @NotBlank @Size(max = 100) String q,
+            @Parameter(description = "Zero-based page index")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        log.info("Request to search products by name: {}", q);
+        List<ProductDTO> products = productService.searchProducts(q.trim(), page, size).stream()
+                .map(controllerMapper::toProductDTO)
+                .toList();
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(tags = "product", description = "Suggest products whose name has a word starting with the prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the suggestions"),
+            @ApiResponse(responseCode = "400", description = "Invalid autocomplete parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ProductDTO>> autocompleteProducts(
+            @Parameter(description = "Prefix typed by the user")
+            @RequestParam @NotBlank @Size(max = 100) String prefix,
+            @Parameter(description = "Maximum number of suggestions")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        log.debug("Request to autocomplete products: {}", prefix);
+        List<ProductDTO> products = productService.autocompleteProducts(prefix, limit).stream()
+                .map(controllerMapper::toProductDTO)
+                .toList();
+        return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
     @PostMapping
@@ -68,12 +223,39 @@ public class ProductController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Successfully created the product"),
             @ApiResponse(responseCode = "400", description = "Invalid product data"),
+            @ApiResponse(responseCode = "409", description = "Idempotency key in use or reused for a different product"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<ProductDTO> createProduct(@RequestBody @Valid ProductDTO product) {
+    public ResponseEntity<ProductDTO> createProduct(
+            @Parameter(description = "Client-generated key making retries of this request safe")
+            @RequestHeader(name = IdempotentRequestHandler.IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = 255) String idempotencyKey,
+            @RequestBody @Valid ProductCreateDTO product) {
         log.info("Request to create a new product: {}", product.getName());
-        ProductModel createdProduct = productService.createProduct(controllerMapper.toProductModel(product));
-        return new ResponseEntity<>(controllerMapper.toProductDTO(createdProduct), HttpStatus.CREATED);
+        return idempotentRequestHandler.execute("POST /products", idempotencyKey, product, ProductDTO.class, () -> {
+            ProductModel createdProduct = productService.createProduct(controllerMapper.toProductModel(product));
+            return new ResponseEntity<>(controllerMapper.toProductDTO(createdProduct), HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping(path = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(tags = "product", description = "Import products in bulk from a UTF-8 CSV file with a "
+            + "name,price,category row per product, category being the name of the category")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imported the valid rows and listed the rejected ones"),
+            @ApiResponse(responseCode = "400", description = "Malformed CSV file"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductImportDTO> importProducts(
+            @Parameter(description = "Whether unknown categories are created rather than their rows rejected")
+            @RequestParam(defaultValue = "false") boolean createCategories,
+            InputStream body) throws IOException {
+        log.info("Request to import products");
+        try (Reader csv = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            ProductImportDTO result = controllerMapper.toProductImportDTO(
+                    productImportService.importProducts(csv, createCategories));
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        }
     }
 
     @PutMapping("/{id}")
@@ -85,10 +267,9 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ProductDTO> updateProduct(@PathVariable @NotNull Long id,
-                                                    @RequestBody @Valid ProductModel product) {
+                                                    @RequestBody @Valid ProductUpdateDTO product) {
         log.info("Request to update product with ID: {}", id);
-        product.setId(id);
-        ProductModel updatedProduct = productService.updateProduct(product);
+        ProductModel updatedProduct = productService.updateProduct(id, controllerMapper.toProductModel(product));
         return new ResponseEntity<>(controllerMapper.toProductDTO(updatedProduct), HttpStatus.OK);
     }
 
@@ -104,4 +285,25 @@ public class ProductController {
         productService.deleteProduct(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Keeps only the fields of the given {@link ProductDTO} that were requested by the client, so that the fields
+     * left out are absent from the response rather than {@code null}.
+     */
+    private static Map<String, Object> select(ProductDTO product, FieldSelection selection) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (selection.includes(FIELD_ID)) {
+            fields.put(FIELD_ID, product.getId());
+        }
+        if (selection.includes(FIELD_NAME)) {
+            fields.put(FIELD_NAME, product.getName());
+        }
+        if (selection.includes(FIELD_PRICE)) {
+            fields.put(FIELD_PRICE, product.getPrice());
+        }
+        if (selection.includes(FIELD_CATEGORY)) {
+            fields.put(FIELD_CATEGORY, product.getCategory());
+        }
+        return fields;
+    }
 }
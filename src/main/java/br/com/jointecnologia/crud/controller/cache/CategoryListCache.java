@@ -0,0 +1,329 @@
+package br.com.jointecnologia.crud.controller.cache;
+
+import br.com.jointecnologia.crud.config.CategoryListProperties;
+import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.service.CategoryService;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed body of {@code GET /categories}: every category with its product count, serialized ahead of the
+ * requests and written to them as is.
+ * <p>
+ * Each category is kept serialized on its own, and the body is the concatenation of these JSON objects in ID order.
+ * Changes published through {@link CategoryChangedEvent}, {@link ProductChangedEvent} and
+ * {@link ProductsImportedEvent} after commit mark the affected categories dirty, and a background refresh reads back
+ * only those categories, serializes again only the ones whose content changed and publishes a new {@link Snapshot}
+ * under the next version. Requests read a single volatile field, so the list follows the changes after the time of
+ * a refresh.
+ * </p>
+ * <p>
+ * A product moved to another category marks both its previous and its new category dirty. Refreshes run one at a
+ * time on a dedicated thread. Every {@code app.category-list.refresh-interval}, all the categories are read back
+ * to pick up the changes committed by other instances; the ones whose content did not change are not serialized
+ * again.
+ * </p>
+ *
+ * @see CategoryListProperties
+ */
+@Slf4j
+@Component
+public class CategoryListCache {
+
+    private static final byte[] OPEN = {'['};
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] CLOSE = {']'};
+
+    private final CategoryService categoryService;
+    private final ControllerMapper controllerMapper;
+    private final ObjectMapper objectMapper;
+    private final CategoryListProperties properties;
+    private final Executor executor;
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadAll = new AtomicBoolean(true);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Serialized categories by ID, only accessed by {@link #refresh()}.
+     */
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private long version;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CategoryListCache(CategoryService categoryService, ControllerMapper controllerMapper,
+                             ObjectMapper objectMapper, CategoryListProperties properties) {
+        this(categoryService, controllerMapper, objectMapper, properties,
+                Executors.newSingleThreadExecutor(new CustomizableThreadFactory("category-list-")));
+    }
+
+    CategoryListCache(CategoryService categoryService, ControllerMapper controllerMapper, ObjectMapper objectMapper,
+                      CategoryListProperties properties, Executor executor) {
+        this.categoryService = categoryService;
+        this.controllerMapper = controllerMapper;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Builds the list from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reloadAll.set(true);
+        refresh();
+        log.info("Category list loaded with {} categories, {} bytes", entries.size(), snapshot.body().length);
+    }
+
+    /**
+     * Returns the current list, building it first if it was never built.
+     *
+     * @return the latest {@link Snapshot}.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Refreshes the category of a committed category change.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        dirty.add(event.categoryId());
+        scheduleRefresh();
+    }
+
+    /**
+     * Refreshes the product count of the category of a committed product change, and of its previous category when
+     * the product was moved, or of every category when its category is unknown.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.categoryId() == null) {
+            reloadAll.set(true);
+        } else {
+            dirty.add(event.categoryId());
+            if (event.previousCategoryId() != null) {
+                dirty.add(event.previousCategoryId());
+            }
+        }
+        scheduleRefresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        dirty.addAll(event.categoryIds());
+        scheduleRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Reloads every category, picking up the changes committed by other instances.
+     */
+    @Scheduled(initialDelayString = "${app.category-list.refresh-interval:PT1M}",
+            fixedDelayString = "${app.category-list.refresh-interval:PT1M}")
+    public void reload() {
+        reloadAll.set(true);
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::refresh, executor).whenComplete((ignored, ex) -> {
+                refreshing.set(false);
+                if (ex != null) {
+                    log.error("Category list refresh failed", ex);
+                } else if (reloadAll.get() || !dirty.isEmpty()) {
+                    scheduleRefresh();
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies the pending changes and publishes a new snapshot if the list changed.
+     * <p>
+     * The pending changes are taken before the categories are read, and the events are published after commit, so
+     * a change arriving meanwhile is either read now or left pending for the next refresh.
+     * </p>
+     */
+    synchronized void refresh() {
+        boolean all = reloadAll.getAndSet(false);
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        if (snapshot == null || ids.size() > properties.getMaxIncrementalCategories()) {
+            all = true;
+        }
+        if (!all && ids.isEmpty() && snapshot != null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int serialized;
+        try {
+            serialized = all ? replaceAll(categoryService.getCategoryListEntries()) : replace(ids);
+        } catch (RuntimeException e) {
+            if (all) {
+                reloadAll.set(true);
+            } else {
+                dirty.addAll(ids);
+            }
+            throw e;
+        }
+        if (serialized > 0 || snapshot == null) {
+            version++;
+            snapshot = new Snapshot(version, instance + "-" + version, concatenate());
+            log.debug("Category list version {} published in {} ms, {} categories serialized", version,
+                    (System.nanoTime() - start) / 1_000_000, serialized);
+        }
+    }
+
+    /**
+     * Replaces every category with the given ones.
+     *
+     * @return the number of categories added, changed or removed.
+     */
+    private int replaceAll(List<CategoryListEntry> categories) {
+        Map<Long, Entry> previous = new HashMap<>(entries);
+        entries.clear();
+        int changed = 0;
+        for (CategoryListEntry category : categories) {
+            Entry old = previous.remove(category.getId());
+            Entry entry = entry(old, category);
+            if (entry != old) {
+                changed++;
+            }
+            entries.put(category.getId(), entry);
+        }
+        return changed + previous.size();
+    }
+
+    /**
+     * Replaces the given categories, removing the ones that no longer exist.
+     *
+     * @return the number of categories added, changed or removed.
+     */
+    private int replace(List<Long> ids) {
+        Map<Long, CategoryListEntry> found = new HashMap<>();
+        categoryService.getCategoryListEntries(ids).forEach(category -> found.put(category.getId(), category));
+        int changed = 0;
+        for (Long id : ids) {
+            CategoryListEntry category = found.get(id);
+            if (category == null) {
+                changed += entries.remove(id) != null ? 1 : 0;
+                continue;
+            }
+            Entry old = entries.get(id);
+            Entry entry = entry(old, category);
+            if (entry != old) {
+                changed++;
+                entries.put(id, entry);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the previous entry of a category if its content did not change, or a newly serialized one.
+     */
+    private Entry entry(Entry previous, CategoryListEntry category) {
+        CategoryDTO dto = controllerMapper.toCategoryDTO(category);
+        if (previous != null && previous.category().equals(dto)) {
+            return previous;
+        }
+        try {
+            return new Entry(dto, objectMapper.writeValueAsBytes(dto));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] concatenate() {
+        int size = OPEN.length + CLOSE.length + Math.max(0, entries.size() - 1) * SEPARATOR.length;
+        for (Entry entry : entries.values()) {
+            size += entry.json().length;
+        }
+        byte[] body = new byte[size];
+        int position = append(body, 0, OPEN);
+        boolean first = true;
+        for (Entry entry : entries.values()) {
+            if (!first) {
+                position = append(body, position, SEPARATOR);
+            }
+            position = append(body, position, entry.json());
+            first = false;
+        }
+        append(body, position, CLOSE);
+        return body;
+    }
+
+    private static int append(byte[] body, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, body, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /**
+     * A version of the list.
+     *
+     * @param version the version, incremented every time the list changes.
+     * @param eTag    the entity tag of the version, unique across restarts.
+     * @param body    the JSON array of the categories, not to be modified.
+     */
+    public record Snapshot(long version, String eTag, byte[] body) {
+    }
+
+    /**
+     * A category with its serialized form.
+     *
+     * @param category the category.
+     * @param json     the category serialized as a JSON object.
+     */
+    private record Entry(CategoryDTO category, byte[] json) {
+    }
+}
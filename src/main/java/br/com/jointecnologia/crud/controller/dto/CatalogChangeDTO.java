@@ -0,0 +1,37 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Represents a change made to a product or a category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Change made to a product or a category")
+public class CatalogChangeDTO {
+
+    @Schema(description = "Sequence number of the change, increasing in commit order", example = "1042")
+    private Long seq;
+
+    @Schema(description = "Type of the changed entity", example = "PRODUCT")
+    private EntityType entityType;
+
+    @Schema(description = "Unique identifier of the changed entity", example = "1")
+    private Long entityId;
+
+    @Schema(description = "Whether the entity was created or updated (UPSERT), or deleted (DELETE)", example = "UPSERT")
+    private Operation operation;
+
+    @Schema(description = "When the change was made", example = "2024-11-09T10:15:30Z")
+    private Instant changedAt;
+}
@@ -0,0 +1,33 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a page of the catalog change feed.
+ * <p>
+ * Consumers apply the changes in order, then ask for the changes following {@code next}, immediately when
+ * {@code hasMore} is {@code true}.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of the catalog change feed")
+public class CatalogChangeFeedDTO {
+
+    @Schema(description = "Changes following the requested sequence number, in commit order")
+    private List<CatalogChangeDTO> changes;
+
+    @Schema(description = "Sequence number to pass as 'since' to get the following changes", example = "1042")
+    private Long next;
+
+    @Schema(description = "Whether more changes follow this page", example = "false")
+    private boolean hasMore;
+}
@@ -25,4 +25,11 @@ public class CategoryDTO {
 
     @Schema(description = "Name of the category", example = "Electronics")
     private String name;
+
+    @Schema(description = "Unique identifier of the parent category, null for a root category", example = "7")
+    private Long parentId;
+
+    @Schema(description = "Number of products in the category, only set by GET /categories or when requested in fields",
+            example = "42", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long productCount;
 }
@@ -0,0 +1,27 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a reference to an existing category in a write payload.
+ * <p>
+ * Only the identifier is read: any other category field sent by the client is ignored, and the category itself
+ * is never created or modified through the product it is referenced by.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Reference to an existing category")
+public class CategoryRefDTO {
+
+    @NotNull
+    @Schema(description = "Unique identifier of the category", example = "123", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long id;
+}
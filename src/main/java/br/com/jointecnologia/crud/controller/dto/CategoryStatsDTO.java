@@ -0,0 +1,40 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import br.com.jointecnologia.crud.model.Price;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the price statistics of the products of a category.
+ * <p>
+ * Price statistics are null for categories without products.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Price statistics of the products of a category")
+public class CategoryStatsDTO {
+
+    @Schema(description = "Unique identifier for the category", example = "123")
+    private Long categoryId;
+
+    @Schema(description = "Name of the category", example = "Electronics")
+    private String categoryName;
+
+    @Schema(description = "Number of products in the category", example = "42")
+    private Long productCount;
+
+    @Schema(description = "Lowest product price in the category", type = "number", example = "9.99")
+    private Price minPrice;
+
+    @Schema(description = "Highest product price in the category", type = "number", example = "1999.99")
+    private Price maxPrice;
+
+    @Schema(description = "Average product price in the category, rounded to cents", type = "number", example = "349.50")
+    private Price avgPrice;
+}
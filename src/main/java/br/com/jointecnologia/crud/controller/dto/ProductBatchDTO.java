@@ -0,0 +1,29 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the products fetched by ID.
+ * <p>
+ * Products are listed in the requested order, and the requested IDs matching no product are listed apart.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Products fetched by ID")
+public class ProductBatchDTO {
+
+    @Schema(description = "Products found, in the requested order")
+    private List<ProductDTO> products;
+
+    @Schema(description = "Requested IDs matching no product", example = "[3]")
+    private List<Long> missingIds;
+}
@@ -0,0 +1,41 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import br.com.jointecnologia.crud.model.Price;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the payload for creating a new product.
+ * <p>
+ * The category is referenced by its identifier only, and the product identifier is never read from the body.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Payload for creating a product")
+public class ProductCreateDTO {
+
+    @NotBlank
+    @Size(max = 100)
+    @Schema(description = "Name of the product", example = "Laptop", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String name;
+
+    @NotNull
+    @Schema(description = "Price of the product, with at most two decimal places", type = "number", example = "799.99",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Price price;
+
+    @NotNull
+    @Valid
+    @Schema(description = "Category to which the product belongs", requiredMode = Schema.RequiredMode.REQUIRED)
+    private CategoryRefDTO category;
+}
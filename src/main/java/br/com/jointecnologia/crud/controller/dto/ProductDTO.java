@@ -1,5 +1,6 @@
 package br.com.jointecnologia.crud.controller.dto;
 
+import br.com.jointecnologia.crud.model.Price;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,8 +26,8 @@ public class ProductDTO {
     @Schema(description = "Name of the product", example = "Laptop")
     private String name;
 
-    @Schema(description = "Price of the product", example = "799.99")
-    private Double price;
+    @Schema(description = "Price of the product, with at most two decimal places", type = "number", example = "799.99")
+    private Price price;
 
     @Schema(description = "Category to which the product belongs",
             implementation = CategoryDTO.class,
@@ -0,0 +1,28 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the payload for fetching several products by ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Payload for fetching several products by ID")
+public class ProductIdsDTO {
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Schema(description = "IDs of the products to fetch, at most 1000", example = "[1, 2, 3]")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,36 @@
+package br.com.jointecnologia.crud.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of a bulk import of products.
+ * <p>
+ * Only the reasons of the first rejected rows are listed, in line order.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of a bulk import of products")
+public class ProductImportDTO {
+
+    @Schema(description = "Number of products created", example = "998")
+    private long imported;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long rejected;
+
+    @Schema(description = "Number of categories created for the imported products", example = "0")
+    private int createdCategories;
+
+    @Schema(description = "Reasons of the first rejections",
+            example = "[\"Line 3: price must be a number with at most 2 decimal places\"]")
+    private List<String> errors;
+}
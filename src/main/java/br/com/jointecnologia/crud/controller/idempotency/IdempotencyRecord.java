@@ -0,0 +1,26 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import java.time.Instant;
+
+/**
+ * State of an idempotency key: the request that claimed it and, once that request completed, its response.
+ *
+ * @param requestHash SHA-256 of the request body that claimed the key.
+ * @param status      HTTP status of the response, or {@code null} while the request is in progress.
+ * @param body        JSON body of the response, or {@code null} while the request is in progress.
+ * @param expiresAt   when the key may be reused.
+ */
+public record IdempotencyRecord(String requestHash, Integer status, String body, Instant expiresAt) {
+
+    public static IdempotencyRecord inProgress(String requestHash, Instant expiresAt) {
+        return new IdempotencyRecord(requestHash, null, null, expiresAt);
+    }
+
+    public IdempotencyRecord completed(int status, String body, Instant expiresAt) {
+        return new IdempotencyRecord(requestHash, status, body, expiresAt);
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage of idempotency keys and the responses of the requests that used them.
+ * <p>
+ * Implementations must make {@link #claim(String, String, Instant)} atomic, so that only one of several
+ * concurrent requests with the same key is executed.
+ * </p>
+ *
+ * @see IdempotentRequestHandler
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key for a request about to be executed, or takes over an expired key.
+     *
+     * @param key         the idempotency key.
+     * @param requestHash SHA-256 of the request body.
+     * @param expiresAt   when the key may be claimed again if the request did not complete.
+     * @return empty if the key was claimed, otherwise the unexpired record already holding it.
+     */
+    Optional<IdempotencyRecord> claim(String key, String requestHash, Instant expiresAt);
+
+    /**
+     * Stores the response of the request holding the key, to be replayed for repeated requests.
+     *
+     * @param key       the idempotency key.
+     * @param status    the HTTP status of the response.
+     * @param body      the JSON body of the response.
+     * @param expiresAt when the key and its response may be removed.
+     */
+    void complete(String key, int status, String body, Instant expiresAt);
+
+    /**
+     * Releases a key whose request failed, so that it can be retried.
+     *
+     * @param key the idempotency key.
+     */
+    void release(String key);
+
+    /**
+     * Removes the expired keys.
+     *
+     * @return the number of removed keys.
+     */
+    int evictExpired();
+}
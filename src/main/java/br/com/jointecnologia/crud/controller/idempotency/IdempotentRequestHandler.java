@@ -0,0 +1,143 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import br.com.jointecnologia.crud.config.IdempotencyProperties;
+import br.com.jointecnologia.crud.exceptions.IdempotencyKeyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Executes requests carrying an {@value #IDEMPOTENCY_KEY_HEADER} header at most once per key.
+ * <p>
+ * The first request with a given key is executed and its successful response is stored in the
+ * {@link IdempotencyStore} for {@code app.idempotency.ttl}. Repeated requests with the same key and body get the
+ * stored response back, flagged by the {@value #REPLAYED_HEADER} header, without reaching the service layer.
+ * A repeat while the first request is still running, or with a different body, is rejected with an
+ * {@link IdempotencyKeyConflictException}. Failed requests release their key so they can be retried. A running
+ * request only holds its key for {@code app.idempotency.in-progress-lease}, so that the key of a request
+ * interrupted by a crash can be used again soon after.
+ * </p>
+ */
+@Slf4j
+@Component
+public class IdempotentRequestHandler {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotentRequestHandler(IdempotencyStore store, ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this(store, objectMapper, properties, Clock.systemUTC());
+    }
+
+    IdempotentRequestHandler(IdempotencyStore store, ObjectMapper objectMapper, IdempotencyProperties properties,
+                             Clock clock) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the given action unless a request with the same key was already executed.
+     *
+     * @param operation    the operation, e.g. {@code "POST /products"}, scoping the key.
+     * @param key          the value of the {@value #IDEMPOTENCY_KEY_HEADER} header, or {@code null} if absent.
+     * @param request      the request body, compared with the one of the first request.
+     * @param responseType the type of the response body, used to replay it.
+     * @param action       the action producing the response.
+     * @param <T>          the type of the response body.
+     * @return the response of the action, or the stored response of the first request with the same key.
+     * @throws IdempotencyKeyConflictException if the key is in use by a running request or by a different request.
+     */
+    public <T> ResponseEntity<T> execute(String operation, String key, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        String scopedKey = operation + " " + key;
+        String requestHash = hash(request);
+        Optional<IdempotencyRecord> existing = store.claim(scopedKey, requestHash,
+                clock.instant().plus(properties.getInProgressLease()));
+        if (existing.isPresent()) {
+            return replay(key, requestHash, existing.get(), responseType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error ex) {
+            store.release(scopedKey);
+            throw ex;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            store.complete(scopedKey, response.getStatusCode().value(), toJson(response.getBody()),
+                    clock.instant().plus(properties.getTtl()));
+        } else {
+            store.release(scopedKey);
+        }
+        return response;
+    }
+
+    /**
+     * Removes the expired keys from the store.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.eviction-interval:PT10M}")
+    public void evictExpired() {
+        int evicted = store.evictExpired();
+        log.debug("Evicted {} expired idempotency keys", evicted);
+    }
+
+    private <T> ResponseEntity<T> replay(String key, String requestHash, IdempotencyRecord record,
+                                         Class<T> responseType) {
+        if (!record.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(key, "was already used for a different request");
+        }
+        if (!record.isCompleted()) {
+            throw new IdempotencyKeyConflictException(key, "is in use by a request still in progress");
+        }
+        log.info("Replaying the stored response for idempotency key: {}", key);
+        try {
+            T body = record.body() != null ? objectMapper.readValue(record.body(), responseType) : null;
+            return ResponseEntity.status(record.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} kept in the heap of this instance, holding at most {@code maxEntries} keys.
+ * <p>
+ * Keys are kept in the order they were claimed or completed, which is also their expiration order since completed
+ * keys share the same TTL, so expired keys are evicted from the head. A key whose request never completed expires
+ * sooner, and is taken over when claimed again. When the store is full, the oldest key is evicted even if it has
+ * not expired.
+ * </p>
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, IdempotencyRecord> records = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized Optional<IdempotencyRecord> claim(String key, String requestHash, Instant expiresAt) {
+        evictExpired();
+        IdempotencyRecord existing = records.get(key);
+        if (existing != null && existing.expiresAt().isAfter(clock.instant())) {
+            return Optional.of(existing);
+        }
+        records.remove(key);
+        if (records.size() >= maxEntries) {
+            Iterator<String> oldest = records.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        records.put(key, IdempotencyRecord.inProgress(requestHash, expiresAt));
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void complete(String key, int status, String body, Instant expiresAt) {
+        IdempotencyRecord record = records.remove(key);
+        if (record != null) {
+            records.put(key, record.completed(status, body, expiresAt));
+        }
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        records.remove(key);
+    }
+
+    @Override
+    public synchronized int evictExpired() {
+        Instant now = clock.instant();
+        int evicted = 0;
+        Iterator<IdempotencyRecord> iterator = records.values().iterator();
+        while (iterator.hasNext() && !iterator.next().expiresAt().isAfter(now)) {
+            iterator.remove();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the number of stored keys.
+     */
+    public synchronized int size() {
+        return records.size();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} backed by the {@code idempotency_record} table (see {@code schema.sql}), shared by every
+ * instance of the application and surviving restarts.
+ * <p>
+ * Statements run outside of any transaction, so a claim is visible to other instances as soon as it is made.
+ * </p>
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String requestHash, Instant expiresAt) {
+        while (true) {
+            // Inserts the key, or takes it over if it expired, in one statement so that concurrent claims serialize.
+            int claimed = jdbcTemplate.update("""
+                    INSERT INTO idempotency_record (idempotency_key, request_hash, expires_at) VALUES (?, ?, ?)
+                    ON CONFLICT (idempotency_key) DO UPDATE
+                    SET request_hash = EXCLUDED.request_hash, status = NULL, body = NULL, expires_at = EXCLUDED.expires_at
+                    WHERE idempotency_record.expires_at <= ?
+                    """, key, requestHash, Timestamp.from(expiresAt), Timestamp.from(clock.instant()));
+            if (claimed > 0) {
+                return Optional.empty();
+            }
+            Optional<IdempotencyRecord> existing = jdbcTemplate.query(
+                    "SELECT request_hash, status, body, expires_at FROM idempotency_record WHERE idempotency_key = ?",
+                    (rs, rowNum) -> new IdempotencyRecord(rs.getString("request_hash"),
+                            rs.getObject("status", Integer.class), rs.getString("body"),
+                            rs.getTimestamp("expires_at").toInstant()),
+                    key).stream().findFirst();
+            // Otherwise the holder released the key in the meantime, and it can be claimed again.
+            if (existing.isPresent()) {
+                return existing;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, int status, String body, Instant expiresAt) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_record SET status = ?, body = ?, expires_at = ? WHERE idempotency_key = ?",
+                status, body, Timestamp.from(expiresAt), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_record WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Override
+    public int evictExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_record WHERE expires_at <= ?",
+                Timestamp.from(clock.instant()));
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of requests processed concurrently, adapting the limit to their latency (gradient algorithm).
+ * <p>
+ * The requests it guards are bound by the database, so their latency rises as soon as the database or its
+ * connection pool saturates. Every completed request updates a short-term and a long-term average of the latency;
+ * while the short-term average stays within {@code tolerance} times the long-term one, the limit grows by about its
+ * square root, and beyond that it shrinks in proportion to the latency increase, down to {@code min-limit}.
+ * Requests above the limit are rejected immediately instead of queuing for a connection.
+ * </p>
+ * <p>
+ * The state is kept in atomic variables. Concurrent updates may overwrite each other, which only drops latency
+ * samples. The {@code api.concurrency.limit} and {@code api.concurrency.in_flight} gauges and the
+ * {@code api.concurrency.rejected} counter are published.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.01;
+
+    private final LoadSheddingProperties.Concurrency properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong shortLatency = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong longLatency = new AtomicLong(Double.doubleToLongBits(0));
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(LoadSheddingProperties.Concurrency properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = new AtomicLong(Double.doubleToLongBits(properties.getInitialLimit()));
+        Gauge.builder("api.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current limit of concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("api.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests being processed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("api.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if the limit is not reached. An admitted request must be {@link #release released}.
+     *
+     * @return the number of requests in flight before this one, or {@code -1} if it was rejected.
+     */
+    public int tryAcquire() {
+        int limit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its latency.
+     *
+     * @param inFlightBefore the value returned by {@link #tryAcquire()}.
+     * @param latencyNanos   the time taken to process the request.
+     */
+    public void release(int inFlightBefore, long latencyNanos) {
+        inFlight.decrementAndGet();
+        double shortTerm = average(shortLatency, latencyNanos, SHORT_WEIGHT);
+        double longTerm = average(longLatency, latencyNanos, LONG_WEIGHT);
+        if (longTerm > 2 * shortTerm) {
+            // The load dropped: let the long-term average follow it down quickly
+            longTerm *= 0.95;
+            longLatency.set(Double.doubleToLongBits(longTerm));
+        }
+        double current = Double.longBitsToDouble(limit.get());
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * longTerm / shortTerm));
+        double estimate = current * gradient + Math.sqrt(current);
+        if (estimate > current && inFlightBefore < current / 2) {
+            // The limit is not what constrains the requests, so there is nothing to learn about a higher one
+            return;
+        }
+        double smoothed = current * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing();
+        limit.set(Double.doubleToLongBits(
+                Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), smoothed))));
+    }
+
+    /**
+     * @return the current limit of concurrent requests.
+     */
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    /**
+     * @return the number of requests being processed.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private static double average(AtomicLong average, long sample, double weight) {
+        double previous = Double.longBitsToDouble(average.get());
+        double updated = previous == 0 ? sample : previous + (sample - previous) * weight;
+        average.set(Double.doubleToLongBits(updated));
+        return updated;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.exceptions.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Sheds the requests above the concurrency limit and reports the latency of the others to the limiter.
+ *
+ * @see AdaptiveConcurrencyLimiter
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        int inFlightBefore = limiter.tryAcquire();
+        if (inFlightBefore < 0) {
+            throw new ServiceOverloadedException(limiter.getLimit());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(inFlightBefore, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            limiter.release(permit.inFlightBefore(), System.nanoTime() - permit.startNanos());
+        }
+    }
+
+    private record Permit(int inFlightBefore, long startNanos) {
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.exceptions.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.time.Duration;
+
+/**
+ * Rejects the requests of clients that exceed the rate limit of the endpoint they call.
+ * <p>
+ * Authenticated clients are identified by the configured header, e.g. their API key, or else by their principal.
+ * Any other client is identified by its remote address, since the header could be changed on every request to get
+ * a fresh bucket, unless the header is trusted because a proxy in front of the application sets it. Endpoints are identified by the HTTP method and the path pattern of their handler, e.g.
+ * {@code GET /products/{id}}.
+ * </p>
+ *
+ * @see TokenBucketRateLimiter
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String clientHeader;
+    private final boolean trustClientHeader;
+
+    public RateLimitInterceptor(TokenBucketRateLimiter rateLimiter, String clientHeader, boolean trustClientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = clientHeader;
+        this.trustClientHeader = trustClientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String client = client(request);
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long waitNanos = rateLimiter.tryAcquire(client, endpoint);
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(endpoint, Duration.ofNanos(waitNanos));
+        }
+        return true;
+    }
+
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        boolean hasKey = key != null && !key.isBlank();
+        if (trustClientHeader && hasKey) {
+            return key;
+        }
+        Principal principal = request.getUserPrincipal();
+        if (principal == null) {
+            return request.getRemoteAddr();
+        }
+        return hasKey ? key : principal.getName();
+    }
+}
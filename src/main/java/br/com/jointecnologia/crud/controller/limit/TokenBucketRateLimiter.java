@@ -0,0 +1,105 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client and endpoint, implemented without locks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the generic cell rate
+ * algorithm): taking a token pushes that time one refill interval further, and the request is rejected if it would
+ * end up more than {@code capacity} intervals in the future. A bucket that is full again carries no state, so the
+ * buckets of idle clients are discarded by {@link #evictIdle()}, which runs every {@code sweep-interval} off the
+ * request path.
+ * </p>
+ * <p>
+ * At most {@code max-buckets} buckets are tracked: once they are all taken, the requests of new clients are rejected
+ * until a sweep frees some of them. Concurrent requests of new clients can take a few buckets more than the bound.
+ * </p>
+ * <p>
+ * Rejections are counted by the {@code api.rate_limit.rejected} metric, tagged by endpoint.
+ * </p>
+ */
+public class TokenBucketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final LoadSheddingProperties.RateLimit properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(LoadSheddingProperties.RateLimit properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(LoadSheddingProperties.RateLimit properties, MeterRegistry meterRegistry,
+                           LongSupplier nanoTime) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes a token from the bucket of the given client and endpoint.
+     *
+     * @param client   the client identifier.
+     * @param endpoint the endpoint, as method and path pattern.
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String client, String endpoint) {
+        LoadSheddingProperties.Bucket limit = properties.bucketFor(endpoint);
+        long interval = (long) (NANOS_PER_SECOND / limit.getRefillRate());
+        long burst = interval * limit.getCapacity();
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = bucket(client + " " + endpoint, now);
+        if (bucket == null) {
+            meterRegistry.counter("api.rate_limit.rejected", "endpoint", endpoint).increment();
+            return properties.getSweepInterval().toNanos();
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + interval;
+            if (next - now > burst) {
+                meterRegistry.counter("api.rate_limit.rejected", "endpoint", endpoint).increment();
+                return next - now - burst;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Discards the buckets that are full again, whose clients have been idle long enough to burst anew.
+     */
+    @Scheduled(fixedDelayString = "${app.load-shedding.rate-limit.sweep-interval:PT10S}")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(idle -> idle.get() - now <= 0);
+    }
+
+    /**
+     * @return the number of buckets currently tracked.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * @return the bucket of the given key, or {@code null} if it has none and no bucket is left.
+     */
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null || buckets.size() >= properties.getMaxBuckets()) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, ignored -> new AtomicLong(now));
+    }
+}
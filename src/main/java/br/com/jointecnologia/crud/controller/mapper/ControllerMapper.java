@@ -1,11 +1,32 @@
 package br.com.jointecnologia.crud.controller.mapper;
 
+import br.com.jointecnologia.crud.controller.dto.CatalogChangeDTO;
 import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.controller.dto.CategoryRefDTO;
+import br.com.jointecnologia.crud.controller.dto.CategoryStatsDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductBatchDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductCreateDTO;
 import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductImportDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductUpdateDTO;
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.repository.projection.CategoryPriceStats;
+import br.com.jointecnologia.crud.repository.projection.CategorySummary;
+import br.com.jointecnologia.crud.repository.projection.CategoryTreeNode;
+import br.com.jointecnologia.crud.repository.projection.ProductPriceSummary;
+import br.com.jointecnologia.crud.repository.projection.ProductSearchResult;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.ProductBatch;
+import br.com.jointecnologia.crud.service.ProductImportResult;
+import br.com.jointecnologia.crud.service.index.CategoryTree;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -36,30 +57,140 @@ public interface ControllerMapper {
      */
     ProductDTO toProductDTO(ProductModel model);
 
+    /**
+     * Converts a {@link ProductSummary} projection to a {@link ProductDTO}.
+     *
+     * @param summary the {@link ProductSummary} to be converted
+     * @return the corresponding {@link ProductDTO}, without price and category
+     */
+    @Mapping(target = "price", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    ProductDTO toProductDTO(ProductSummary summary);
+
+    /**
+     * Converts a {@link ProductPriceSummary} projection to a {@link ProductDTO}.
+     *
+     * @param summary the {@link ProductPriceSummary} to be converted
+     * @return the corresponding {@link ProductDTO}, without category
+     */
+    @Mapping(target = "category", ignore = true)
+    ProductDTO toProductDTO(ProductPriceSummary summary);
+
+    /**
+     * Converts a {@link ProductSearchResult} projection to a {@link ProductDTO}.
+     *
+     * @param result the {@link ProductSearchResult} to be converted
+     * @return the corresponding {@link ProductDTO}, including its category
+     */
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    ProductDTO toProductDTO(ProductSearchResult result);
+
     /**
      * Converts a {@link ProductDTO} to a {@link ProductModel}.
      *
      * @param productDTO the {@link ProductDTO} to be converted
      * @return the corresponding {@link ProductModel}
      */
+    @Mapping(target = "deletedAt", ignore = true)
     ProductModel toProductModel(ProductDTO productDTO);
 
+    /**
+     * Converts a {@link ProductCreateDTO} to a new {@link ProductModel}.
+     *
+     * @param productDTO the {@link ProductCreateDTO} to be converted
+     * @return the corresponding {@link ProductModel}, whose category holds only its ID
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    ProductModel toProductModel(ProductCreateDTO productDTO);
+
+    /**
+     * Converts a {@link ProductUpdateDTO} to a {@link ProductModel} holding the new state of a product.
+     *
+     * @param productDTO the {@link ProductUpdateDTO} to be converted
+     * @return the corresponding {@link ProductModel}, without ID and whose category holds only its ID
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    ProductModel toProductModel(ProductUpdateDTO productDTO);
+
     /**
      * Converts a {@link CategoryModel} to a {@link CategoryDTO}.
      *
      * @param model the {@link CategoryModel} to be converted
      * @return the corresponding {@link CategoryDTO}
      */
+    @Mapping(target = "productCount", ignore = true)
     CategoryDTO toCategoryDTO(CategoryModel model);
 
+    /**
+     * Converts a {@link CategorySummary} projection to a {@link CategoryDTO}.
+     *
+     * @param summary the {@link CategorySummary} to be converted
+     * @return the corresponding {@link CategoryDTO}, without parent
+     */
+    @Mapping(target = "parentId", ignore = true)
+    @Mapping(target = "productCount", ignore = true)
+    CategoryDTO toCategoryDTO(CategorySummary summary);
+
+    /**
+     * Converts a {@link CategoryTreeNode} projection to a {@link CategoryDTO}.
+     *
+     * @param node the {@link CategoryTreeNode} to be converted
+     * @return the corresponding {@link CategoryDTO}, without product count
+     */
+    @Mapping(target = "productCount", ignore = true)
+    CategoryDTO toCategoryDTO(CategoryTreeNode node);
+
+    /**
+     * Converts a {@link CategoryTree.Node} to a {@link CategoryDTO}.
+     *
+     * @param node the {@link CategoryTree.Node} to be converted
+     * @return the corresponding {@link CategoryDTO}
+     */
+    @Mapping(target = "productCount", ignore = true)
+    CategoryDTO toCategoryDTO(CategoryTree.Node node);
+
+    /**
+     * Converts a {@link CategoryListEntry} projection to a {@link CategoryDTO}.
+     *
+     * @param entry the {@link CategoryListEntry} to be converted
+     * @return the corresponding {@link CategoryDTO}, including its product count
+     */
+    CategoryDTO toCategoryDTO(CategoryListEntry entry);
+
+    /**
+     * Converts a {@link CategoryPriceStats} projection to a {@link CategoryStatsDTO}.
+     *
+     * @param stats the {@link CategoryPriceStats} to be converted
+     * @return the corresponding {@link CategoryStatsDTO}
+     */
+    CategoryStatsDTO toCategoryStatsDTO(CategoryPriceStats stats);
+
     /**
      * Converts a {@link CategoryDTO} to a {@link CategoryModel}.
      *
      * @param categoryDTO the {@link CategoryDTO} to be converted
      * @return the corresponding {@link CategoryModel}
      */
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     CategoryModel toCategoryModel(CategoryDTO categoryDTO);
 
+    /**
+     * Converts a {@link CategoryRefDTO} to a {@link CategoryModel} holding only its ID.
+     *
+     * @param categoryRef the {@link CategoryRefDTO} to be converted
+     * @return the corresponding {@link CategoryModel}, to be resolved by the service layer
+     */
+    @Mapping(target = "name", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    @Mapping(target = "parentId", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    CategoryModel toCategoryModel(CategoryRefDTO categoryRef);
+
     /**
      * Converts a list of {@link ProductModel} to a list of {@link ProductDTO}.
      *
@@ -91,4 +222,46 @@ public interface ControllerMapper {
      * @return the corresponding list of {@link CategoryModel}
      */
     List<CategoryModel> toCategoryModelList(List<CategoryDTO> categoryDTOs);
+
+    /**
+     * Converts a list of {@link CategoryPriceStats} to a list of {@link CategoryStatsDTO}.
+     *
+     * @param stats the list of {@link CategoryPriceStats} to be converted
+     * @return the corresponding list of {@link CategoryStatsDTO}
+     */
+    List<CategoryStatsDTO> toCategoryStatsDTOList(List<CategoryPriceStats> stats);
+
+    /**
+     * Converts a {@link ProductBatch} to a {@link ProductBatchDTO}.
+     *
+     * @param batch the {@link ProductBatch} to be converted
+     * @return the corresponding {@link ProductBatchDTO}
+     */
+    ProductBatchDTO toProductBatchDTO(ProductBatch batch);
+
+    /**
+     * Converts a {@link ProductImportResult} to a {@link ProductImportDTO}.
+     *
+     * @param result the {@link ProductImportResult} to be converted
+     * @return the corresponding {@link ProductImportDTO}
+     */
+    ProductImportDTO toProductImportDTO(ProductImportResult result);
+
+    /**
+     * Converts a list of {@link CatalogChangeModel} to a list of {@link CatalogChangeDTO}.
+     *
+     * @param changes the list of {@link CatalogChangeModel} to be converted
+     * @return the corresponding list of {@link CatalogChangeDTO}
+     */
+    List<CatalogChangeDTO> toCatalogChangeDTOList(List<CatalogChangeModel> changes);
+
+    /**
+     * Converts an amount read by a native query to a {@link Price}.
+     *
+     * @param amount the amount, with at most two decimal places
+     * @return the corresponding {@link Price}, or {@code null} if the amount is {@code null}
+     */
+    default Price toPrice(BigDecimal amount) {
+        return amount != null ? Price.of(amount) : null;
+    }
 }
@@ -0,0 +1,232 @@
+package br.com.jointecnologia.crud.controller.stream;
+
+import br.com.jointecnologia.crud.config.ChangeStreamProperties;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed product and category changes to the subscribers of {@code GET /changes/stream}.
+ * <p>
+ * Each event is serialized and framed once, then queued to every matching subscriber. Queues are bounded by
+ * {@code app.change-stream.buffer-size} and drained by a pool of {@code app.change-stream.sender-threads} daemon
+ * threads owned by the broadcaster, so the committing transaction never waits for a socket. A subscriber whose queue is full is disconnected rather than silently
+ * missing events; it is expected to reconnect and catch up through {@code GET /changes}.
+ * </p>
+ * <p>
+ * Subscribers may restrict the stream to some categories. A product moved to another category is reported to the
+ * subscribers of both the old and the new one, so that the former can drop it. Product events whose category is
+ * unknown are sent to every subscriber.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ChangeStreamBroadcaster {
+
+    static final String PRODUCT_EVENT = "product";
+    static final String CATEGORY_EVENT = "category";
+    static final String IMPORT_EVENT = "import";
+
+    private final ObjectMapper objectMapper;
+    private final ChangeStreamProperties properties;
+    private final Executor executor;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    @Autowired
+    public ChangeStreamBroadcaster(ObjectMapper objectMapper, ChangeStreamProperties properties) {
+        this(objectMapper, properties, Executors.newFixedThreadPool(properties.getSenderThreads(), threadFactory()));
+    }
+
+    public ChangeStreamBroadcaster(ObjectMapper objectMapper, ChangeStreamProperties properties, Executor executor) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to the changes of the given categories.
+     *
+     * @param categoryIds the IDs of the categories to follow, or an empty set to follow every change.
+     * @return the {@link SseEmitter} streaming the changes.
+     */
+    public SseEmitter subscribe(Set<Long> categoryIds) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(categoryIds), properties.getBufferSize());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Flushes the response headers, so the client knows it is subscribed.
+        enqueue(subscriber, SseEmitter.event().comment("subscribed").build());
+        log.debug("Change stream subscriber added, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        broadcast(PRODUCT_EVENT, event, event.categoryId(), event.previousCategoryId(), true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        broadcast(CATEGORY_EVENT, event, event.categoryId(), null, false);
+    }
+
+    /**
+     * Announces a bulk import with a single event, sent to the subscribers of any of its categories. They are
+     * expected to read the imported products through {@code GET /changes}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .name(IMPORT_EVENT)
+                .data(toJson(event), MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.categoryIds.isEmpty()
+                    || event.categoryIds().stream().anyMatch(subscriber.categoryIds::contains)) {
+                enqueue(subscriber, message);
+            }
+        }
+    }
+
+    /**
+     * Sends a keep-alive comment to every subscriber, so that proxies keep idle connections open and closed
+     * connections are detected.
+     */
+    @Scheduled(fixedDelayString = "${app.change-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        Set<DataWithMediaType> message = SseEmitter.event().comment("heartbeat").build();
+        subscribers.forEach(subscriber -> enqueue(subscriber, message));
+    }
+
+    /**
+     * @return the number of connected subscribers.
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void broadcast(String name, Object event, Long categoryId, Long previousCategoryId,
+                           boolean unknownCategoryMatches) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .name(name)
+                .data(toJson(event), MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.follows(categoryId, previousCategoryId, unknownCategoryMatches)) {
+                enqueue(subscriber, message);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> message) {
+        if (!subscriber.queue.offer(message)) {
+            log.warn("Disconnecting a change stream subscriber lagging {} events behind", subscriber.queue.size());
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> message;
+            while ((message = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(message);
+                } catch (IOException | IllegalStateException ex) {
+                    log.debug("Change stream subscriber disconnected: {}", ex.getMessage());
+                    disconnect(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before the flag was cleared would otherwise wait for the next one.
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static CustomizableThreadFactory threadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-stream-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> categoryIds;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> categoryIds, int bufferSize) {
+            this.emitter = emitter;
+            this.categoryIds = categoryIds;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean follows(Long categoryId, Long previousCategoryId, boolean unknownCategoryMatches) {
+            if (categoryIds.isEmpty()) {
+                return true;
+            }
+            if (categoryId == null) {
+                return unknownCategoryMatches;
+            }
+            return categoryIds.contains(categoryId)
+                    || previousCategoryId != null && categoryIds.contains(previousCategoryId);
+        }
+    }
+}
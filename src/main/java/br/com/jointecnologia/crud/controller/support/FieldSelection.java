@@ -0,0 +1,67 @@
+package br.com.jointecnologia.crud.controller.support;
+
+import br.com.jointecnologia.crud.exceptions.InvalidFieldsException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents the set of fields requested through the {@code fields} query parameter (sparse fieldsets).
+ * <p>
+ * An empty selection means that every field of the resource was requested. Field names are validated
+ * against the fields supported by the resource, and unknown names raise an {@link InvalidFieldsException}.
+ * </p>
+ */
+public final class FieldSelection {
+
+    private static final FieldSelection ALL = new FieldSelection(Set.of());
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Builds a selection from the requested field names.
+     *
+     * @param requested the field names requested by the client, possibly {@code null} or empty
+     * @param resource  the name of the resource, used in error messages
+     * @param supported the field names supported by the resource
+     * @return the corresponding {@link FieldSelection}
+     * @throws InvalidFieldsException if any requested field is not supported by the resource
+     */
+    public static FieldSelection of(Collection<String> requested, String resource, Set<String> supported) {
+        if (requested == null || requested.isEmpty()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        List<String> unknown = fields.stream().filter(field -> !supported.contains(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException(resource, unknown);
+        }
+        return fields.isEmpty() ? ALL : new FieldSelection(Set.copyOf(fields));
+    }
+
+    /**
+     * @return {@code true} if every field of the resource was requested.
+     */
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * @param field the field name
+     * @return {@code true} if the field should be present in the response.
+     */
+    public boolean includes(String field) {
+        return fields.isEmpty() || fields.contains(field);
+    }
+}
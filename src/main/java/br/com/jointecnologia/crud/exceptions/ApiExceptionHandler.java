@@ -1,7 +1,17 @@
 package br.com.jointecnologia.crud.exceptions.handler;
 
 import br.com.jointecnologia.crud.exceptions.ApiError;
+import br.com.jointecnologia.crud.exceptions.CategoryHierarchyException;
+import br.com.jointecnologia.crud.exceptions.ChangeFeedExpiredException;
+import br.com.jointecnologia.crud.exceptions.IdempotencyKeyConflictException;
+import br.com.jointecnologia.crud.exceptions.InvalidFieldsException;
+import br.com.jointecnologia.crud.exceptions.InvalidImportFileException;
+import br.com.jointecnologia.crud.exceptions.RateLimitExceededException;
+import br.com.jointecnologia.crud.exceptions.ServiceOverloadedException;
+import br.com.jointecnologia.crud.exceptions.UnknownCategoryException;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -10,6 +20,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,6 +38,27 @@ import java.util.List;
 @Order(2)
 public class ApiExceptionHandler {
 
+    /**
+     * SQLState of a unique violation.
+     */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    /**
+     * SQLState of a check violation, raised by the category path trigger when a category is moved under its own
+     * subcategory.
+     */
+    private static final String CHECK_VIOLATION = "23514";
+
+    /**
+     * SQLState of a foreign key violation, such as a product referencing a deleted category.
+     */
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    /**
+     * SQLState class of data exceptions, such as a numeric value out of range.
+     */
+    private static final String DATA_EXCEPTION_CLASS = "22";
+
     /**
      * Handles {@link MethodArgumentTypeMismatchException} exceptions.
      *
@@ -63,4 +95,238 @@ public class ApiExceptionHandler {
         );
         return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
     }
+
+    /**
+     * Handles {@link DataIntegrityViolationException} exceptions, mapping the SQLState of the database error to a
+     * response.
+     *
+     * <ul>
+     *     <li>A unique violation, such as a duplicate category name, is answered with 409.</li>
+     *     <li>A check violation, raised when a category would be moved under its own subcategory, is answered with
+     *     409.</li>
+     *     <li>A foreign key violation, raised when the referenced category was deleted meanwhile, is answered with
+     *     422.</li>
+     *     <li>A data exception, such as a value out of the range of its column, is answered with 400.</li>
+     *     <li>Any other violation is answered with 500.</li>
+     * </ul>
+     *
+     * <p>The database message is never returned, since it echoes the offending values.</p>
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolationException(final DataIntegrityViolationException ex) {
+        String sqlState = sqlState(ex);
+        ApiError apiError;
+        if (UNIQUE_VIOLATION.equals(sqlState)) {
+            apiError = new ApiError(
+                    HttpStatus.CONFLICT,
+                    "The request conflicts with the current state of the resource.",
+                    List.of("A resource with the same unique value already exists."),
+                    LocalDateTime.now()
+            );
+        } else if (CHECK_VIOLATION.equals(sqlState)) {
+            apiError = new ApiError(
+                    HttpStatus.CONFLICT,
+                    "The change would break the category tree.",
+                    List.of("A category cannot be moved under its own subcategory."),
+                    LocalDateTime.now()
+            );
+        } else if (FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+            apiError = new ApiError(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "The request references a category that does not exist.",
+                    List.of("The referenced category does not exist."),
+                    LocalDateTime.now()
+            );
+        } else if (sqlState != null && sqlState.startsWith(DATA_EXCEPTION_CLASS)) {
+            apiError = new ApiError(
+                    HttpStatus.BAD_REQUEST,
+                    "The request contains a value that cannot be stored.",
+                    List.of("A value is out of the range or format accepted for its field."),
+                    LocalDateTime.now()
+            );
+        } else {
+            apiError = new ApiError(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "The request could not be stored.",
+                    List.of("DataIntegrityViolationException"),
+                    LocalDateTime.now()
+            );
+        }
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link UnknownCategoryException} exceptions, raised when a product or a category references a missing
+     * category.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(UnknownCategoryException.class)
+    public ResponseEntity<ApiError> handleUnknownCategoryException(final UnknownCategoryException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "The request references a category that does not exist.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link CategoryHierarchyException} exceptions, raised when a change would break the category tree.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(CategoryHierarchyException.class)
+    public ResponseEntity<ApiError> handleCategoryHierarchyException(final CategoryHierarchyException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.CONFLICT,
+                "The change would break the category tree.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link IdempotencyKeyConflictException} exceptions.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyConflictException(final IdempotencyKeyConflictException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.CONFLICT,
+                "The idempotency key cannot be used for this request.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link RateLimitExceededException} exceptions, telling the client when to retry.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiError> handleRateLimitExceededException(final RateLimitExceededException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Too many requests, please slow down.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)));
+        return new ResponseEntity<>(apiError, headers, apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link ServiceOverloadedException} exceptions, raised when requests are shed under load.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiError> handleServiceOverloadedException(final ServiceOverloadedException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "The service is overloaded, please retry shortly.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(apiError, headers, apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link ChangeFeedExpiredException} exceptions.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(ChangeFeedExpiredException.class)
+    public ResponseEntity<ApiError> handleChangeFeedExpiredException(final ChangeFeedExpiredException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.GONE,
+                "The requested changes are no longer available, the catalog must be reloaded.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link InvalidFieldsException} exceptions.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<ApiError> handleInvalidFieldsException(final InvalidFieldsException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST,
+                "The requested fields are not supported by this resource.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link InvalidImportFileException} exceptions.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<ApiError> handleInvalidImportFileException(final InvalidImportFileException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST,
+                "The import file could not be read.",
+                List.of(ex.getMessage()),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link ConstraintViolationException} exceptions raised by request parameter validation.
+     *
+     * @param ex The thrown exception.
+     * @return The formatted error response.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiError> handleConstraintViolationException(final ConstraintViolationException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST,
+                "The request parameters are invalid.",
+                ex.getConstraintViolations().stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .toList(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Returns the SQLState of the first {@link SQLException} in the cause chain of the given exception.
+     */
+    private static String sqlState(final Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
 }
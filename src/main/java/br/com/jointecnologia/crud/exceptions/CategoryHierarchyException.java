@@ -0,0 +1,7 @@
+package br.com.jointecnologia.crud.exceptions;
+
+public class CategoryHierarchyException extends RuntimeException {
+    public CategoryHierarchyException(String message) {
+        super(message);
+    }
+}
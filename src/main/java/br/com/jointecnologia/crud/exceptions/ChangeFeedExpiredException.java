@@ -0,0 +1,7 @@
+package br.com.jointecnologia.crud.exceptions;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(long since, long lastPurgedSeq) {
+        super(String.format("Changes after %d were purged, up to change %d", since, lastPurgedSeq));
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.jointecnologia.crud.exceptions;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String key, String reason) {
+        super(String.format("Idempotency key %s %s", key, reason));
+    }
+}
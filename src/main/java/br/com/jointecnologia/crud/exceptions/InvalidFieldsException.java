@@ -0,0 +1,9 @@
+package br.com.jointecnologia.crud.exceptions;
+
+import java.util.Collection;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String resource, Collection<String> fields) {
+        super(String.format("Unknown %s fields requested: %s", resource, String.join(", ", fields)));
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.jointecnologia.crud.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String endpoint, Duration retryAfter) {
+        super(String.format("Rate limit of %s exceeded, retry in %d ms", endpoint, retryAfter.toMillis()));
+        this.retryAfter = retryAfter;
+    }
+}
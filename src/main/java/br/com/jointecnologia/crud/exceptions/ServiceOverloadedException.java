@@ -0,0 +1,7 @@
+package br.com.jointecnologia.crud.exceptions;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(int limit) {
+        super(String.format("Too many requests in progress, the current limit is %d", limit));
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.jointecnologia.crud.exceptions;
+
+public class UnknownCategoryException extends RuntimeException {
+    public UnknownCategoryException(Long id) {
+        super(String.format("Category with ID %d does not exist", id));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.jointecnologia.crud.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The {@code CatalogChange} class represents a change made to a product or a category (outbox of the catalog).
+ * <p>
+ * Changes are numbered by a monotonically increasing sequence, in the order their transactions committed, so that
+ * consumers can follow the catalog incrementally by asking for the changes after the last one they applied.
+ * Rows are recorded by {@link br.com.jointecnologia.crud.service.change.CatalogChangeRecorder} and only written to
+ * this table when their transaction commits.
+ * </p>
+ *
+ * <p>This class is mapped to the {@code catalog_change} table in the database.</p>
+ */
+@Entity
+@Table(name = "catalog_change", indexes = @Index(name = "idx_catalog_change_changed_at", columnList = "changed_at"))
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class CatalogChangeModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 16)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public enum EntityType {
+        PRODUCT,
+        CATEGORY
+    }
+
+    public enum Operation {
+        /**
+         * The entity was created or updated.
+         */
+        UPSERT,
+        /**
+         * The entity was deleted.
+         */
+        DELETE
+    }
+}
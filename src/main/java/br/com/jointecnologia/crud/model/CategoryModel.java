@@ -1,9 +1,11 @@
 package br.com.jointecnologia.crud.model;
 
+import br.com.jointecnologia.crud.service.change.CatalogChangeListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -14,20 +16,33 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
  * The {@code Category} class represents a product category in the system.
  * Each category can have multiple products associated with it, establishing a One-to-Many relationship.
  *
- * <p>This class is mapped to the {@code category} table in the database.</p>
+ * <p>This class is mapped to the {@code category} table in the database. Deleted categories are kept until purged,
+ * with {@code deletedAt} set, and are hidden by the {@code notDeleted} filter. Names are unique among the categories
+ * that are not deleted ({@code uk_category_name}, see {@code schema.sql}).</p>
+ *
+ * <p>Categories form a tree through {@code parentId}. The {@code path} of a category lists the IDs from the root down
+ * to the category itself, as in {@code /1/5/12/}, so that a subtree is selected with a prefix match. It is maintained
+ * by a trigger of the database (see {@code schema.sql}), including for the descendants of a category that moves,
+ * and is read back after every insert and update.</p>
  *
  * @version 1.0
  * @since 2024-11-09
  */
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "category")
+@Filter(name = "notDeleted")
 @Data
 @NoArgsConstructor
 @Builder
@@ -41,7 +56,17 @@ public class CategoryModel {
     @Column(name = "name", nullable = false, length = 100)
     private String name;
 
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "path", length = 1000)
+    private String path;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<ProductModel> products;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
@@ -0,0 +1,197 @@
+package br.com.jointecnologia.crud.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact monetary amount with two decimal places, stored as a {@code long} number of minor units (cents).
+ * <p>
+ * Unlike {@code Double}, a {@code Price} never accumulates binary rounding errors, and unlike {@link BigDecimal}
+ * it is a single small object holding a primitive. Amounts with more than two decimal places are rejected rather
+ * than rounded.
+ * </p>
+ * <p>
+ * Prices are persisted as {@code NUMERIC(18, 2)} through {@link PriceConverter} and written to JSON as plain
+ * numbers by {@link PriceSerializer}, without going through {@link BigDecimal}.
+ * </p>
+ *
+ * @since 2024-11-09
+ */
+@JsonSerialize(using = PriceSerializer.class)
+@JsonDeserialize(using = PriceDeserializer.class)
+public final class Price implements Comparable<Price>, Serializable {
+
+    /**
+     * Number of decimal places of every price.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Largest absolute amount in cents, the range of the {@code NUMERIC(18, 2)} column.
+     */
+    public static final long MAX_MINOR_UNITS = 999_999_999_999_999_999L;
+
+    public static final Price ZERO = new Price(0);
+
+    private static final long MINOR_UNITS_PER_UNIT = 100;
+    private static final int MAX_CHARS = 21;
+
+    private final long minorUnits;
+
+    private Price(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * @param minorUnits the amount in cents.
+     * @return the corresponding price.
+     */
+    public static Price ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Price(minorUnits);
+    }
+
+    /**
+     * @param amount the amount, with at most {@value #SCALE} decimal places.
+     * @return the corresponding price.
+     * @throws ArithmeticException if the amount has more decimal places or exceeds {@link #MAX_MINOR_UNITS} cents.
+     */
+    public static Price of(BigDecimal amount) {
+        long minorUnits = amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        if (Math.abs(minorUnits) > MAX_MINOR_UNITS) {
+            throw new ArithmeticException("Price out of range: " + amount);
+        }
+        return ofMinorUnits(minorUnits);
+    }
+
+    /**
+     * Parses a plain decimal amount such as {@code "19.9"} or {@code "-3"} without allocating a {@link BigDecimal}.
+     * Amounts in scientific notation are also accepted.
+     *
+     * @param text the amount, with at most {@value #SCALE} decimal places.
+     * @return the corresponding price.
+     * @throws NumberFormatException if the text is not a valid amount or exceeds {@link #MAX_MINOR_UNITS} cents.
+     */
+    public static Price parse(CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == 'e' || text.charAt(i) == 'E') {
+                return parseScientific(text);
+            }
+        }
+        int i = 0;
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        if (negative || length > 0 && text.charAt(0) == '+') {
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        for (; i < length && Character.isDigit(text.charAt(i)); i++, integerDigits++) {
+            if (units > (Long.MAX_VALUE / MINOR_UNITS_PER_UNIT - 9) / 10) {
+                throw new NumberFormatException("Price out of range: " + text);
+            }
+            units = units * 10 + (text.charAt(i) - '0');
+        }
+        long cents = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length && Character.isDigit(text.charAt(i)); i++, fractionDigits++) {
+                int digit = text.charAt(i) - '0';
+                if (fractionDigits < SCALE) {
+                    cents = cents * 10 + digit;
+                } else if (digit != 0) {
+                    throw new NumberFormatException("Price has more than " + SCALE + " decimal places: " + text);
+                }
+            }
+        }
+        if (i != length || integerDigits + fractionDigits == 0) {
+            throw new NumberFormatException("Invalid price: " + text);
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            cents *= 10;
+        }
+        long minorUnits = units * MINOR_UNITS_PER_UNIT + cents;
+        if (minorUnits > MAX_MINOR_UNITS) {
+            throw new NumberFormatException("Price out of range: " + text);
+        }
+        return ofMinorUnits(negative ? -minorUnits : minorUnits);
+    }
+
+    private static Price parseScientific(CharSequence text) {
+        try {
+            return of(new BigDecimal(text.toString()));
+        } catch (ArithmeticException ex) {
+            throw new NumberFormatException("Invalid price: " + text);
+        }
+    }
+
+    /**
+     * @return the amount in cents.
+     */
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * @return the amount as a {@link BigDecimal} with a scale of {@value #SCALE}.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Writes the amount as a plain decimal number with {@value #SCALE} decimal places into the given buffer.
+     *
+     * @param buffer a buffer of at least {@value #MAX_CHARS} characters.
+     * @return the number of characters written, starting at index 0.
+     */
+    int format(char[] buffer) {
+        int end = MAX_CHARS;
+        // Works on the negative value so that Long.MIN_VALUE does not overflow.
+        long value = minorUnits < 0 ? minorUnits : -minorUnits;
+        for (int digit = 0; digit <= SCALE || value != 0; digit++) {
+            if (digit == SCALE) {
+                buffer[--end] = '.';
+            }
+            buffer[--end] = (char) ('0' - value % 10);
+            value /= 10;
+        }
+        if (minorUnits < 0) {
+            buffer[--end] = '-';
+        }
+        int length = MAX_CHARS - end;
+        System.arraycopy(buffer, end, buffer, 0, length);
+        return length;
+    }
+
+    /**
+     * @return a buffer large enough for {@link #format(char[])}.
+     */
+    static char[] formatBuffer() {
+        return new char[MAX_CHARS];
+    }
+
+    @Override
+    public int compareTo(Price other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Price price && price.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        char[] buffer = formatBuffer();
+        return new String(buffer, 0, format(buffer));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.jointecnologia.crud.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps every {@link Price} attribute to a {@code NUMERIC} column.
+ */
+@Converter(autoApply = true)
+public class PriceConverter implements AttributeConverter<Price, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Price price) {
+        return price != null ? price.toBigDecimal() : null;
+    }
+
+    @Override
+    public Price convertToEntityAttribute(BigDecimal amount) {
+        return amount != null ? Price.of(amount) : null;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.jointecnologia.crud.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link Price} from a JSON number or string, e.g. {@code 799.9} or {@code "799.90"}.
+ * <p>
+ * The textual representation is parsed directly, so values are never rounded through {@code double}.
+ * Amounts with more than two decimal places are rejected.
+ * </p>
+ */
+public class PriceDeserializer extends StdDeserializer<Price> {
+
+    public PriceDeserializer() {
+        super(Price.class);
+    }
+
+    @Override
+    public Price deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            return (Price) context.handleUnexpectedToken(Price.class, parser);
+        }
+        String text = parser.getText().trim();
+        try {
+            return Price.parse(text);
+        } catch (NumberFormatException ex) {
+            throw context.weirdStringException(text, Price.class, ex.getMessage());
+        }
+    }
+}
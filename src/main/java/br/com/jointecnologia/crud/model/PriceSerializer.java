@@ -0,0 +1,29 @@
+package br.com.jointecnologia.crud.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Price} as a plain JSON number with two decimal places, e.g. {@code 799.90}.
+ * <p>
+ * The digits are formatted straight from the minor units into a buffer reused by each thread, so nothing is
+ * allocated per price.
+ * </p>
+ */
+public class PriceSerializer extends StdSerializer<Price> {
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(Price::formatBuffer);
+
+    public PriceSerializer() {
+        super(Price.class);
+    }
+
+    @Override
+    public void serialize(Price price, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = BUFFER.get();
+        generator.writeNumber(buffer, 0, price.format(buffer));
+    }
+}
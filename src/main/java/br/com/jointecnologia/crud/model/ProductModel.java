@@ -1,8 +1,10 @@
 package br.com.jointecnologia.crud.model;
 
+import br.com.jointecnologia.crud.service.change.CatalogChangeListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -13,18 +15,24 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+
+import java.time.Instant;
 
 /**
  * The {@code Product} class represents a product in the system.
  * Each product is associated with a category, establishing a Many-to-One relationship.
  *
- * <p>This class is mapped to the {@code product} table in the database.</p>
+ * <p>This class is mapped to the {@code product} table in the database. Deleted products are kept until purged,
+ * with {@code deletedAt} set, and are hidden by the {@code notDeleted} filter.</p>
  *
  * @version 1.0
  * @since 2024-11-09
  */
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "product")
+@Filter(name = "notDeleted")
 @Data
 @NoArgsConstructor
 @Builder
@@ -38,11 +46,14 @@ public class ProductModel {
     @Column(name = "name", nullable = false, length = 100)
     private String name;
 
-    @Column(name = "price", nullable = false)
-    private Double price;
+    @Column(name = "price", nullable = false, precision = 18, scale = Price.SCALE)
+    private Price price;
 
     @ManyToOne
     @JoinColumn(name = "category_id", nullable = false)
     @JsonBackReference
     private CategoryModel category;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
@@ -0,0 +1,13 @@
+/**
+ * Entities of the catalog and their value types.
+ * <p>
+ * Products and categories are soft deleted (see {@link br.com.jointecnologia.crud.config.SoftDeleteProperties}):
+ * the {@code notDeleted} filter, enabled in every session, hides the rows whose {@code deleted_at} is set from
+ * all HQL, JPQL and criteria queries. It does not apply to lookups by primary key, which the repositories
+ * therefore redeclare as queries, nor to native queries, which filter the column themselves.
+ * </p>
+ */
+@FilterDef(name = "notDeleted", defaultCondition = "deleted_at IS NULL", autoEnabled = true)
+package br.com.jointecnologia.crud.model;
+
+import org.hibernate.annotations.FilterDef;
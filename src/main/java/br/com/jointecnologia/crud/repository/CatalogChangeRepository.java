@@ -0,0 +1,74 @@
+package br.com.jointecnologia.crud.repository;
+
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for reading the catalog changes recorded in the {@code catalog_change} outbox.
+ *
+ * @see CatalogChangeModel
+ */
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChangeModel, Long> {
+
+    /**
+     * Retrieves the changes following the given sequence number, in sequence order.
+     *
+     * @param seq      the sequence number of the last change already applied by the consumer.
+     * @param pageable the maximum number of changes to return.
+     * @return a {@link Slice} of changes, telling whether more changes follow.
+     */
+    Slice<CatalogChangeModel> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Query("SELECT max(c.seq) FROM CatalogChangeModel c")
+    Optional<Long> findLastSeq();
+
+    /**
+     * Retrieves the purge watermark: every change up to this sequence number was purged.
+     *
+     * @return the sequence number of the last purged change, or {@code 0} if none was purged.
+     */
+    @Query(value = "SELECT coalesce(max(last_purged_seq), 0) FROM catalog_change_purge", nativeQuery = true)
+    long findLastPurgedSeq();
+
+    /**
+     * Retrieves the latest change made before the given instant, except the latest change of all.
+     *
+     * @param instant the instant before which changes expire.
+     * @return the sequence number of the latest expired change, empty if none expired.
+     */
+    @Query("SELECT max(c.seq) FROM CatalogChangeModel c WHERE c.changedAt < :instant "
+            + "AND c.seq < (SELECT max(l.seq) FROM CatalogChangeModel l)")
+    Optional<Long> findLastSeqChangedBefore(@Param("instant") Instant instant);
+
+    /**
+     * Raises the purge watermark to the given sequence number, if it is lower.
+     *
+     * @param seq the sequence number of the last purged change.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO catalog_change_purge (id, last_purged_seq) VALUES (true, :seq)
+            ON CONFLICT (id) DO UPDATE SET last_purged_seq = greatest(catalog_change_purge.last_purged_seq, :seq)
+            """, nativeQuery = true)
+    void advancePurgeWatermark(@Param("seq") long seq);
+
+    /**
+     * Deletes the changes up to the given sequence number.
+     *
+     * @param seq the sequence number of the last change to delete.
+     * @return the number of deleted changes.
+     */
+    @Modifying
+    @Query("DELETE FROM CatalogChangeModel c WHERE c.seq <= :seq")
+    int deleteUpTo(@Param("seq") long seq);
+}
@@ -1,9 +1,18 @@
 package br.com.jointecnologia.crud.repository;
 
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.repository.projection.CategoryUpsertResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,4 +25,160 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<CategoryModel, Long> {
     Optional<CategoryModel> findByName(String name);
+
+    /**
+     * Retrieves a category that is not deleted.
+     * <p>
+     * Redeclared as a query, since the {@code notDeleted} filter does not apply to lookups by primary key.
+     * </p>
+     *
+     * @param id the ID of the category
+     * @return an {@link Optional} containing the category, or empty if not found or deleted
+     */
+    @Override
+    @Query("SELECT c FROM CategoryModel c WHERE c.id = :id")
+    Optional<CategoryModel> findById(@Param("id") Long id);
+
+    /**
+     * Retrieves a category and all its descendants, parents before their children.
+     *
+     * @param path the path of the category, such as {@code /1/5/}
+     * @return the categories whose path starts with {@code path}, ordered by path
+     */
+    @Query("SELECT c FROM CategoryModel c WHERE c.path LIKE :path% ORDER BY c.path")
+    List<CategoryModel> findSubtree(@Param("path") String path);
+
+    /**
+     * Retrieves the materialized path of a category that is not deleted.
+     *
+     * @param id the ID of the category
+     * @return the path of the category, such as {@code /1/5/}, or empty if not found or deleted
+     */
+    @Query("SELECT c.path FROM CategoryModel c WHERE c.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+
+    /**
+     * Checks whether a category has subcategories that are not deleted.
+     *
+     * @param parentId the ID of the category
+     * @return {@code true} if at least one category has it as parent
+     */
+    boolean existsByParentId(Long parentId);
+
+    /**
+     * Retrieves all categories using the given projection, selecting only the columns it exposes.
+     *
+     * @param type the projection type, e.g. {@link br.com.jointecnologia.crud.repository.projection.CategorySummary}
+     * @param <T>  the projection type
+     * @return a list with every category projected to {@code type}
+     */
+    <T> List<T> findAllProjectedBy(Class<T> type);
+
+    /**
+     * Retrieves a category by its ID using the given projection, selecting only the columns it exposes.
+     *
+     * @param id   the ID of the category
+     * @param type the projection type
+     * @param <T>  the projection type
+     * @return an {@link Optional} containing the projected category, or empty if not found
+     */
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    /**
+     * Retrieves every category that is not deleted, with the number of its products that are not deleted.
+     * <p>
+     * Each count reads the {@code idx_product_live_category_price} index of the category only.
+     * </p>
+     *
+     * @return the categories, ordered by ID
+     */
+    @Query(value = """
+            SELECT c.id AS "id", c.name AS "name", c.parent_id AS "parentId",
+                   (SELECT count(*) FROM product p WHERE p.category_id = c.id AND p.deleted_at IS NULL) AS "productCount"
+            FROM category c
+            WHERE c.deleted_at IS NULL
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<CategoryListEntry> findListEntries();
+
+    /**
+     * Retrieves the given categories, if not deleted, with the number of their products that are not deleted.
+     *
+     * @param ids the IDs of the categories
+     * @return the categories found, ordered by ID
+     */
+    @Query(value = """
+            SELECT c.id AS "id", c.name AS "name", c.parent_id AS "parentId",
+                   (SELECT count(*) FROM product p WHERE p.category_id = c.id AND p.deleted_at IS NULL) AS "productCount"
+            FROM category c
+            WHERE c.id IN (:ids) AND c.deleted_at IS NULL
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<CategoryListEntry> findListEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Inserts a category with the given name, unless a category that is not deleted already has it.
+     * <p>
+     * Relies on the {@code uk_category_name} unique index of the categories that are not deleted: a call racing
+     * with the insert of the same name waits for it, then inserts nothing. An existing row is neither rewritten nor
+     * locked, so it is looked up with {@link #findUpsertResultByName(String)} afterwards.
+     * </p>
+     *
+     * @param name the name of the category
+     * @return the inserted category, or an empty {@link Optional} if the name is taken
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO category (name) VALUES (:name)
+            ON CONFLICT (name) WHERE deleted_at IS NULL DO NOTHING
+            RETURNING id AS "id", name AS "name", true AS "created"
+            """, nativeQuery = true)
+    Optional<CategoryUpsertResult> insertByName(@Param("name") String name);
+
+    /**
+     * Retrieves the category with the given name that is not deleted, as an upsert result that did not create it.
+     *
+     * @param name the name of the category
+     * @return the existing category, or an empty {@link Optional} if none has the name
+     */
+    @Query(value = """
+            SELECT id AS "id", name AS "name", false AS "created"
+            FROM category
+            WHERE name = :name AND deleted_at IS NULL
+            """, nativeQuery = true)
+    Optional<CategoryUpsertResult> findUpsertResultByName(@Param("name") String name);
+
+    /**
+     * Marks a category as deleted, unless it already is.
+     *
+     * @param id the ID of the category
+     * @return the number of categories marked, 0 if the category does not exist or was already deleted
+     */
+    @Modifying
+    @Query(value = "UPDATE category SET deleted_at = now() WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int softDeleteById(@Param("id") Long id);
+
+    /**
+     * Removes up to {@code limit} categories deleted before the given instant, in its own transaction.
+     * <p>
+     * Categories still referenced by a product or a subcategory, even a deleted one, are left for a later purge.
+     * </p>
+     *
+     * @param before the instant before which the categories must have been deleted
+     * @param limit  the maximum number of categories to be removed
+     * @return the number of categories removed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM category WHERE id IN (
+                SELECT c.id FROM category c
+                WHERE c.deleted_at < :before
+                  AND NOT EXISTS (SELECT 1 FROM product p WHERE p.category_id = c.id)
+                  AND NOT EXISTS (SELECT 1 FROM category child WHERE child.parent_id = c.id)
+                ORDER BY c.deleted_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("before") Instant before, @Param("limit") int limit);
 }
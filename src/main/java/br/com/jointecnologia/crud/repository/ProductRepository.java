@@ -1,10 +1,21 @@
 package br.com.jointecnologia.crud.repository;
 
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.projection.CategoryPriceStats;
+import br.com.jointecnologia.crud.repository.projection.ProductRow;
+import br.com.jointecnologia.crud.repository.projection.ProductSearchResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for accessing and managing Product entities in the database.
@@ -15,5 +26,227 @@ import java.util.List;
  */
 @Repository
 public interface ProductRepository extends JpaRepository<ProductModel, Long> {
+
+    /**
+     * Retrieves the products of a category.
+     * <p>
+     * When the table is partitioned (see {@code db/partition-product.sql}), only the partition holding the category
+     * is read. Queries that know the category of the products they read or change should likewise filter on
+     * {@code category_id}, whereas lookups by ID alone probe the primary key index of every partition.
+     * </p>
+     *
+     * @param categoryId the ID of the category
+     * @return the products of the category
+     */
     List<ProductModel> findByCategoryId(Long categoryId);
+
+    /**
+     * Retrieves the products of a category and of all its descendants, together with their category.
+     * <p>
+     * The categories of the subtree are found by a range scan of {@code idx_category_live_path}, and the products of
+     * each of them through {@code idx_product_live_category_price}.
+     * </p>
+     *
+     * @param path the path of the category, such as {@code /1/5/}
+     * @return the products whose category path starts with {@code path}, ordered by ID
+     */
+    @Query("SELECT p FROM ProductModel p JOIN FETCH p.category c WHERE c.path LIKE :path% ORDER BY p.id")
+    List<ProductModel> findByCategorySubtree(@Param("path") String path);
+
+    /**
+     * Retrieves a product that is not deleted, together with its category.
+     * <p>
+     * Redeclared as a query, since the {@code notDeleted} filter does not apply to lookups by primary key.
+     * </p>
+     *
+     * @param id the ID of the product
+     * @return an {@link Optional} containing the product, or empty if not found or deleted
+     */
+    @Override
+    @Query("SELECT p FROM ProductModel p JOIN FETCH p.category WHERE p.id = :id")
+    Optional<ProductModel> findById(@Param("id") Long id);
+
+    /**
+     * Retrieves all products using the given projection, selecting only the columns it exposes.
+     *
+     * @param type the projection type, e.g. {@link br.com.jointecnologia.crud.repository.projection.ProductSummary}
+     * @param <T>  the projection type
+     * @return a list with every product projected to {@code type}
+     */
+    <T> List<T> findAllProjectedBy(Class<T> type);
+
+    /**
+     * Retrieves all products with their category as {@link ProductRow}s, built by a constructor expression
+     * instead of managed entities.
+     *
+     * @return a list with a row for every product
+     */
+    @Query("""
+            SELECT new br.com.jointecnologia.crud.repository.projection.ProductRow(p.id, p.name, p.price, c.id, c.name)
+            FROM ProductModel p JOIN p.category c
+            """)
+    List<ProductRow> findAllRows();
+
+    /**
+     * Retrieves a product by its ID using the given projection, selecting only the columns it exposes.
+     *
+     * @param id   the ID of the product
+     * @param type the projection type
+     * @param <T>  the projection type
+     * @return an {@link Optional} containing the projected product, or empty if not found
+     */
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    /**
+     * Retrieves the products with the given IDs together with their category, in a single query.
+     *
+     * @param ids the IDs of the products
+     * @return the products found, in no particular order
+     */
+    @Query("SELECT p FROM ProductModel p JOIN FETCH p.category WHERE p.id IN :ids")
+    List<ProductModel> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Searches products whose name contains the given pattern, ranked by trigram distance to the search term.
+     * <p>
+     * The {@code ILIKE} filter is served by the {@code idx_product_live_name_trgm} GIN index (see {@code schema.sql}),
+     * so only the matching rows are read and ranked.
+     * </p>
+     *
+     * @param term     the raw search term, used for ranking
+     * @param pattern  the {@code ILIKE} pattern derived from the term, with wildcards escaped
+     * @param pageable the page to be returned
+     * @return the matching products of the requested page, best matches first
+     */
+    @Query(value = """
+            SELECT p.id AS "id", p.name AS "name", p.price AS "price",
+                   c.id AS "categoryId", c.name AS "categoryName"
+            FROM product p
+            JOIN category c ON c.id = p.category_id
+            WHERE p.name ILIKE :pattern AND p.deleted_at IS NULL
+            ORDER BY p.name <-> :term, p.id
+            """, nativeQuery = true)
+    List<ProductSearchResult> searchByName(@Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Aggregates the price statistics of every category in a single {@code GROUP BY} query.
+     * <p>
+     * Products are counted through their (non-null) price so that only the {@code idx_product_live_category_price}
+     * index has to be read. The query is native so that the average is rounded to cents by the database.
+     * </p>
+     *
+     * @return one entry per category, ordered by category ID, including categories without products
+     */
+    @Query(value = """
+            SELECT c.id AS "categoryId", c.name AS "categoryName", count(p.price) AS "productCount",
+                   min(p.price) AS "minPrice", max(p.price) AS "maxPrice", round(avg(p.price), 2) AS "avgPrice"
+            FROM category c
+            LEFT JOIN product p ON p.category_id = c.id AND p.deleted_at IS NULL
+            WHERE c.deleted_at IS NULL
+            GROUP BY c.id, c.name
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<CategoryPriceStats> aggregatePriceStatsByCategory();
+
+    /**
+     * Aggregates the price statistics of a single category.
+     *
+     * @param categoryId the ID of the category
+     * @return an {@link Optional} containing the statistics, or empty if the category does not exist
+     */
+    @Query(value = """
+            SELECT c.id AS "categoryId", c.name AS "categoryName", count(p.price) AS "productCount",
+                   min(p.price) AS "minPrice", max(p.price) AS "maxPrice", round(avg(p.price), 2) AS "avgPrice"
+            FROM category c
+            LEFT JOIN product p ON p.category_id = c.id AND p.deleted_at IS NULL
+            WHERE c.id = :categoryId AND c.deleted_at IS NULL
+            GROUP BY c.id, c.name
+            """, nativeQuery = true)
+    Optional<CategoryPriceStats> aggregatePriceStatsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Reads the price statistics of every category from the {@code category_price_stats} materialized view
+     * (see {@code schema.sql}), as of its last refresh.
+     *
+     * @return one entry per category, ordered by category ID
+     */
+    @Query(value = """
+            SELECT category_id AS "categoryId", category_name AS "categoryName", product_count AS "productCount",
+                   min_price AS "minPrice", max_price AS "maxPrice", round(avg_price, 2) AS "avgPrice"
+            FROM category_price_stats
+            ORDER BY category_id
+            """, nativeQuery = true)
+    List<CategoryPriceStats> findPriceStatsSnapshot();
+
+    /**
+     * Reads the price statistics of a single category from the {@code category_price_stats} materialized view.
+     *
+     * @param categoryId the ID of the category
+     * @return an {@link Optional} containing the statistics, or empty if the category was not present at the last refresh
+     */
+    @Query(value = """
+            SELECT category_id AS "categoryId", category_name AS "categoryName", product_count AS "productCount",
+                   min_price AS "minPrice", max_price AS "maxPrice", round(avg_price, 2) AS "avgPrice"
+            FROM category_price_stats
+            WHERE category_id = :categoryId
+            """, nativeQuery = true)
+    Optional<CategoryPriceStats> findPriceStatsSnapshotByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Recomputes the {@code category_price_stats} materialized view. Readers are not blocked while it runs.
+     */
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY category_price_stats", nativeQuery = true)
+    void refreshCategoryPriceStats();
+
+    /**
+     * Marks a product as deleted, unless it already is.
+     *
+     * @param id the ID of the product
+     * @return the ID of the category of the product marked, or empty if the product does not exist or was already
+     * deleted
+     */
+    @Query(value = """
+            UPDATE product SET deleted_at = now()
+            WHERE id = :id AND deleted_at IS NULL
+            RETURNING category_id
+            """, nativeQuery = true)
+    Optional<Long> softDeleteById(@Param("id") Long id);
+
+    /**
+     * Marks every product of a category as deleted, in a single statement.
+     *
+     * @param categoryId the ID of the category
+     * @return the IDs of the products marked
+     */
+    @Query(value = """
+            UPDATE product SET deleted_at = now()
+            WHERE category_id = :categoryId AND deleted_at IS NULL
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> softDeleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Removes up to {@code limit} products deleted before the given instant, oldest first, in its own transaction.
+     * <p>
+     * Rows locked by another transaction are skipped, and the candidates are found through the
+     * {@code idx_product_deleted_at} partial index (see {@code schema.sql}). They are matched on the whole primary
+     * key of the partitioned table, so each row is only looked up in its own partition.
+     * </p>
+     *
+     * @param before the instant before which the products must have been deleted
+     * @param limit  the maximum number of products to be removed
+     * @return the number of products removed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM product WHERE (id, category_id) IN (
+                SELECT id, category_id FROM product
+                WHERE deleted_at < :before
+                ORDER BY deleted_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("before") Instant before, @Param("limit") int limit);
 }
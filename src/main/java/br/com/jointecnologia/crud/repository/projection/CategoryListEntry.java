@@ -0,0 +1,18 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+/**
+ * Projection of a category as listed by {@code GET /categories}: its identifier, name and parent, along with the
+ * number of products it holds.
+ *
+ * @see br.com.jointecnologia.crud.repository.CategoryRepository#findListEntries()
+ */
+public interface CategoryListEntry {
+
+    Long getId();
+
+    String getName();
+
+    Long getParentId();
+
+    Long getProductCount();
+}
@@ -0,0 +1,27 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Price statistics of the products of a category, aggregated by the database.
+ * <p>
+ * Categories without products have a {@code productCount} of zero and no price statistics. The average is
+ * rounded to cents.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.repository.ProductRepository#aggregatePriceStatsByCategory()
+ */
+public interface CategoryPriceStats {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    BigDecimal getMinPrice();
+
+    BigDecimal getMaxPrice();
+
+    BigDecimal getAvgPrice();
+}
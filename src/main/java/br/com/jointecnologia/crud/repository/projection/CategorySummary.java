@@ -0,0 +1,13 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+/**
+ * Closed projection of a category exposing only its identifier and name.
+ *
+ * @see br.com.jointecnologia.crud.model.CategoryModel
+ */
+public interface CategorySummary {
+
+    Long getId();
+
+    String getName();
+}
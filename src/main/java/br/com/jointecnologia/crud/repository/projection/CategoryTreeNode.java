@@ -0,0 +1,15 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+/**
+ * Closed projection of a category exposing its identifier, name and parent, enough to rebuild the category tree.
+ *
+ * @see br.com.jointecnologia.crud.model.CategoryModel
+ */
+public interface CategoryTreeNode {
+
+    Long getId();
+
+    String getName();
+
+    Long getParentId();
+}
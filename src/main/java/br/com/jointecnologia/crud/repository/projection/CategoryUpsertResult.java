@@ -0,0 +1,11 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+/**
+ * Result of an upsert by name: the category and whether the upsert inserted it.
+ *
+ * @see br.com.jointecnologia.crud.repository.CategoryRepository#insertByName(String)
+ */
+public interface CategoryUpsertResult extends CategorySummary {
+
+    boolean isCreated();
+}
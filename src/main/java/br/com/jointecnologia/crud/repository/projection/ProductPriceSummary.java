@@ -0,0 +1,17 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import br.com.jointecnologia.crud.model.Price;
+
+/**
+ * Closed projection of a product exposing its identifier, name and price, without the category.
+ *
+ * @see br.com.jointecnologia.crud.model.ProductModel
+ */
+public interface ProductPriceSummary {
+
+    Long getId();
+
+    String getName();
+
+    Price getPrice();
+}
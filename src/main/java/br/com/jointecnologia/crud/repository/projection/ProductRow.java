@@ -0,0 +1,18 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import br.com.jointecnologia.crud.model.Price;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Immutable row of a product listing, built by a JPQL constructor expression.
+ * <p>
+ * Rows are not entities: they are never attached to the persistence context, so reading them allocates neither
+ * entity snapshots nor a category instance per product. They are written to JSON by {@link ProductRowSerializer}
+ * with the same shape as {@link br.com.jointecnologia.crud.controller.dto.ProductDTO}.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.repository.ProductRepository#findAllRows()
+ */
+@JsonSerialize(using = ProductRowSerializer.class)
+public record ProductRow(Long id, String name, Price price, Long categoryId, String categoryName) {
+}
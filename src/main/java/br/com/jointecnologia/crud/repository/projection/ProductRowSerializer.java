@@ -0,0 +1,67 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import br.com.jointecnologia.crud.model.PriceSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ProductRow} as {@code {"id":1,"name":"Laptop","price":799.90,"category":{"id":1,"name":"Electronics"}}}.
+ * <p>
+ * The fields are written directly, without the reflective bean serializer, and their names are encoded once.
+ * Every field is written, null or not, like in {@link br.com.jointecnologia.crud.controller.dto.ProductDTO}; the
+ * category only carries its ID and name.
+ * </p>
+ */
+public class ProductRowSerializer extends StdSerializer<ProductRow> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+
+    private final PriceSerializer priceSerializer = new PriceSerializer();
+
+    public ProductRowSerializer() {
+        super(ProductRow.class);
+    }
+
+    @Override
+    public void serialize(ProductRow row, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(row);
+        generator.writeFieldName(ID);
+        writeNumber(generator, row.id());
+        generator.writeFieldName(NAME);
+        generator.writeString(row.name());
+        generator.writeFieldName(PRICE);
+        if (row.price() == null) {
+            generator.writeNull();
+        } else {
+            priceSerializer.serialize(row.price(), generator, provider);
+        }
+        generator.writeFieldName(CATEGORY);
+        if (row.categoryId() == null && row.categoryName() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            writeNumber(generator, row.categoryId());
+            generator.writeFieldName(NAME);
+            generator.writeString(row.categoryName());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a product search hit, flattened with the identifier and name of its category
+ * so that a search page is resolved by a single query.
+ *
+ * @see br.com.jointecnologia.crud.repository.ProductRepository#searchByName(String, String, org.springframework.data.domain.Pageable)
+ */
+public interface ProductSearchResult {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
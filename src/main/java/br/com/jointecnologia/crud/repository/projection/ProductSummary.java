@@ -0,0 +1,17 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+/**
+ * Closed projection of a product exposing only its identifier and name.
+ * <p>
+ * Used for lightweight listings (e.g. product pickers) so that only the {@code id} and {@code name}
+ * columns are selected from the database.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.model.ProductModel
+ */
+public interface ProductSummary {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,59 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.exceptions.ChangeFeedExpiredException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
+import br.com.jointecnologia.crud.repository.CatalogChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class serving the catalog change feed.
+ * <p>
+ * Consumers load the whole catalog once, remembering the latest sequence number beforehand, then repeatedly ask
+ * for the changes following the last one they applied. Each change only identifies the entity and whether it was
+ * upserted or deleted; consumers fetch the current state of upserted entities.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.change.CatalogChangeListener
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CatalogChangeService {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+
+    /**
+     * Retrieves the changes following the given sequence number, in the order they were committed.
+     *
+     * @param since the sequence number of the last change applied by the consumer, {@code 0} for none.
+     * @param limit the maximum number of changes to return.
+     * @return a {@link Slice} of changes, telling whether more changes follow.
+     * @throws ChangeFeedExpiredException if changes following {@code since} were already purged, according to the
+     *                                    purge watermark rather than to the oldest change left, since the sequence
+     *                                    has gaps.
+     */
+    public Slice<CatalogChangeModel> getChanges(long since, int limit) {
+        log.debug("Fetching up to {} catalog changes after {}", limit, since);
+        Slice<CatalogChangeModel> changes =
+                catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.ofSize(limit));
+        // Read after the changes, so that a purge committed in between is not missed
+        long lastPurgedSeq = catalogChangeRepository.findLastPurgedSeq();
+        if (since < lastPurgedSeq) {
+            throw new ChangeFeedExpiredException(since, lastPurgedSeq);
+        }
+        return changes;
+    }
+
+    /**
+     * @return the sequence number of the latest change, or {@code 0} if none was recorded.
+     */
+    public long getLatestSeq() {
+        return catalogChangeRepository.findLastSeq().orElse(0L);
+    }
+}
@@ -1,13 +1,29 @@
 package br.com.jointecnologia.crud.service;
 
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
+import br.com.jointecnologia.crud.exceptions.CategoryHierarchyException;
 import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.exceptions.UnknownCategoryException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.ProductModel;
 import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.repository.projection.CategoryUpsertResult;
+import br.com.jointecnologia.crud.service.change.CatalogChangeRecorder;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.index.CategoryTree;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +38,10 @@ import java.util.Optional;
  * The primary purpose of this service is to abstract the interaction with the repository and provide a clear API
  * for controllers to interact with.
  * </p>
+ * <p>
+ * Read operations run in read-only transactions, which skips flushing and dirty-checking snapshots and allows
+ * them to be routed to a read replica when one is configured.
+ * </p>
  *
  * @see CategoryRepository
  * @since 2024-11-09
@@ -33,6 +53,11 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogChangeRecorder catalogChangeRecorder;
+    private final ProductRepository productRepository;
+    private final SoftDeleteProperties softDeleteProperties;
+    private final CategoryTree categoryTree;
 
     /**
      * Retrieves all categories from the database.
@@ -42,6 +67,7 @@ public class CategoryService {
      *
      * @return a list of {@link CategoryModel} representing all categories.
      */
+    @Transactional(readOnly = true)
     public List<CategoryModel> getAllCategories() {
         log.info("Fetching all categories from the database");
         List<CategoryModel> categories = categoryRepository.findAll();
@@ -49,6 +75,62 @@ public class CategoryService {
         return categories;
     }
 
+    /**
+     * Retrieves all categories projected to the given type.
+     *
+     * @param projection the projection type.
+     * @param <T>        the projection type.
+     * @return a list with every category projected to {@code projection}.
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> getAllCategories(Class<T> projection) {
+        log.info("Fetching all categories from the database as {}", projection.getSimpleName());
+        List<T> categories = categoryRepository.findAllProjectedBy(projection);
+        log.debug("Fetched {} categories", categories.size());
+        return categories;
+    }
+
+    /**
+     * Retrieves every category with the number of its products.
+     * <p>
+     * Unlike the other read operations, this one runs in a read-write transaction, so that it reads the primary
+     * database: it is called right after changes are committed, which a read replica may not have applied yet.
+     * </p>
+     *
+     * @return a list of {@link CategoryListEntry}, ordered by ID.
+     */
+    public List<CategoryListEntry> getCategoryListEntries() {
+        log.debug("Fetching all categories with their product counts");
+        return categoryRepository.findListEntries();
+    }
+
+    /**
+     * Retrieves the given categories with the number of their products, reading the primary database like
+     * {@link #getCategoryListEntries()}.
+     *
+     * @param ids the IDs of the categories.
+     * @return a list of {@link CategoryListEntry}, ordered by ID, without the categories that do not exist.
+     */
+    public List<CategoryListEntry> getCategoryListEntries(Collection<Long> ids) {
+        log.debug("Fetching {} categories with their product counts", ids.size());
+        return categoryRepository.findListEntriesByIdIn(ids);
+    }
+
+    /**
+     * Retrieves a category with the number of its products.
+     *
+     * @param id the ID of the category.
+     * @return the {@link CategoryListEntry} of the category.
+     * @throws ResourceNotFoundException if no category is found with the given ID.
+     */
+    @Transactional(readOnly = true)
+    public CategoryListEntry getCategoryListEntry(Long id) {
+        log.info("Fetching category with ID: {} with its product count", id);
+        return categoryRepository.findListEntriesByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+    }
+
     /**
      * Retrieves a category by its ID.
      * <p>
@@ -59,12 +141,79 @@ public class CategoryService {
      * @param id the ID of the category to be fetched.
      * @return an {@link Optional<CategoryModel>} containing the category if found, or an empty Optional if not found.
      */
+    @Transactional(readOnly = true)
     public CategoryModel getCategoryById(Long id) {
         log.info("Fetching category with ID: {}", id);
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", id));
     }
 
+    /**
+     * Retrieves a category by its ID projected to the given type.
+     *
+     * @param id         the ID of the category to be fetched.
+     * @param projection the projection type.
+     * @param <T>        the projection type.
+     * @return the category projected to {@code projection}.
+     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     */
+    @Transactional(readOnly = true)
+    public <T> T getCategoryById(Long id, Class<T> projection) {
+        log.info("Fetching category with ID: {} as {}", id, projection.getSimpleName());
+        return categoryRepository.findProjectedById(id, projection)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+    }
+
+    /**
+     * Retrieves the ancestors of a category, from the in-process {@link CategoryTree}.
+     *
+     * @param id the ID of the category.
+     * @return the categories from the root down to the category itself.
+     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryTree.Node> getBreadcrumbs(Long id) {
+        log.info("Fetching breadcrumbs of category with ID: {}", id);
+        return categoryTree.breadcrumbs(id).orElseThrow(() -> new ResourceNotFoundException("Category", id));
+    }
+
+    /**
+     * Retrieves a category and all its descendants.
+     * <p>
+     * The path of the category is read from the database rather than from the {@link CategoryTree}, which may not
+     * have seen a move committed by another instance yet.
+     * </p>
+     *
+     * @param id the ID of the category.
+     * @return the categories of the subtree, parents before their children.
+     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryModel> getSubtree(Long id) {
+        log.info("Fetching subtree of category with ID: {}", id);
+        String path = categoryRepository.findPathById(id).orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        List<CategoryModel> categories = categoryRepository.findSubtree(path);
+        log.debug("Fetched {} categories", categories.size());
+        return categories;
+    }
+
+    /**
+     * Retrieves the products of a category and of all its descendants, with the path of the category read from the
+     * database.
+     *
+     * @param id the ID of the category.
+     * @return the products of the subtree, ordered by ID.
+     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductModel> getSubtreeProducts(Long id) {
+        log.info("Fetching products under category with ID: {}", id);
+        String path = categoryRepository.findPathById(id).orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        List<ProductModel> products = productRepository.findByCategorySubtree(path);
+        log.debug("Fetched {} products", products.size());
+        return products;
+    }
+
     /**
      * Creates a new category and saves it to the database.
      * <p>
@@ -73,26 +222,60 @@ public class CategoryService {
      *
      * @param category the category to be created.
      * @return the {@link CategoryModel} that was saved to the database.
+     * @throws UnknownCategoryException if the parent category does not exist.
      */
     public CategoryModel createCategory(CategoryModel category) {
         log.info("Creating new category: {}", category.getName());
+        checkParent(null, category.getParentId());
         CategoryModel savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.of(ChangeType.CREATED, savedCategory));
         log.debug("Category created with ID: {}", savedCategory.getId());
         return savedCategory;
     }
 
+    /**
+     * Returns the category with the given name, creating it if it does not exist.
+     * <p>
+     * The insert is skipped when the name is taken, and the existing category is then read by a second statement,
+     * which sees it even if it was inserted by a concurrent call. An existing category is thus neither rewritten nor
+     * locked. Category names are unique, so concurrent calls with the same name all return the same category.
+     * Since the insert bypasses the entity listeners, a creation is recorded in the catalog change feed here.
+     * </p>
+     *
+     * @param name the name of the category.
+     * @return the {@link CategoryUpsertResult} holding the category and whether it was created.
+     */
+    public CategoryUpsertResult upsertCategoryByName(String name) {
+        log.info("Upserting category by name: {}", name);
+        Optional<CategoryUpsertResult> upserted = categoryRepository.insertByName(name);
+        while (upserted.isEmpty()) {
+            // The name is taken, unless the category holding it was deleted in the meantime
+            upserted = categoryRepository.findUpsertResultByName(name).or(() -> categoryRepository.insertByName(name));
+        }
+        CategoryUpsertResult category = upserted.get();
+        if (category.isCreated()) {
+            catalogChangeRecorder.record(EntityType.CATEGORY, category.getId(), Operation.UPSERT);
+            eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, category.getId(), category.getName()));
+        }
+        log.debug("Category {} with ID: {}", category.isCreated() ? "created" : "found", category.getId());
+        return category;
+    }
+
     /**
      * Updates an existing category with the given ID.
      * <p>
      * This method checks if the category with the specified ID exists in the repository.
      * If the category is not found, a {@link ResourceNotFoundException} is thrown.
      * Otherwise, it updates the category with the new data and saves it back to the repository.
+     * Changing the parent moves the whole subtree of the category.
      * </p>
      *
      * @param id       the ID of the category to be updated.
      * @param category the {@link CategoryModel} object containing the updated information.
      * @return the {@link CategoryModel} object representing the updated category.
-     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     * @throws ResourceNotFoundException  if no category with the specified ID exists.
+     * @throws UnknownCategoryException   if the parent category does not exist.
+     * @throws CategoryHierarchyException if the parent category is the category itself or one of its descendants.
      */
     public CategoryModel updateCategory(Long id, CategoryModel category) {
         log.info("Updating category with ID: {}", id);
@@ -100,8 +283,10 @@ public class CategoryService {
             log.warn("Category with ID: {} not found", id);
             throw new ResourceNotFoundException("Category", id);
         }
+        checkParent(id, category.getParentId());
         category.setId(id);
         CategoryModel updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.of(ChangeType.UPDATED, updatedCategory));
         log.info("Category updated with ID: {}", updatedCategory.getId());
         return updatedCategory;
     }
@@ -109,14 +294,60 @@ public class CategoryService {
     /**
      * Deletes a category by its ID.
      * <p>
-     * This method deletes the category with the specified ID from the database.
+     * This method deletes the category with the specified ID from the database, together with its products.
+     * A {@link ProductChangedEvent} is published for every product removed by the cascade, followed by a
+     * {@link CategoryChangedEvent} for the category. A category that has subcategories cannot be deleted.
+     * </p>
+     * <p>
+     * When {@code app.soft-delete.enabled} is {@code true}, the category and its products are only marked as
+     * deleted, in two statements whatever the number of products, and removed later by the
+     * {@link br.com.jointecnologia.crud.service.purge.SoftDeletePurger}. Since the statements bypass the entity
+     * listeners, the deletions are then recorded in the catalog change feed here.
      * </p>
      *
      * @param id the ID of the category to be deleted.
+     * @throws CategoryHierarchyException if the category has subcategories.
      */
     public void deleteCategory(Long id) {
         log.info("Deleting category with ID: {}", id);
-        categoryRepository.deleteById(id);
+        if (categoryRepository.existsByParentId(id)) {
+            throw new CategoryHierarchyException(String.format("Category %d has subcategories", id));
+        }
+        List<Long> productIds;
+        if (softDeleteProperties.isEnabled()) {
+            if (categoryRepository.softDeleteById(id) == 0) {
+                log.debug("Category with ID: {} not found or already deleted", id);
+                return;
+            }
+            productIds = productRepository.softDeleteByCategoryId(id);
+            catalogChangeRecorder.recordAll(EntityType.PRODUCT, productIds, Operation.DELETE);
+            catalogChangeRecorder.record(EntityType.CATEGORY, id, Operation.DELETE);
+        } else {
+            productIds = categoryRepository.findById(id)
+                    .map(category -> category.getProducts().stream().map(ProductModel::getId).toList())
+                    .orElse(List.of());
+            categoryRepository.deleteById(id);
+        }
+        productIds.forEach(productId -> eventPublisher.publishEvent(ProductChangedEvent.deleted(productId, id)));
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
         log.debug("Category with ID: {} deleted successfully", id);
     }
+
+    /**
+     * Checks that a category can be placed under the given parent.
+     *
+     * @param id       the ID of the category, {@code null} for a new one.
+     * @param parentId the ID of the parent category, {@code null} for a root category.
+     */
+    private void checkParent(Long id, Long parentId) {
+        if (parentId == null) {
+            return;
+        }
+        List<CategoryTree.Node> ancestors = categoryTree.breadcrumbs(parentId)
+                .orElseThrow(() -> new UnknownCategoryException(parentId));
+        if (id != null && ancestors.stream().anyMatch(ancestor -> ancestor.id().equals(id))) {
+            throw new CategoryHierarchyException(
+                    String.format("Category %d cannot be moved under its own subcategory %d", id, parentId));
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.config.CategoryStatsProperties;
+import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryPriceStats;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service class providing the price statistics of the products of each category.
+ * <p>
+ * Statistics are aggregated by the database, so only one row per category leaves it. Depending on
+ * {@link CategoryStatsProperties}, they are either computed on every call or read from the
+ * {@code category_price_stats} materialized view, refreshed periodically.
+ * </p>
+ *
+ * @see ProductRepository#aggregatePriceStatsByCategory()
+ * @see ProductRepository#findPriceStatsSnapshot()
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+@Transactional(readOnly = true)
+public class CategoryStatsService {
+
+    private final ProductRepository productRepository;
+    private final CategoryStatsProperties properties;
+
+    /**
+     * Retrieves the price statistics of every category.
+     *
+     * @return a list of {@link CategoryPriceStats}, one per category, ordered by category ID.
+     */
+    public List<CategoryPriceStats> getAllCategoryStats() {
+        log.info("Fetching price statistics of all categories");
+        List<CategoryPriceStats> stats = properties.isMaterializedView()
+                ? productRepository.findPriceStatsSnapshot()
+                : productRepository.aggregatePriceStatsByCategory();
+        log.debug("Fetched price statistics of {} categories", stats.size());
+        return stats;
+    }
+
+    /**
+     * Retrieves the price statistics of a category.
+     *
+     * @param categoryId the ID of the category.
+     * @return the {@link CategoryPriceStats} of the category.
+     * @throws ResourceNotFoundException if no category with the specified ID exists.
+     */
+    public CategoryPriceStats getCategoryStats(Long categoryId) {
+        log.info("Fetching price statistics of category with ID: {}", categoryId);
+        return (properties.isMaterializedView()
+                ? productRepository.findPriceStatsSnapshotByCategoryId(categoryId)
+                : productRepository.aggregatePriceStatsByCategoryId(categoryId))
+                .orElseThrow(() -> new ResourceNotFoundException("Category", categoryId));
+    }
+}
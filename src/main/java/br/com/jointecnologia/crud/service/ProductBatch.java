@@ -0,0 +1,14 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.model.ProductModel;
+
+import java.util.List;
+
+/**
+ * Result of a lookup of several products by ID.
+ *
+ * @param products   the products found, in the requested order.
+ * @param missingIds the requested IDs matching no product, in the requested order.
+ */
+public record ProductBatch(List<ProductModel> products, List<Long> missingIds) {
+}
@@ -0,0 +1,14 @@
+package br.com.jointecnologia.crud.service;
+
+import java.util.List;
+
+/**
+ * Result of a bulk import of products.
+ *
+ * @param imported          the number of products created.
+ * @param rejected          the number of rows rejected, invalid or referring to an unknown category.
+ * @param createdCategories the number of categories created for the imported products.
+ * @param errors            the reasons of the first rejections, in line order.
+ */
+public record ProductImportResult(long imported, long rejected, int createdCategories, List<String> errors) {
+}
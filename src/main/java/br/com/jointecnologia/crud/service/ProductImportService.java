@@ -0,0 +1,238 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.exceptions.InvalidImportFileException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.service.change.CatalogChangeRecorder;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import br.com.jointecnologia.crud.service.ingest.CopyWriter;
+import br.com.jointecnologia.crud.service.ingest.CsvReader;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service class for importing products in bulk from CSV files.
+ * <p>
+ * Inserting through {@link br.com.jointecnologia.crud.repository.ProductRepository} costs a round trip and a
+ * persistence context entry per product. An import instead streams the valid rows into a temporary staging table
+ * with {@code COPY}, then inserts them into the product table with a single statement resolving the category names
+ * to their IDs, so that the database does the work set-wise.
+ * </p>
+ * <p>
+ * The file has a {@code name,price,category} row per product, {@code category} being the name of the category, and
+ * may start with that header. Invalid rows and rows referring to an unknown category are rejected and reported,
+ * the other rows being imported in a single transaction. The imported products are recorded in the catalog change
+ * feed and announced by a single {@link ProductsImportedEvent}.
+ * </p>
+ *
+ * @see CsvReader
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+@Transactional(rollbackFor = Exception.class)
+public class ProductImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final List<String> HEADER = List.of("name", "price", "category");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogChangeRecorder catalogChangeRecorder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports the products of a CSV file.
+     *
+     * @param csv              the content of the file.
+     * @param createCategories whether the unknown categories are created rather than their rows rejected.
+     * @return the counts of imported and rejected rows, with the reasons of the first rejections.
+     * @throws InvalidImportFileException if the file is not valid CSV.
+     */
+    public ProductImportResult importProducts(Reader csv, boolean createCategories) {
+        log.info("Importing products (creating unknown categories: {})", createCategories);
+        long start = System.nanoTime();
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE product_import (line bigint NOT NULL, "
+                + "name varchar(100) NOT NULL, price numeric(18, 2) NOT NULL, category_name varchar(100) NOT NULL) "
+                + "ON COMMIT DROP");
+        TreeMap<Long, String> errors = new TreeMap<>();
+        long invalid = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (CopyWriter copy = new CopyWriter(connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY product_import (line, name, price, category_name) FROM STDIN"))) {
+                long rejected = stage(new CsvReader(csv), copy, errors);
+                log.debug("Staged {} products", copy.finish());
+                return rejected;
+            }
+        });
+        jdbcTemplate.execute("ANALYZE product_import");
+
+        List<Long> categoryIds = createCategories ? createCategories() : List.of();
+        long rejected = invalid + rejectUnknownCategories(errors);
+
+        List<Long> productIds = new ArrayList<>();
+        Map<Long, String> productNames = new HashMap<>();
+        Set<Long> productCategoryIds = new HashSet<>();
+        jdbcTemplate.query("""
+                INSERT INTO product (name, price, category_id)
+                SELECT s.name, s.price, c.id
+                FROM product_import s JOIN category c ON c.name = s.category_name AND c.deleted_at IS NULL
+                ORDER BY s.line
+                RETURNING id, category_id, name
+                """, rs -> {
+            productIds.add(rs.getLong(1));
+            productCategoryIds.add(rs.getLong(2));
+            productNames.put(rs.getLong(1), rs.getString(3));
+        });
+        catalogChangeRecorder.recordAll(EntityType.CATEGORY, categoryIds, Operation.UPSERT);
+        catalogChangeRecorder.recordAll(EntityType.PRODUCT, productIds, Operation.UPSERT);
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsImportedEvent(productNames, productCategoryIds));
+        }
+        int createdCategories = categoryIds.size();
+
+        ProductImportResult result = new ProductImportResult(productIds.size(), rejected, createdCategories,
+                errors.entrySet().stream().map(error -> "Line " + error.getKey() + ": " + error.getValue()).toList());
+        log.info("Imported {} products and rejected {} rows in {} ms", result.imported(), result.rejected(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Validates the rows of the file and copies the valid ones into the staging table.
+     *
+     * @return the number of invalid rows.
+     */
+    private static long stage(CsvReader reader, CopyWriter copy, TreeMap<Long, String> errors) throws SQLException {
+        long rejected = 0;
+        try {
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                if (reader.recordLine() == 1 && isHeader(fields)) {
+                    continue;
+                }
+                String error = validate(fields);
+                if (error != null) {
+                    rejected++;
+                    report(errors, reader.recordLine(), error);
+                    continue;
+                }
+                copy.value(reader.recordLine())
+                        .value(fields.get(0).strip())
+                        .value(Price.parse(fields.get(1).strip()))
+                        .value(fields.get(2).strip())
+                        .endRow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportFileException(e.getMessage());
+        }
+        return rejected;
+    }
+
+    /**
+     * Checks a row of the file.
+     *
+     * @return the reason why the row is invalid, or {@code null} if it is valid.
+     */
+    private static String validate(List<String> fields) {
+        if (fields.size() != HEADER.size()) {
+            return "expected " + HEADER.size() + " fields but found " + fields.size();
+        }
+        String name = fields.get(0).strip();
+        if (name.isEmpty() || name.codePointCount(0, name.length()) > MAX_NAME_LENGTH) {
+            return "name must have between 1 and " + MAX_NAME_LENGTH + " characters";
+        }
+        try {
+            Price.parse(fields.get(1).strip());
+        } catch (NumberFormatException e) {
+            return "price must be a number with at most " + Price.SCALE + " decimal places and at most "
+                    + Price.ofMinorUnits(Price.MAX_MINOR_UNITS) + " in absolute value";
+        }
+        String category = fields.get(2).strip();
+        if (category.isEmpty() || category.codePointCount(0, category.length()) > MAX_NAME_LENGTH) {
+            return "category must have between 1 and " + MAX_NAME_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.size() == HEADER.size()
+                && fields.stream().map(field -> field.strip().toLowerCase(Locale.ROOT)).toList().equals(HEADER);
+    }
+
+    /**
+     * Creates the categories of the staged rows that do not exist yet.
+     *
+     * @return the IDs of the categories created, to be recorded in the change feed.
+     */
+    private List<Long> createCategories() {
+        List<Long> categoryIds = new ArrayList<>();
+        jdbcTemplate.query("""
+                INSERT INTO category (name)
+                SELECT DISTINCT category_name FROM product_import ORDER BY category_name
+                ON CONFLICT (name) WHERE deleted_at IS NULL DO NOTHING
+                RETURNING id, name
+                """, rs -> {
+            long id = rs.getLong(1);
+            categoryIds.add(id);
+            eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, id, rs.getString(2)));
+        });
+        log.debug("Created {} categories", categoryIds.size());
+        return categoryIds;
+    }
+
+    /**
+     * Reports the staged rows referring to no existing category.
+     *
+     * @return the number of such rows.
+     */
+    private long rejectUnknownCategories(TreeMap<Long, String> errors) {
+        String unknown = "FROM product_import s WHERE NOT EXISTS "
+                + "(SELECT 1 FROM category c WHERE c.name = s.category_name AND c.deleted_at IS NULL)";
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) " + unknown, Long.class);
+        if (count == null || count == 0) {
+            return 0;
+        }
+        jdbcTemplate.query("SELECT s.line, s.category_name " + unknown + " ORDER BY s.line LIMIT ?",
+                (RowCallbackHandler) rs -> report(errors, rs.getLong(1), "unknown category '" + rs.getString(2) + "'"),
+                MAX_REPORTED_ERRORS);
+        return count;
+    }
+
+    /**
+     * Adds the reason of a rejection to the reported ones, keeping only the first lines.
+     */
+    private static void report(TreeMap<Long, String> errors, long line, String error) {
+        errors.put(line, error);
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            errors.pollLastEntry();
+        }
+    }
+}
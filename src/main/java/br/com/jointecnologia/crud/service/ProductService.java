@@ -1,14 +1,41 @@
 package br.com.jointecnologia.crud.service;
 
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
 import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.exceptions.UnknownCategoryException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import br.com.jointecnologia.crud.model.CategoryModel;
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
 import br.com.jointecnologia.crud.repository.ProductRepository;
-import lombok.AllArgsConstructor;
+import br.com.jointecnologia.crud.repository.projection.ProductRow;
+import br.com.jointecnologia.crud.repository.projection.ProductSearchResult;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.batch.ProductBatchLoader;
+import br.com.jointecnologia.crud.service.change.CatalogChangeRecorder;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.index.CategoryIdCache;
+import br.com.jointecnologia.crud.service.index.ProductNameIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service class for managing Product entities.
@@ -21,16 +48,46 @@ import java.util.List;
  * The primary purpose of this service is to abstract the interaction with the repository and provide a clear API
  * for controllers to interact with.
  * </p>
+ * <p>
+ * Read operations run in read-only transactions, which skips flushing and dirty-checking snapshots and allows
+ * them to be routed to a read replica when one is configured. Write operations publish a
+ * {@link ProductChangedEvent} so that derived data (such as the in-memory name index) can follow the changes.
+ * </p>
  *
  * @see ProductRepository
  * @since 2024-11-09
  */
 @Service
 @Slf4j
-@AllArgsConstructor
 @Transactional(rollbackFor = Exception.class)
 public class ProductService {
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryIdCache categoryIdCache;
+    private final ProductNameIndex productNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ProductBatchLoader> productBatchLoader;
+    private final SoftDeleteProperties softDeleteProperties;
+    private final CatalogChangeRecorder catalogChangeRecorder;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                          CategoryIdCache categoryIdCache, ProductNameIndex productNameIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectProvider<ProductBatchLoader> productBatchLoader,
+                          SoftDeleteProperties softDeleteProperties, CatalogChangeRecorder catalogChangeRecorder,
+                          PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryIdCache = categoryIdCache;
+        this.productNameIndex = productNameIndex;
+        this.eventPublisher = eventPublisher;
+        this.productBatchLoader = productBatchLoader;
+        this.softDeleteProperties = softDeleteProperties;
+        this.catalogChangeRecorder = catalogChangeRecorder;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
      * Retrieves all products from the database.
@@ -40,6 +97,7 @@ public class ProductService {
      *
      * @return a list of {@link ProductModel} representing all products.
      */
+    @Transactional(readOnly = true)
     public List<ProductModel> getAllProducts() {
         log.info("Fetching all products from the database");
         List<ProductModel> products = productRepository.findAll();
@@ -47,35 +105,181 @@ public class ProductService {
         return products;
     }
 
+    /**
+     * Retrieves all products with their category as immutable {@link ProductRow}s.
+     * <p>
+     * Unlike {@link #getAllProducts()}, no entity is loaded into the persistence context, which makes large
+     * listings much cheaper in memory.
+     * </p>
+     *
+     * @return a list with a row for every product.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductRow> getAllProductRows() {
+        log.info("Fetching all products from the database as rows");
+        List<ProductRow> products = productRepository.findAllRows();
+        log.debug("Fetched {} products", products.size());
+        return products;
+    }
+
+    /**
+     * Retrieves all products projected to the given type.
+     * <p>
+     * Only the columns exposed by the projection are selected from the database, which keeps
+     * sparse listings (e.g. only {@code id} and {@code name}) cheap.
+     * </p>
+     *
+     * @param projection the projection type.
+     * @param <T>        the projection type.
+     * @return a list with every product projected to {@code projection}.
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> getAllProducts(Class<T> projection) {
+        log.info("Fetching all products from the database as {}", projection.getSimpleName());
+        List<T> products = productRepository.findAllProjectedBy(projection);
+        log.debug("Fetched {} products", products.size());
+        return products;
+    }
+
     /**
      * Retrieves a product by its ID.
      * <p>
      * This method queries the repository to fetch a product based on the given ID.
      * If the product is not found, a {@link ResourceNotFoundException} is thrown.
      * </p>
+     * <p>
+     * When {@code app.product-batching.enabled} is {@code true}, the lookup is batched with the concurrent ones by
+     * the {@link ProductBatchLoader}. This method then does not open a transaction itself, so that no connection is
+     * held while waiting for the batch, and a failed batch query is rethrown as is. Otherwise the product is read in
+     * a read-only transaction, like the other lookups.
+     * </p>
      *
      * @param id the ID of the product to be fetched.
      * @return the {@link ProductModel} representing the product if found.
      * @throws ResourceNotFoundException if no product with the specified ID exists.
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductModel getProductById(Long id) {
         log.info("Fetching product with ID: {}", id);
-        return productRepository.findById(id)
+        ProductBatchLoader batchLoader = productBatchLoader.getIfAvailable();
+        Optional<ProductModel> product;
+        if (batchLoader != null) {
+            try {
+                product = batchLoader.load(id).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        } else {
+            product = readOnlyTransaction.execute(status -> productRepository.findById(id));
+        }
+        return product.orElseThrow(() -> new ResourceNotFoundException("Product", id));
+    }
+
+    /**
+     * Retrieves the products with the given IDs.
+     * <p>
+     * Products and their categories are read in a single query, whatever the number of IDs. Duplicate IDs are
+     * ignored.
+     * </p>
+     *
+     * @param ids the IDs of the products to be fetched.
+     * @return the {@link ProductBatch} holding the products found, in the order of {@code ids}, and the IDs of the
+     * products not found.
+     */
+    @Transactional(readOnly = true)
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        log.info("Fetching {} products by ID", requested.size());
+        Map<Long, ProductModel> found = new HashMap<>();
+        productRepository.findAllWithCategoryByIdIn(requested).forEach(product -> found.put(product.getId(), product));
+        List<ProductModel> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductModel product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        log.debug("Found {} products, {} missing", products.size(), missingIds.size());
+        return new ProductBatch(products, missingIds);
+    }
+
+    /**
+     * Retrieves a product by its ID projected to the given type.
+     *
+     * @param id         the ID of the product to be fetched.
+     * @param projection the projection type.
+     * @param <T>        the projection type.
+     * @return the product projected to {@code projection}.
+     * @throws ResourceNotFoundException if no product with the specified ID exists.
+     */
+    @Transactional(readOnly = true)
+    public <T> T getProductById(Long id, Class<T> projection) {
+        log.info("Fetching product with ID: {} as {}", id, projection.getSimpleName());
+        return productRepository.findProjectedById(id, projection)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", id));
     }
 
+    /**
+     * Searches products by name.
+     * <p>
+     * Returns the products whose name contains the given term (case-insensitive), ordered from the closest
+     * match to the furthest one. Wildcard characters in the term are matched literally.
+     * </p>
+     *
+     * @param term the search term.
+     * @param page the zero-based page index.
+     * @param size the page size.
+     * @return the matching products of the requested page.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSearchResult> searchProducts(String term, int page, int size) {
+        log.info("Searching products by name: {}", term);
+        String pattern = "%" + escapeLikePattern(term) + "%";
+        List<ProductSearchResult> products = productRepository.searchByName(term, pattern, PageRequest.of(page, size));
+        log.debug("Found {} products", products.size());
+        return products;
+    }
+
+    /**
+     * Suggests products for autocomplete.
+     * <p>
+     * Served from the in-memory {@link ProductNameIndex}, so no transaction nor database access is involved.
+     * A product matches when any word of its name starts with the given prefix (case-insensitive).
+     * </p>
+     *
+     * @param prefix the prefix typed by the user.
+     * @param limit  the maximum number of suggestions.
+     * @return the matching products, with their ID and name only.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProductSummary> autocompleteProducts(String prefix, int limit) {
+        log.debug("Autocompleting products for prefix: {}", prefix);
+        return productNameIndex.findByPrefix(prefix, limit);
+    }
+
     /**
      * Creates a new product and saves it to the database.
      * <p>
      * This method accepts a {@link ProductModel} object, saves it to the database, and returns the saved entity.
+     * Only the ID of its category is read: the category is checked against the {@link CategoryIdCache} and
+     * attached as an uninitialized reference, so the product is written with a single {@code INSERT}.
      * </p>
      *
      * @param product the product to be created.
      * @return the {@link ProductModel} that was saved to the database.
+     * @throws UnknownCategoryException if the category of the product does not exist.
      */
     public ProductModel createProduct(ProductModel product) {
         log.info("Creating new product: {}", product.getName());
+        product.setCategory(categoryReference(product.getCategory()));
         ProductModel savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.CREATED, savedProduct));
         log.debug("Product created with ID: {}", savedProduct.getId());
         return savedProduct;
     }
@@ -83,37 +287,83 @@ public class ProductService {
     /**
      * Updates an existing product in the database.
      * <p>
-     * This method checks if the product with the specified ID exists in the repository.
-     * If the product is not found, a {@link ResourceNotFoundException} is thrown.
-     * Otherwise, it updates the product with the new data and saves it back to the repository.
+     * This method loads the product with the specified ID and copies the name, price and category of
+     * {@code product} onto it. If the product is not found, a {@link ResourceNotFoundException} is thrown.
+     * The changes are written by dirty checking when the transaction commits, so the product is neither merged
+     * nor checked for existence with a separate query. The category is attached as in
+     * {@link #createProduct(ProductModel)}, without being loaded.
      * </p>
      *
+     * @param id      the ID of the product to be updated.
      * @param product the {@link ProductModel} object containing the updated product information.
      * @return the updated {@link ProductModel} entity.
      * @throws ResourceNotFoundException if no product with the specified ID exists.
+     * @throws UnknownCategoryException  if the new category of the product does not exist.
      */
-    public ProductModel updateProduct(ProductModel product) {
-        log.info("Updating product with ID: {}", product.getId());
-        if (!productRepository.existsById(product.getId())) {
-            log.warn("Product with ID: {} not found", product.getId());
-            throw new ResourceNotFoundException("Product", product.getId());
-        }
-        ProductModel updatedProduct = productRepository.save(product);
-        log.debug("Product with ID: {} updated", updatedProduct.getId());
+    public ProductModel updateProduct(Long id, ProductModel product) {
+        log.info("Updating product with ID: {}", id);
+        ProductModel updatedProduct = productRepository.findById(id).orElseThrow(() -> {
+            log.warn("Product with ID: {} not found", id);
+            return new ResourceNotFoundException("Product", id);
+        });
+        Long previousCategoryId = updatedProduct.getCategory() != null ? updatedProduct.getCategory().getId() : null;
+        updatedProduct.setName(product.getName());
+        updatedProduct.setPrice(product.getPrice());
+        updatedProduct.setCategory(categoryReference(product.getCategory()));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProduct, previousCategoryId));
+        log.debug("Product with ID: {} updated", id);
         return updatedProduct;
     }
 
     /**
      * Deletes a product by its ID.
      * <p>
-     * This method deletes the product with the specified ID from the database.
+     * This method deletes the product with the specified ID from the database. When
+     * {@code app.soft-delete.enabled} is {@code true}, the product is only marked as deleted in a single statement
+     * and removed later by the {@link br.com.jointecnologia.crud.service.purge.SoftDeletePurger}. Since the statement
+     * bypasses the entity listeners, the deletion is then recorded in the catalog change feed here. Either way, the
+     * category of the product is read so that the published event carries it.
      * </p>
      *
      * @param id the ID of the product to be deleted.
      */
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
-        productRepository.deleteById(id);
+        Long categoryId;
+        if (softDeleteProperties.isEnabled()) {
+            Optional<Long> deletedCategoryId = productRepository.softDeleteById(id);
+            if (deletedCategoryId.isEmpty()) {
+                log.debug("Product with ID: {} not found or already deleted", id);
+                return;
+            }
+            catalogChangeRecorder.record(EntityType.PRODUCT, id, Operation.DELETE);
+            categoryId = deletedCategoryId.get();
+        } else {
+            Optional<ProductModel> product = productRepository.findById(id);
+            if (product.isEmpty()) {
+                log.debug("Product with ID: {} not found", id);
+                return;
+            }
+            productRepository.delete(product.get());
+            categoryId = product.get().getCategory() != null ? product.get().getCategory().getId() : null;
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id, categoryId));
         log.debug("Product with ID: {} deleted successfully", id);
     }
+
+    private static String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Returns a reference to the given category, checking that it exists through the {@link CategoryIdCache}.
+     */
+    private CategoryModel categoryReference(CategoryModel category) {
+        Long categoryId = category != null ? category.getId() : null;
+        if (!categoryIdCache.contains(categoryId)) {
+            log.warn("Category with ID: {} not found", categoryId);
+            throw new UnknownCategoryException(categoryId);
+        }
+        return categoryRepository.getReferenceById(categoryId);
+    }
 }
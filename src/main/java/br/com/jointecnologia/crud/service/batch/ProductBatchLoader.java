@@ -0,0 +1,170 @@
+package br.com.jointecnologia.crud.service.batch;
+
+import br.com.jointecnologia.crud.config.ProductBatchingProperties;
+import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the product lookups by ID made by concurrent requests into batched queries (DataLoader-style).
+ * <p>
+ * The first lookup opens a batch, which collects the following lookups for {@code app.product-batching.window}
+ * or until it holds {@code max-batch-size} distinct IDs. The batch is then read by a single
+ * {@code WHERE id IN (...)} query, fetching the categories in the same query, and every lookup is completed
+ * with its product. Lookups of the same ID within a batch share the same query row.
+ * </p>
+ * <p>
+ * Products are read in their own read-only transaction and handed out detached, possibly to several requests at
+ * once, so they must not be modified by callers.
+ * </p>
+ * <p>
+ * The following metrics are published: {@code product.batch.size} (distinct IDs per batch),
+ * {@code product.batch.lookups} (lookups per batch), {@code product.batch.wait} (time from the first lookup of a
+ * batch to its query, i.e. the latency added to that lookup) and {@code product.batch.query} (query time).
+ * </p>
+ *
+ * @see ProductBatchingProperties
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.product-batching", name = "enabled", havingValue = "true")
+public class ProductBatchLoader {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductBatchingProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService queryExecutor;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchLookups;
+    private final Timer batchWait;
+    private final Timer batchQuery;
+
+    private final Object lock = new Object();
+    private Batch current;
+
+    public ProductBatchLoader(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                              ProductBatchingProperties properties, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("product-batch-timer-"));
+        this.queryExecutor = Executors.newFixedThreadPool(properties.getThreads(), threadFactory("product-batch-"));
+        this.batchSize = DistributionSummary.builder("product.batch.size")
+                .description("Distinct product IDs read per batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchLookups = DistributionSummary.builder("product.batch.lookups")
+                .description("Product lookups served per batch")
+                .register(meterRegistry);
+        this.batchWait = Timer.builder("product.batch.wait")
+                .description("Time from the first lookup of a batch to its query")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchQuery = Timer.builder("product.batch.query")
+                .description("Time taken by the query of a batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a product by its ID as part of the current batch.
+     *
+     * @param id the ID of the product.
+     * @return a future completed with the product, or with an empty {@link Optional} if it does not exist.
+     */
+    public CompletableFuture<Optional<ProductModel>> load(Long id) {
+        Batch full = null;
+        CompletableFuture<Optional<ProductModel>> future;
+        synchronized (lock) {
+            if (current == null) {
+                Batch opened = new Batch(System.nanoTime());
+                current = opened;
+                scheduler.schedule(() -> close(opened), properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            current.lookups++;
+            future = current.futures.computeIfAbsent(id, ignored -> new CompletableFuture<>());
+            if (current.futures.size() >= properties.getMaxBatchSize()) {
+                full = current;
+                current = null;
+            }
+        }
+        if (full != null) {
+            submit(full);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        queryExecutor.shutdown();
+    }
+
+    private void close(Batch batch) {
+        synchronized (lock) {
+            if (current != batch) {
+                // Already submitted when it became full.
+                return;
+            }
+            current = null;
+        }
+        submit(batch);
+    }
+
+    private void submit(Batch batch) {
+        queryExecutor.execute(() -> query(batch));
+    }
+
+    private void query(Batch batch) {
+        batchWait.record(System.nanoTime() - batch.openedAt, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.futures.size());
+        batchLookups.record(batch.lookups);
+        try {
+            List<ProductModel> products = batchQuery.record(() -> transactionTemplate.execute(
+                    status -> productRepository.findAllWithCategoryByIdIn(batch.futures.keySet())));
+            Map<Long, ProductModel> found = new HashMap<>();
+            products.forEach(product -> found.put(product.getId(), product));
+            batch.futures.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException ex) {
+            log.error("Failed to read a batch of {} products", batch.futures.size(), ex);
+            batch.futures.values().forEach(future -> future.completeExceptionally(ex));
+        }
+    }
+
+    private static CustomizableThreadFactory threadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static final class Batch {
+
+        private final long openedAt;
+        private final Map<Long, CompletableFuture<Optional<ProductModel>>> futures = new HashMap<>();
+        private int lookups;
+
+        private Batch(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+}
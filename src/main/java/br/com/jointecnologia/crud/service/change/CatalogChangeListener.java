@@ -0,0 +1,46 @@
+package br.com.jointecnologia.crud.service.change;
+
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.ProductModel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Entity listener of {@link ProductModel} and {@link CategoryModel} recording every insert, update and delete
+ * in the {@code catalog_change} outbox.
+ * <p>
+ * Instantiated by Hibernate through Spring while the {@code EntityManagerFactory} is built, so the
+ * {@link CatalogChangeRecorder}, whose {@code JdbcTemplate} waits for the schema scripts run after Hibernate, is
+ * looked up on first use. Bulk and native statements bypass entity listeners, so code issuing them records its
+ * changes through the recorder itself.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class CatalogChangeListener {
+
+    private final ObjectProvider<CatalogChangeRecorder> recorder;
+
+    @PostPersist
+    @PostUpdate
+    public void onUpsert(Object entity) {
+        record(entity, Operation.UPSERT);
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        record(entity, Operation.DELETE);
+    }
+
+    private void record(Object entity, Operation operation) {
+        if (entity instanceof ProductModel product) {
+            recorder.getObject().record(EntityType.PRODUCT, product.getId(), operation);
+        } else if (entity instanceof CategoryModel category) {
+            recorder.getObject().record(EntityType.CATEGORY, category.getId(), operation);
+        }
+    }
+}
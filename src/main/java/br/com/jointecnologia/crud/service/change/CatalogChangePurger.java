@@ -0,0 +1,42 @@
+package br.com.jointecnologia.crud.service.change;
+
+import br.com.jointecnologia.crud.config.ChangeFeedProperties;
+import br.com.jointecnologia.crud.repository.CatalogChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Periodically deletes the changes older than {@code app.change-feed.retention}.
+ * <p>
+ * The changes are deleted up to the latest expired one, whose sequence number is stored as the purge watermark in
+ * the same transaction, so that the feed tells consumers that fell behind the retention apart from consumers
+ * waiting on a gap of the sequence. The latest change is always kept.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.service.CatalogChangeService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogChangePurger {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final ChangeFeedProperties properties;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.change-feed.purge-interval:PT1H}")
+    public void purge() {
+        catalogChangeRepository.findLastSeqChangedBefore(Instant.now().minus(properties.getRetention()))
+                .ifPresent(lastSeq -> {
+                    catalogChangeRepository.advancePurgeWatermark(lastSeq);
+                    int purged = catalogChangeRepository.deleteUpTo(lastSeq);
+                    log.info("Purged {} catalog changes older than {}, up to {}", purged, properties.getRetention(),
+                            lastSeq);
+                });
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.jointecnologia.crud.service.change;
+
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+/**
+ * Appends changes to the {@code catalog_change} table, in the transaction that made them.
+ * <p>
+ * Changes are written through JDBC on the connection of the current transaction rather than through the
+ * {@code EntityManager}, since they are recorded while Hibernate is flushing.
+ * </p>
+ * <p>
+ * Sequence numbers are taken in commit order, so a consumer that read up to a sequence number can never miss a
+ * change committed later. Changes are first written to {@code catalog_change_pending}, and the first change of a
+ * transaction also registers it in {@code catalog_change_commit}. A deferred trigger on that table then moves the
+ * changes to {@code catalog_change} when the transaction commits, under a transaction-scoped advisory lock (see
+ * {@code schema.sql}). Concurrent writers thus only wait for each other while committing, not for the whole length
+ * of their transactions.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeRecorder {
+
+    private static final String COMMIT_RESOURCE = CatalogChangeRecorder.class.getName() + ".COMMIT";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records a change made in the current transaction.
+     *
+     * @param entityType the type of the changed entity.
+     * @param entityId   the ID of the changed entity.
+     * @param operation  whether the entity was upserted or deleted.
+     */
+    public void record(EntityType entityType, Long entityId, Operation operation) {
+        registerTransaction();
+        jdbcTemplate.update("INSERT INTO catalog_change_pending (entity_type, entity_id, operation, changed_at) "
+                + "VALUES (?, ?, ?, now())", entityType.name(), entityId, operation.name());
+        log.debug("Recorded {} of {} with ID: {}", operation, entityType, entityId);
+    }
+
+    /**
+     * Records the same change of several entities made in the current transaction, in a single statement.
+     *
+     * @param entityType the type of the changed entities.
+     * @param entityIds  the IDs of the changed entities.
+     * @param operation  whether the entities were upserted or deleted.
+     */
+    public void recordAll(EntityType entityType, Collection<Long> entityIds, Operation operation) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        registerTransaction();
+        int recorded = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO catalog_change_pending (entity_type, entity_id, operation, changed_at) "
+                            + "SELECT ?, id, ?, now() FROM unnest(?) AS id");
+            statement.setString(1, entityType.name());
+            statement.setString(2, operation.name());
+            statement.setArray(3, connection.createArrayOf("bigint", entityIds.toArray()));
+            return statement;
+        });
+        log.debug("Recorded {} of {} {}", operation, recorded, entityType);
+    }
+
+    /**
+     * Registers the current transaction in {@code catalog_change_commit}, unless it is already registered, so that
+     * its changes are published when it commits.
+     *
+     * @throws IllegalStateException if no transaction is active.
+     */
+    private void registerTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Catalog changes must be recorded within a transaction");
+        }
+        if (TransactionSynchronizationManager.hasResource(COMMIT_RESOURCE)) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO catalog_change_commit DEFAULT VALUES ON CONFLICT DO NOTHING");
+        TransactionSynchronizationManager.bindResource(COMMIT_RESOURCE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(COMMIT_RESOURCE);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.jointecnologia.crud.service.event;
+
+import br.com.jointecnologia.crud.model.CategoryModel;
+
+/**
+ * Application event published by the service layer whenever a category is created, updated or deleted.
+ * <p>
+ * Listeners interested only in committed changes should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}. For deletions only the
+ * {@code categoryId} is guaranteed to be present.
+ * </p>
+ *
+ * @param type       the kind of change.
+ * @param categoryId the ID of the category.
+ * @param name       the name of the category after the change.
+ */
+public record CategoryChangedEvent(ChangeType type, Long categoryId, String name) {
+
+    public static CategoryChangedEvent of(ChangeType type, CategoryModel category) {
+        return new CategoryChangedEvent(type, category.getId(), category.getName());
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(ChangeType.DELETED, categoryId, null);
+    }
+}
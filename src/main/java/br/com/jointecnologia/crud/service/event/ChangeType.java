@@ -0,0 +1,10 @@
+package br.com.jointecnologia.crud.service.event;
+
+/**
+ * Kind of change applied to an entity of the catalog.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
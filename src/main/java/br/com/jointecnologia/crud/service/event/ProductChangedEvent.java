@@ -0,0 +1,49 @@
+package br.com.jointecnologia.crud.service.event;
+
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.model.ProductModel;
+
+/**
+ * Application event published by the service layer whenever a product is created, updated or deleted.
+ * <p>
+ * Listeners interested only in committed changes should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}. For deletions the {@code name} and
+ * {@code price} are absent. Comparing {@code previousCategoryId} with {@code categoryId} tells whether an update
+ * moved the product to another category.
+ * </p>
+ *
+ * @param type               the kind of change.
+ * @param productId          the ID of the product.
+ * @param name               the name of the product after the change.
+ * @param price              the price of the product after the change.
+ * @param categoryId         the ID of the category of the product after the change, or before it for a deletion.
+ * @param previousCategoryId the ID of the category of the product before the change, {@code null} for a creation.
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, String name, Price price, Long categoryId,
+                                  Long previousCategoryId) {
+
+    /**
+     * Creates an event for a change that does not move the product to another category.
+     */
+    public ProductChangedEvent(ChangeType type, Long productId, String name, Price price, Long categoryId) {
+        this(type, productId, name, price, categoryId, type == ChangeType.CREATED ? null : categoryId);
+    }
+
+    public static ProductChangedEvent of(ChangeType type, ProductModel product) {
+        return new ProductChangedEvent(type, product.getId(), product.getName(), product.getPrice(),
+                categoryId(product));
+    }
+
+    public static ProductChangedEvent updated(ProductModel product, Long previousCategoryId) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getId(), product.getName(), product.getPrice(),
+                categoryId(product), previousCategoryId);
+    }
+
+    public static ProductChangedEvent deleted(Long productId, Long categoryId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null, null, categoryId, categoryId);
+    }
+
+    private static Long categoryId(ProductModel product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.jointecnologia.crud.service.event;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application event published by the service layer once for each bulk import of products, instead of a
+ * {@link ProductChangedEvent} per imported product.
+ * <p>
+ * Listeners interested only in committed changes should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}. The imported products themselves are
+ * listed in the catalog change feed.
+ * </p>
+ *
+ * @param names       the names of the imported products, by product ID.
+ * @param categoryIds the IDs of the categories the products were imported into.
+ */
+public record ProductsImportedEvent(Map<Long, String> names, Set<Long> categoryIds) {
+
+    /**
+     * @return the number of products imported.
+     */
+    public int count() {
+        return names.size();
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.projection.CategorySummary;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process set of the existing category IDs, answering whether a category exists without touching the database.
+ * <p>
+ * The set is loaded from {@link CategoryRepository} when the application is ready and follows the changes
+ * published through {@link CategoryChangedEvent} after commit. An ID that is not in the set is looked up in the
+ * database and remembered when found, so categories created by another instance are picked up on first use.
+ * A category deleted by another instance is still reported as existing; the foreign key of the product table
+ * then rejects the write.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryIdCache {
+
+    private final CategoryRepository categoryRepository;
+    private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Loads every category ID from the database into the cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (CategorySummary category : categoryRepository.findAllProjectedBy(CategorySummary.class)) {
+            ids.add(category.getId());
+        }
+        log.info("Category ID cache loaded with {} categories", ids.size());
+    }
+
+    /**
+     * Checks whether a category with the given ID exists.
+     *
+     * @param id the ID of the category.
+     * @return {@code true} if the category exists.
+     */
+    public boolean contains(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (ids.contains(id)) {
+            return true;
+        }
+        if (categoryRepository.existsById(id)) {
+            ids.add(id);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies a committed category change to the cache.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            ids.remove(event.categoryId());
+        } else {
+            ids.add(event.categoryId());
+        }
+    }
+}
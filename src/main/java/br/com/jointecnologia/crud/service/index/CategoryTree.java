@@ -0,0 +1,126 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryTreeNode;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process copy of the category tree, answering breadcrumb lookups without touching the database.
+ * <p>
+ * The tree is an immutable map of the categories that are not deleted, loaded from {@link CategoryRepository}
+ * when the application is ready. Since moving a category changes the ancestors of its whole subtree, a change
+ * published through {@link CategoryChangedEvent} after commit does not patch the tree but marks it stale, and the
+ * next lookup reloads it. An ID that is not in the tree is looked up in the database and reloads the tree when
+ * found, so categories created by another instance are picked up on first use; categories moved by another
+ * instance are seen after the next local change.
+ * </p>
+ * <p>
+ * Since it can lag behind the database, the tree only serves breadcrumbs and the early rejection of cycles: subtree
+ * queries read the path of their root from the database.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTree {
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private volatile Map<Long, Node> nodes = Map.of();
+
+    /**
+     * Loads the category tree from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        stale.set(true);
+        log.info("Category tree loaded with {} categories", current().size());
+    }
+
+    /**
+     * Marks the tree stale after a committed category change.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        stale.set(true);
+    }
+
+    /**
+     * Returns the ancestors of a category, starting from the root, followed by the category itself.
+     *
+     * @param id the ID of the category.
+     * @return the categories from the root down to the category, or empty if the category does not exist.
+     */
+    public Optional<List<Node>> breadcrumbs(Long id) {
+        Map<Long, Node> current = lookup(id);
+        Node node = current.get(id);
+        if (node == null) {
+            return Optional.empty();
+        }
+        List<Node> breadcrumbs = new ArrayList<>();
+        // Bounded by the number of categories, should a concurrent reload ever observe a cycle
+        while (node != null && breadcrumbs.size() <= current.size()) {
+            breadcrumbs.add(node);
+            node = node.parentId() != null ? current.get(node.parentId()) : null;
+        }
+        Collections.reverse(breadcrumbs);
+        return Optional.of(breadcrumbs);
+    }
+
+    private Map<Long, Node> lookup(Long id) {
+        Map<Long, Node> current = current();
+        if (id != null && !current.containsKey(id) && categoryRepository.existsById(id)) {
+            stale.set(true);
+            current = current();
+        }
+        return current;
+    }
+
+    private Map<Long, Node> current() {
+        if (stale.get()) {
+            synchronized (this) {
+                if (stale.getAndSet(false)) {
+                    try {
+                        Map<Long, Node> loaded = new HashMap<>();
+                        for (CategoryTreeNode category : categoryRepository.findAllProjectedBy(CategoryTreeNode.class)) {
+                            loaded.put(category.getId(),
+                                    new Node(category.getId(), category.getName(), category.getParentId()));
+                        }
+                        nodes = Map.copyOf(loaded);
+                    } catch (RuntimeException e) {
+                        stale.set(true);
+                        throw e;
+                    }
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * A category of the tree.
+     *
+     * @param id       the ID of the category.
+     * @param name     the name of the category.
+     * @param parentId the ID of the parent category, {@code null} for a root category.
+     */
+    public record Node(Long id, String name, Long parentId) {
+    }
+}
@@ -0,0 +1,470 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process index answering product name prefix lookups (autocomplete) without touching the database.
+ * <p>
+ * Every product is indexed under the start of each word of its name, so {@code "lap"} matches both
+ * {@code "Laptop Stand"} and {@code "Gaming Laptop"}. Matching is case-insensitive.
+ * </p>
+ * <p>
+ * The bulk of the index is an immutable {@link Base} made of sorted primitive arrays: each key is a
+ * {@code long} packing the position of the product and the offset of the word inside its name, so no
+ * string is allocated per key. Changes published through {@link ProductChangedEvent} after commit go to a
+ * small concurrent delta that shadows the base; once the delta grows past a fraction of the base, both are
+ * merged into a new base in the background. The products of a {@link ProductsImportedEvent} go to the delta too,
+ * so a large import is merged by the next compaction rather than by re-reading the whole table. Lookups are
+ * lock-free and read a single volatile snapshot.
+ * </p>
+ * <p>
+ * The index is built from {@link ProductRepository} when the application is ready.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductNameIndex {
+
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    private static final int MAX_WORD_OFFSET = 0xFF;
+
+    private final ProductRepository productRepository;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private volatile State state = new State(Base.EMPTY);
+
+    /**
+     * Loads every product name from the database into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        load(productRepository.findAllProjectedBy(ProductSummary.class));
+        log.info("Product name index built in {} ms: {}", (System.nanoTime() - start) / 1_000_000, stats());
+    }
+
+    /**
+     * Replaces the indexed products with the given ones.
+     * <p>
+     * Changes applied while the products were being read are kept, since they are at least as recent.
+     * </p>
+     *
+     * @param products the products to be indexed.
+     */
+    public void load(Collection<? extends ProductSummary> products) {
+        long[] ids = new long[products.size()];
+        String[] names = new String[products.size()];
+        int i = 0;
+        for (ProductSummary product : products) {
+            ids[i] = product.getId();
+            names[i] = product.getName();
+            i++;
+        }
+        Base base = Base.of(ids, names);
+        synchronized (this) {
+            state = state.withBase(base);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Applies a committed product change to the index.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (this) {
+            State current = state;
+            current.remove(event.productId());
+            if (event.type() != ChangeType.DELETED) {
+                current.put(event.productId(), event.name());
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Applies the products of a committed bulk import to the index.
+     *
+     * @param event the import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        synchronized (this) {
+            State current = state;
+            event.names().forEach((id, name) -> {
+                current.remove(id);
+                current.put(id, name);
+            });
+        }
+        log.debug("Indexed {} imported products", event.count());
+        compactIfNeeded();
+    }
+
+    /**
+     * Finds products having a word of their name starting with the given prefix.
+     *
+     * @param prefix the prefix to look up, case-insensitive.
+     * @param limit  the maximum number of products to be returned.
+     * @return the matching products, ordered by the matched word.
+     */
+    public List<ProductSummary> findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix.strip());
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = state;
+        List<Match> matches = new ArrayList<>();
+        current.base.collect(key, limit, current.overridden, matches);
+        current.collect(key, limit, matches);
+        matches.sort(Comparator.comparing(Match::sortKey).thenComparingLong(Match::id));
+
+        Set<Long> seen = new HashSet<>();
+        List<ProductSummary> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (Match match : matches) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (seen.add(match.id())) {
+                result.add(new IndexedProduct(match.id(), match.name()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the current size and estimated memory footprint of the index.
+     */
+    public Stats stats() {
+        State current = state;
+        return new Stats(current.base.size(), current.base.keyCount(), current.deltaNames.size(),
+                current.base.estimatedBytes() + current.estimatedDeltaBytes());
+    }
+
+    private void compactIfNeeded() {
+        State current = state;
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, current.base.size() / 8);
+        if (current.overridden.size() > threshold && compacting.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::compact).whenComplete((ignored, ex) -> {
+                compacting.set(false);
+                if (ex != null) {
+                    log.error("Product name index compaction failed", ex);
+                }
+            });
+        }
+    }
+
+    private synchronized void compact() {
+        long start = System.nanoTime();
+        State current = state;
+        Base base = current.base;
+        int size = base.size() + current.deltaNames.size();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        int n = 0;
+        for (int i = 0; i < base.size(); i++) {
+            if (!current.overridden.contains(base.ids[i])) {
+                ids[n] = base.ids[i];
+                names[n++] = base.names[i];
+            }
+        }
+        for (Map.Entry<Long, String> entry : current.deltaNames.entrySet()) {
+            ids[n] = entry.getKey();
+            names[n++] = entry.getValue();
+        }
+        state = new State(Base.of(Arrays.copyOf(ids, n), Arrays.copyOf(names, n)));
+        log.info("Product name index compacted in {} ms: {}", (System.nanoTime() - start) / 1_000_000, stats());
+    }
+
+    /**
+     * Lower-cases every character individually, which is the folding used by all key comparisons.
+     */
+    static String normalize(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            builder.append(Character.toLowerCase(value.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Offsets of the first character of every word in the given name.
+     */
+    static int[] wordOffsets(String name) {
+        int[] offsets = new int[Math.min(name.length(), MAX_WORD_OFFSET + 1)];
+        int count = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            if (Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)))) {
+                offsets[count++] = i;
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Memory footprint of the index and the number of indexed products and keys.
+     *
+     * @param products       products in the base arrays.
+     * @param keys           word keys in the base arrays.
+     * @param pendingChanges products changed since the last compaction.
+     * @param estimatedBytes estimated heap retained by the index.
+     */
+    public record Stats(int products, int keys, int pendingChanges, long estimatedBytes) {
+    }
+
+    private record Match(long id, String name, String sortKey) {
+    }
+
+    private record IndexedProduct(Long id, String name) implements ProductSummary {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Immutable, sorted part of the index.
+     * <p>
+     * {@code ids} and {@code names} hold one entry per product. {@code keys} holds one entry per word, packing
+     * the position of the product in the upper bits and the offset of the word in the lower 8 bits, sorted by
+     * the case-folded name suffix starting at that word.
+     * </p>
+     */
+    private static final class Base {
+
+        static final Base EMPTY = new Base(new long[0], new String[0], new long[0]);
+
+        final long[] ids;
+        final String[] names;
+        final long[] keys;
+
+        private Base(long[] ids, String[] names, long[] keys) {
+            this.ids = ids;
+            this.names = names;
+            this.keys = keys;
+        }
+
+        static Base of(long[] ids, String[] names) {
+            int keyCount = 0;
+            int[][] offsets = new int[names.length][];
+            for (int i = 0; i < names.length; i++) {
+                offsets[i] = wordOffsets(names[i]);
+                keyCount += offsets[i].length;
+            }
+            Long[] boxed = new Long[keyCount];
+            int k = 0;
+            for (int i = 0; i < names.length; i++) {
+                for (int offset : offsets[i]) {
+                    boxed[k++] = ((long) i << 8) | offset;
+                }
+            }
+            // Names are folded once up front, so sorting compares plain characters.
+            String[] folded = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                folded[i] = normalize(names[i]);
+            }
+            Arrays.sort(boxed, (left, right) -> compareKeys(ids, folded, left, right));
+            long[] keys = new long[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = boxed[i];
+            }
+            return new Base(ids, names, keys);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int keyCount() {
+            return keys.length;
+        }
+
+        long estimatedBytes() {
+            long bytes = 16L + 8L * ids.length + 16L + 4L * names.length + 16L + 8L * keys.length;
+            for (String name : names) {
+                bytes += 24 + 16 + name.length();
+            }
+            return bytes;
+        }
+
+        void collect(String prefix, int limit, Set<Long> overridden, List<Match> matches) {
+            Set<Long> seen = new HashSet<>();
+            for (int k = lowerBound(prefix); k < keys.length && seen.size() < limit; k++) {
+                int product = (int) (keys[k] >>> 8);
+                int offset = (int) (keys[k] & MAX_WORD_OFFSET);
+                if (!startsWith(product, offset, prefix)) {
+                    break;
+                }
+                long id = ids[product];
+                if (!overridden.contains(id) && seen.add(id)) {
+                    matches.add(new Match(id, names[product], normalize(names[product].substring(offset))));
+                }
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long key = keys[mid];
+                if (compare((int) (key >>> 8), (int) (key & MAX_WORD_OFFSET), prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean startsWith(int product, int offset, String prefix) {
+            String name = names[product];
+            if (name.length() - offset < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (Character.toLowerCase(name.charAt(offset + i)) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int compare(int product, int offset, String value) {
+            String name = names[product];
+            int length = name.length() - offset;
+            int common = Math.min(length, value.length());
+            for (int i = 0; i < common; i++) {
+                int diff = Character.toLowerCase(name.charAt(offset + i)) - value.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length - value.length();
+        }
+
+        private static int compareKeys(long[] ids, String[] folded, Long left, Long right) {
+            int leftProduct = (int) (left >>> 8);
+            int rightProduct = (int) (right >>> 8);
+            String leftName = folded[leftProduct];
+            String rightName = folded[rightProduct];
+            int leftOffset = (int) (left & MAX_WORD_OFFSET);
+            int rightOffset = (int) (right & MAX_WORD_OFFSET);
+            int leftLength = leftName.length() - leftOffset;
+            int rightLength = rightName.length() - rightOffset;
+            int common = Math.min(leftLength, rightLength);
+            for (int i = 0; i < common; i++) {
+                int diff = leftName.charAt(leftOffset + i) - rightName.charAt(rightOffset + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            if (leftLength != rightLength) {
+                return leftLength - rightLength;
+            }
+            return Long.compare(ids[leftProduct], ids[rightProduct]);
+        }
+    }
+
+    /**
+     * Snapshot read by lookups: the immutable base plus the changes applied since it was built.
+     * <p>
+     * {@code overridden} holds the IDs whose base entry must be ignored, {@code deltaNames} their current names
+     * (absent when deleted) and {@code delta} their word keys, as {@code "<folded suffix>\0<id>"}.
+     * </p>
+     */
+    private static final class State {
+
+        final Base base;
+        final Set<Long> overridden;
+        final Map<Long, String> deltaNames;
+        final NavigableMap<String, Long> delta;
+
+        State(Base base) {
+            this(base, ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+        }
+
+        private State(Base base, Set<Long> overridden, Map<Long, String> deltaNames, NavigableMap<String, Long> delta) {
+            this.base = base;
+            this.overridden = overridden;
+            this.deltaNames = deltaNames;
+            this.delta = delta;
+        }
+
+        State withBase(Base newBase) {
+            return new State(newBase, overridden, deltaNames, delta);
+        }
+
+        void put(long id, String name) {
+            deltaNames.put(id, name);
+            for (int offset : wordOffsets(name)) {
+                delta.put(normalize(name.substring(offset)) + '\0' + id, id);
+            }
+        }
+
+        void remove(long id) {
+            overridden.add(id);
+            String previous = deltaNames.remove(id);
+            if (previous != null) {
+                for (int offset : wordOffsets(previous)) {
+                    delta.remove(normalize(previous.substring(offset)) + '\0' + id);
+                }
+            }
+        }
+
+        void collect(String prefix, int limit, List<Match> matches) {
+            Set<Long> seen = new HashSet<>();
+            for (Map.Entry<String, Long> entry : delta.tailMap(prefix).entrySet()) {
+                String key = entry.getKey();
+                if (!key.startsWith(prefix) || seen.size() >= limit) {
+                    break;
+                }
+                String name = deltaNames.get(entry.getValue());
+                if (name != null && seen.add(entry.getValue())) {
+                    matches.add(new Match(entry.getValue(), name, key.substring(0, key.lastIndexOf('\0'))));
+                }
+            }
+        }
+
+        long estimatedDeltaBytes() {
+            long bytes = 0;
+            for (String name : deltaNames.values()) {
+                bytes += 96 + 2L * name.length() * (1 + wordOffsets(name).length);
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.jointecnologia.crud.service.ingest;
+
+import br.com.jointecnologia.crud.model.Price;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Writer of rows in the text format of {@code COPY ... FROM STDIN}: values separated by tabs, rows ended by
+ * {@code \n}, and backslashes, tabs and line breaks inside text values escaped.
+ * <p>
+ * The rows are buffered and sent to the server about a megabyte at a time. {@link #finish()} ends the copy;
+ * closing the writer before that cancels it, so that a failure while producing the rows leaves nothing behind.
+ * An instance is not thread-safe.
+ * </p>
+ */
+public class CopyWriter implements AutoCloseable {
+
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private final CopyIn copy;
+    private final StringBuilder rows = new StringBuilder();
+    private boolean rowStarted;
+
+    /**
+     * @param copy the copy to write to, as started by {@code CopyManager.copyIn}.
+     */
+    public CopyWriter(CopyIn copy) {
+        this.copy = copy;
+    }
+
+    /**
+     * Writes a number as the next value of the current row.
+     *
+     * @return this writer.
+     */
+    public CopyWriter value(long value) {
+        separate().append(value);
+        return this;
+    }
+
+    /**
+     * Writes a price as the next value of the current row.
+     *
+     * @return this writer.
+     */
+    public CopyWriter value(Price value) {
+        separate().append(value);
+        return this;
+    }
+
+    /**
+     * Writes a text, escaped, as the next value of the current row.
+     *
+     * @return this writer.
+     */
+    public CopyWriter value(String value) {
+        StringBuilder rows = separate();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current row, sending the buffered rows once they reach about a megabyte.
+     *
+     * @throws SQLException if the rows cannot be sent.
+     */
+    public void endRow() throws SQLException {
+        rows.append('\n');
+        rowStarted = false;
+        if (rows.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends the buffered rows and ends the copy.
+     *
+     * @return the number of rows copied.
+     * @throws SQLException if the rows cannot be sent or are rejected by the server.
+     */
+    public long finish() throws SQLException {
+        flush();
+        return copy.endCopy();
+    }
+
+    /**
+     * Cancels the copy unless it was finished.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (copy.isActive()) {
+            copy.cancelCopy();
+        }
+    }
+
+    private StringBuilder separate() {
+        if (rowStarted) {
+            rows.append('\t');
+        }
+        rowStarted = true;
+        return rows;
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+}
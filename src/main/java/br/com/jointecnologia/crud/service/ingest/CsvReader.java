@@ -0,0 +1,110 @@
+package br.com.jointecnologia.crud.service.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of CSV records (RFC 4180): fields separated by commas, optionally enclosed in double quotes,
+ * with {@code ""} standing for a quote inside a quoted field. Records end with {@code \n} or {@code \r\n}, and
+ * quoted fields may span several lines. A byte order mark at the start of the input is skipped.
+ * <p>
+ * Only the current record is held in memory, so inputs of any size can be read. An instance is not thread-safe.
+ * </p>
+ */
+public class CsvReader {
+
+    private static final int END = -1;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or {@code null} at the end of the input.
+     * @throws IOException              if the input cannot be read.
+     * @throws IllegalArgumentException if a quoted field is not closed before the end of the input.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == BYTE_ORDER_MARK && line == 1 && recordLine == 0) {
+            c = read();
+        }
+        if (c == END) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == END) {
+                    throw new IllegalArgumentException("Unclosed quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == END) {
+                if (c == '\n') {
+                    line++;
+                }
+                int last = field.length() - 1;
+                if (!wasQuoted && last >= 0 && field.charAt(last) == '\r') {
+                    field.setLength(last);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r' || !wasQuoted) {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return the line on which the record last returned by {@link #next()} starts, from 1.
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END;
+            }
+        }
+        return buffer[position++];
+    }
+}
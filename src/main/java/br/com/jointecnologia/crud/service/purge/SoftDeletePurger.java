@@ -0,0 +1,121 @@
+package br.com.jointecnologia.crud.service.purge;
+
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.function.BiFunction;
+
+/**
+ * Periodically removes the products and categories soft-deleted more than {@code app.soft-delete.retention} ago.
+ * <p>
+ * Rows are removed in batches of {@code app.soft-delete.batch-size}, each in its own short transaction, with a
+ * pause between two batches. Products are purged before categories, since a category is only removed once no
+ * product references it anymore. A purge stops early, to resume at the next run, as soon as the application is
+ * busy: when more than {@code app.soft-delete.max-active-requests} HTTP requests are in progress, or when a thread
+ * is waiting for a database connection. A purge can hold a scheduler thread for up to {@code max-batches} pauses,
+ * so {@code spring.task.scheduling.pool.size} leaves threads for the other scheduled tasks.
+ * </p>
+ * <p>
+ * The purge runs whether or not {@code app.soft-delete.enabled} is {@code true}, so that the rows deleted before
+ * the mode was switched off are still removed.
+ * </p>
+ *
+ * @see SoftDeleteProperties
+ */
+@Slf4j
+@Component
+public class SoftDeletePurger {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SoftDeleteProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter purgedProducts;
+    private final Counter purgedCategories;
+
+    public SoftDeletePurger(ProductRepository productRepository, CategoryRepository categoryRepository,
+                            SoftDeleteProperties properties, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.purgedProducts = purgedCounter(meterRegistry, "product");
+        this.purgedCategories = purgedCounter(meterRegistry, "category");
+    }
+
+    @Scheduled(fixedDelayString = "${app.soft-delete.purge-interval:PT5M}")
+    public void purge() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        int products = purge("products", before, productRepository::purgeDeletedBefore, purgedProducts);
+        int categories = purge("categories", before, categoryRepository::purgeDeletedBefore, purgedCategories);
+        log.info("Purged {} products and {} categories deleted before {}", products, categories, before);
+    }
+
+    /**
+     * Removes batches of rows deleted before the given instant until none is left, the maximum number of batches
+     * is reached or the application gets busy.
+     *
+     * @return the number of rows removed.
+     */
+    private int purge(String table, Instant before, BiFunction<Instant, Integer, Integer> batch, Counter counter) {
+        int batchSize = properties.getBatchSize();
+        int purged = 0;
+        for (int i = 0; i < properties.getMaxBatches(); i++) {
+            if (!isQuiet()) {
+                log.info("Purge of deleted {} postponed, the application is busy", table);
+                break;
+            }
+            int removed = batch.apply(before, batchSize);
+            counter.increment(removed);
+            purged += removed;
+            if (removed < batchSize || !pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Checks that few HTTP requests are in progress and that no thread is waiting for a database connection.
+     */
+    boolean isQuiet() {
+        int activeRequests = meterRegistry.find("http.server.requests.active").longTaskTimers().stream()
+                .mapToInt(LongTaskTimer::activeTasks)
+                .sum();
+        double pendingConnections = meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+        return activeRequests <= properties.getMaxActiveRequests() && pendingConnections == 0;
+    }
+
+    /**
+     * Waits between two batches.
+     *
+     * @return {@code false} if the thread was interrupted, in which case the purge must stop.
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter purgedCounter(MeterRegistry meterRegistry, String entity) {
+        return Counter.builder("catalog.tombstones.purged")
+                .description("Soft-deleted rows removed by the purge")
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.jointecnologia.crud.service.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of category names, product names, prices and category sizes for a synthetic catalog.
+ * <p>
+ * Every value is drawn from a {@link SplittableRandom} created from the given seed, so the same seed and parameters
+ * always produce the same sequence. Category sizes follow a Zipf distribution: categories are ranked in a random
+ * order, and the category of rank {@code k} (from 1) is drawn with a probability proportional to
+ * {@code 1 / k^exponent}. Prices follow a log-normal distribution around a median of {@value #MEDIAN_PRICE}, most of
+ * them ending in {@code .99} or {@code .90}. Generated names never contain characters that need escaping in the
+ * text format of {@code COPY}.
+ * </p>
+ * <p>
+ * An instance is not thread-safe.
+ * </p>
+ */
+public class CatalogDataGenerator {
+
+    static final double MEDIAN_PRICE = 40;
+    static final long MIN_PRICE_CENTS = 99;
+    static final long MAX_PRICE_CENTS = 9_999_999;
+    private static final double PRICE_SIGMA = 1.1;
+
+    private static final String[] DEPARTMENTS = {"Electronics", "Computers", "Home", "Kitchen", "Garden", "Sports",
+            "Outdoors", "Toys", "Books", "Music", "Office", "Automotive", "Tools", "Beauty", "Health", "Baby", "Pets",
+            "Fashion", "Shoes", "Jewelry", "Grocery", "Furniture", "Lighting", "Travel"};
+    private static final String[] SECTIONS = {"Accessories", "Essentials", "Deals", "Premium", "Basics",
+            "Storage", "Care", "Sets", "Parts", "Gifts", "Supplies", "Equipment", "Decor", "Kids", "Pro", "Outlet",
+            "Classics", "Refurbished", "Bundles", "Seasonal"};
+    private static final String[] BRANDS = {"Acme", "Nordic", "Zenith", "Orion", "Vertex", "Lumen", "Apex",
+            "Solaris", "Kappa", "Helix", "Nimbus", "Atlas", "Pioneer", "Quanta", "Boreal", "Cobalt"};
+    private static final String[] ADJECTIVES = {"Wireless", "Portable", "Ergonomic", "Compact", "Smart",
+            "Premium", "Classic", "Ultra", "Eco", "Heavy-Duty", "Foldable", "Waterproof", "Rechargeable", "Vintage",
+            "Digital", "Stainless", "Organic", "Adjustable", "Slim", "Deluxe"};
+    private static final String[] NOUNS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headset", "Speaker", "Camera",
+            "Charger", "Stand", "Lamp", "Cable", "Router", "Tablet", "Phone", "Watch", "Backpack", "Blender", "Kettle",
+            "Drill", "Chair", "Desk", "Bottle", "Tent", "Jacket", "Sneakers", "Vacuum", "Toaster", "Mug", "Pillow",
+            "Helmet"};
+    private static final String[] VARIANTS = {"", " Mini", " Plus", " Max", " Lite", " Pro", " XL", " 2-Pack"};
+
+    private final SplittableRandom random;
+    private final double[] cumulativeWeights;
+    private final int[] categoryByRank;
+
+    /**
+     * @param seed       the seed of the random generator.
+     * @param categories the number of categories the products are spread over.
+     * @param exponent   the exponent of the Zipf distribution of the category sizes, 0 spreading them evenly.
+     */
+    public CatalogDataGenerator(long seed, int categories, double exponent) {
+        if (categories < 1) {
+            throw new IllegalArgumentException("At least one category is required");
+        }
+        this.random = new SplittableRandom(seed);
+        this.cumulativeWeights = new double[categories];
+        double total = 0;
+        for (int rank = 1; rank <= categories; rank++) {
+            total += Math.pow(rank, -exponent);
+            cumulativeWeights[rank - 1] = total;
+        }
+        this.categoryByRank = new int[categories];
+        for (int i = 0; i < categories; i++) {
+            categoryByRank[i] = i;
+        }
+        for (int i = categories - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = categoryByRank[i];
+            categoryByRank[i] = categoryByRank[j];
+            categoryByRank[j] = swap;
+        }
+    }
+
+    /**
+     * Returns the unique name of the category of the given index, such as {@code "Kitchen Essentials"}, numbered
+     * once every combination is taken.
+     *
+     * @param index the index of the category, from 0.
+     * @return the name of the category.
+     */
+    public static String categoryName(int index) {
+        int combinations = DEPARTMENTS.length * SECTIONS.length;
+        int combination = index % combinations;
+        String name = DEPARTMENTS[combination / SECTIONS.length] + " " + SECTIONS[combination % SECTIONS.length];
+        return index < combinations ? name : name + " " + (index / combinations + 1);
+    }
+
+    /**
+     * Draws the category of the next product.
+     *
+     * @return the index of the category, from 0.
+     */
+    public int nextCategory() {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int rank = Arrays.binarySearch(cumulativeWeights, target);
+        return categoryByRank[rank >= 0 ? rank : Math.min(-rank - 1, cumulativeWeights.length - 1)];
+    }
+
+    /**
+     * Draws the name of the next product, such as {@code "Orion Wireless Headset Pro K-412"}.
+     *
+     * @return a product name of at most 60 characters.
+     */
+    public String nextProductName() {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + VARIANTS[random.nextInt(VARIANTS.length)] + " "
+                + (char) ('A' + random.nextInt(26)) + "-" + (100 + random.nextInt(900));
+    }
+
+    /**
+     * Draws the price of the next product.
+     *
+     * @return the price in cents, between {@value #MIN_PRICE_CENTS} and {@value #MAX_PRICE_CENTS}.
+     */
+    public long nextPriceCents() {
+        double price = MEDIAN_PRICE * Math.exp(PRICE_SIGMA * random.nextGaussian());
+        long cents;
+        if (price < 10) {
+            cents = Math.round(price * 100);
+        } else {
+            cents = (long) price * 100 + (random.nextInt(4) == 0 ? 90 : 99);
+        }
+        return Math.max(MIN_PRICE_CENTS, Math.min(MAX_PRICE_CENTS, cents));
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.jointecnologia.crud.service.seed;
+
+import br.com.jointecnologia.crud.config.CatalogSeedProperties;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.service.ingest.CopyWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Generates a synthetic catalog for performance tests and exits, when the {@code seed} profile is active.
+ * <p>
+ * {@code app.seed.categories} categories and {@code app.seed.products} products are drawn by a
+ * {@link CatalogDataGenerator} and loaded with {@code COPY}, in chunks of {@code app.seed.chunk-size} products
+ * committed one after the other. The secondary indexes of the product table are dropped during the load and
+ * recreated afterwards by running {@code schema.sql} again, which is much faster than maintaining them row by row.
+ * </p>
+ * <p>
+ * The rows bypass the application: they are not recorded in the catalog change feed, and the in-memory indexes of
+ * running instances do not see them until they restart. With {@code app.seed.truncate=true}, the catalog and its
+ * change feed are emptied first and the IDs restarted, so that the same properties always generate the same rows.
+ * Otherwise the new rows are appended after the existing ones, the categories being named after their ID so that
+ * their names do not collide with those of the categories seeded before.
+ * </p>
+ *
+ * @see CatalogSeedProperties
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class CatalogSeeder implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogSeedProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        seed();
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Generates and loads the catalog.
+     */
+    void seed() throws SQLException {
+        log.info("Seeding {} categories and {} products (Zipf exponent {}, seed {})", properties.getCategories(),
+                properties.getProducts(), properties.getZipfExponent(), properties.getRandomSeed());
+        long start = System.nanoTime();
+        if (properties.isTruncate()) {
+            jdbcTemplate.execute("TRUNCATE product, category, catalog_change, catalog_change_purge RESTART IDENTITY");
+        }
+        long firstCategoryId = nextId("category");
+        long firstProductId = nextId("product");
+        CatalogDataGenerator generator = new CatalogDataGenerator(
+                properties.getRandomSeed(), properties.getCategories(), properties.getZipfExponent());
+
+        List<String> indexes = jdbcTemplate.queryForList("""
+                SELECT i.indexrelid::regclass::text FROM pg_index i
+                WHERE i.indrelid = 'product'::regclass
+                  AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)
+                """, String.class);
+        indexes.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+        log.info("Dropped product indexes {} for the load", indexes);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyCategories(copyManager, firstCategoryId);
+            copyProducts(copyManager, generator, firstCategoryId, firstProductId);
+        } finally {
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('category', 'id'), max(id)) FROM category");
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('product', 'id'), max(id)) FROM product");
+            long indexStart = System.nanoTime();
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            log.info("Indexes recreated in {} s", (System.nanoTime() - indexStart) / 1_000_000_000);
+        }
+        jdbcTemplate.execute("ANALYZE category");
+        jdbcTemplate.execute("ANALYZE product");
+        log.info("Catalog seeded in {} s", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT max(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void copyCategories(CopyManager copyManager, long firstId) throws SQLException {
+        try (CopyWriter copy = new CopyWriter(copyManager.copyIn("COPY category (id, name) FROM STDIN"))) {
+            for (int i = 0; i < properties.getCategories(); i++) {
+                // Named after their ID, so that categories seeded without truncating do not reuse the names of
+                // the categories seeded before them
+                long id = firstId + i;
+                copy.value(id).value(CatalogDataGenerator.categoryName(Math.toIntExact(id - 1))).endRow();
+            }
+            log.info("Loaded {} categories", copy.finish());
+        }
+    }
+
+    private void copyProducts(CopyManager copyManager, CatalogDataGenerator generator, long firstCategoryId,
+                              long firstId) throws SQLException {
+        long total = properties.getProducts();
+        long loaded = 0;
+        long start = System.nanoTime();
+        while (loaded < total) {
+            long chunk = Math.min(properties.getChunkSize(), total - loaded);
+            try (CopyWriter copy = new CopyWriter(
+                    copyManager.copyIn("COPY product (id, name, price, category_id) FROM STDIN"))) {
+                for (long i = 0; i < chunk; i++) {
+                    copy.value(firstId + loaded + i)
+                            .value(generator.nextProductName())
+                            .value(Price.ofMinorUnits(generator.nextPriceCents()))
+                            .value(firstCategoryId + generator.nextCategory())
+                            .endRow();
+                }
+                loaded += copy.finish();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Loaded {} of {} products ({} rows/s)", loaded, total, Math.round(loaded / seconds));
+        }
+    }
+}
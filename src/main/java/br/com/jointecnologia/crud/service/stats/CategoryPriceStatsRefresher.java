@@ -0,0 +1,38 @@
+package br.com.jointecnologia.crud.service.stats;
+
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically refreshes the {@code category_price_stats} materialized view.
+ * <p>
+ * Only active when {@code app.category-stats.materialized-view=true}. The first refresh runs at startup, since
+ * the view may still hold the data of a previous run.
+ * </p>
+ *
+ * @see br.com.jointecnologia.crud.config.CategoryStatsProperties
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.category-stats", name = "materialized-view", havingValue = "true")
+public class CategoryPriceStatsRefresher {
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Recomputes the materialized view without blocking the queries reading it.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.category-stats.refresh-interval:PT5M}")
+    public void refresh() {
+        long start = System.nanoTime();
+        productRepository.refreshCategoryPriceStats();
+        log.info("Category price statistics refreshed in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
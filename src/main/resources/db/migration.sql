@@ -0,0 +1,44 @@
+-- Changes to existing tables that Hibernate's ddl-auto=update cannot perform on its own, such as converting
+-- values with a custom expression or altering a column that a view depends on.
+-- This script runs on every startup before Hibernate (see SchemaMigrationConfig), so every statement must be
+-- idempotent and must cope with the tables not existing yet.
+
+-- Prices used to be stored as double precision: converts them once to exact NUMERIC(18, 2), rounded to cents.
+-- The materialized view reading the column is dropped first and recreated by schema.sql.
+-- The block is quoted with '...' instead of $$...$$ because the script is split on semicolons outside quotes.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''product''
+                 AND column_name = ''price'' AND data_type = ''double precision'') THEN
+        DROP MATERIALIZED VIEW IF EXISTS category_price_stats;
+        ALTER TABLE product ALTER COLUMN price TYPE numeric(18, 2) USING round(price::numeric, 2);
+    END IF;
+END';
+
+-- Category names used to repeat: merges every duplicate into the oldest category with the same name, moving its
+-- products, so that schema.sql can then create the uk_category_name unique index.
+DO '
+BEGIN
+    IF to_regclass(''category'') IS NOT NULL AND to_regclass(''uk_category_name'') IS NULL THEN
+        CREATE TEMPORARY TABLE category_duplicate ON COMMIT DROP AS
+        SELECT id, keep_id
+        FROM (SELECT id, min(id) OVER (PARTITION BY name) AS keep_id FROM category) c
+        WHERE id <> keep_id;
+        UPDATE product p SET category_id = d.keep_id FROM category_duplicate d WHERE p.category_id = d.id;
+        DELETE FROM category c USING category_duplicate d WHERE c.id = d.id;
+    END IF;
+END';
+
+-- Category names used to be unique across every row: the constraint is replaced by a partial unique index on the
+-- categories that are not soft-deleted (see schema.sql).
+ALTER TABLE IF EXISTS category DROP CONSTRAINT IF EXISTS uk_category_name;
+
+-- The materialized view used to count soft-deleted rows: it is dropped once and recreated by schema.sql.
+DO '
+BEGIN
+    IF to_regclass(''category_price_stats'') IS NOT NULL
+            AND pg_get_viewdef(to_regclass(''category_price_stats'')) NOT LIKE ''%deleted_at%'' THEN
+        DROP MATERIALIZED VIEW category_price_stats;
+    END IF;
+END';
@@ -0,0 +1,37 @@
+-- Converts the product table into a table partitioned by hash of category_id, used when
+-- app.product-partitioning.enabled=true. The number of partitions is read from the crud.product_partitions setting,
+-- set by SchemaMigrationConfig from app.product-partitioning.partitions.
+-- This script runs on every startup after db/migration.sql and before Hibernate, so it does nothing once the table
+-- is partitioned, nor before Hibernate has created it. The conversion copies every row in a single transaction and
+-- holds an exclusive lock on the table meanwhile: enable it during a maintenance window.
+-- The primary key of a partitioned table must include the partition key, hence (id, category_id). The indexes of
+-- schema.sql are created on the partitioned table and cascade to every partition, and the materialized view reading
+-- the table is dropped here and recreated by schema.sql.
+DO '
+DECLARE
+    partitions integer := current_setting(''crud.product_partitions'')::integer;
+    fk record;
+BEGIN
+    IF to_regclass(''product'') IS NULL
+            OR (SELECT relkind FROM pg_class WHERE oid = ''product''::regclass) = ''p'' THEN
+        RETURN;
+    END IF;
+    RAISE NOTICE ''Partitioning the product table into % partitions'', partitions;
+    DROP MATERIALIZED VIEW IF EXISTS category_price_stats;
+    ALTER TABLE product RENAME TO product_unpartitioned;
+    CREATE TABLE product (LIKE product_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING STORAGE,
+                          PRIMARY KEY (id, category_id))
+        PARTITION BY HASH (category_id);
+    FOR remainder IN 0 .. partitions - 1 LOOP
+        EXECUTE format(''CREATE TABLE product_p%s PARTITION OF product FOR VALUES WITH (MODULUS %s, REMAINDER %s)'',
+                       remainder, partitions, remainder);
+    END LOOP;
+    INSERT INTO product OVERRIDING SYSTEM VALUE SELECT * FROM product_unpartitioned;
+    PERFORM setval(pg_get_serial_sequence(''product'', ''id''), coalesce(max(id), 0) + 1, false) FROM product;
+    FOR fk IN SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint
+              WHERE conrelid = ''product_unpartitioned''::regclass AND contype = ''f'' LOOP
+        EXECUTE format(''ALTER TABLE product_unpartitioned DROP CONSTRAINT %I'', fk.conname);
+        EXECUTE format(''ALTER TABLE product ADD CONSTRAINT %I %s'', fk.conname, fk.definition);
+    END LOOP;
+    DROP TABLE product_unpartitioned;
+END';
@@ -0,0 +1,133 @@
+-- Database objects that are not managed by Hibernate (ddl-auto only creates tables, columns and constraints).
+-- This script runs on every startup after Hibernate, so every statement must be idempotent.
+
+-- Trigram index backing GET /products/search (substring and prefix ILIKE matching on the product name).
+-- Like the other product indexes below, it only covers the rows that are not soft-deleted (deleted_at IS NULL).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP INDEX IF EXISTS idx_product_name_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_live_name_trgm ON product USING gin (name gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+
+-- Serves the per-category aggregates of GET /categories/{id}/stats with an index-only scan.
+DROP INDEX IF EXISTS idx_product_category_price;
+CREATE INDEX IF NOT EXISTS idx_product_live_category_price ON product (category_id, price)
+    WHERE deleted_at IS NULL;
+
+-- Category names are unique among the categories that are not soft-deleted, so a deleted name can be reused.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_category_name ON category (name) WHERE deleted_at IS NULL;
+
+-- Category tree: path lists the IDs from the root down to the category, as in /1/5/12/, and is maintained here for
+-- every write, including the native upserts and COPY. Moving a category under one of its own descendants is rejected,
+-- and the paths of the descendants of a moved category are rewritten. The functions are quoted with '...' instead of
+-- $$...$$ because the script is split on semicolons outside quotes.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''fk_category_parent'') THEN
+        ALTER TABLE category ADD CONSTRAINT fk_category_parent FOREIGN KEY (parent_id) REFERENCES category (id);
+    END IF;
+END';
+CREATE OR REPLACE FUNCTION category_set_path() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    parent_path text;
+BEGIN
+    IF NEW.parent_id IS NULL THEN
+        NEW.path := ''/'' || NEW.id || ''/'';
+        RETURN NEW;
+    END IF;
+    SELECT path INTO parent_path FROM category WHERE id = NEW.parent_id;
+    IF parent_path LIKE ''%/'' || NEW.id || ''/%'' THEN
+        RAISE EXCEPTION ''Category % cannot be moved under its own subcategory %'', NEW.id, NEW.parent_id
+            USING ERRCODE = ''check_violation'';
+    END IF;
+    NEW.path := parent_path || NEW.id || ''/'';
+    RETURN NEW;
+END';
+CREATE OR REPLACE FUNCTION category_move_subtree() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    UPDATE category SET path = NEW.path || substr(path, length(OLD.path) + 1)
+    WHERE path LIKE OLD.path || ''_%'';
+    RETURN NULL;
+END';
+DROP TRIGGER IF EXISTS trg_category_insert_path ON category;
+CREATE TRIGGER trg_category_insert_path BEFORE INSERT ON category
+    FOR EACH ROW EXECUTE FUNCTION category_set_path();
+DROP TRIGGER IF EXISTS trg_category_update_path ON category;
+CREATE TRIGGER trg_category_update_path BEFORE UPDATE OF parent_id ON category
+    FOR EACH ROW WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id) EXECUTE FUNCTION category_set_path();
+DROP TRIGGER IF EXISTS trg_category_move_subtree ON category;
+CREATE TRIGGER trg_category_move_subtree AFTER UPDATE OF parent_id ON category
+    FOR EACH ROW WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id) EXECUTE FUNCTION category_move_subtree();
+UPDATE category SET path = '/' || id || '/' WHERE path IS NULL AND parent_id IS NULL;
+ALTER TABLE category ALTER COLUMN path SET NOT NULL;
+
+-- Serves the subtree queries (GET /categories/{id}/subtree and /products) with a prefix range scan, and the lookup of
+-- the children of a category.
+CREATE INDEX IF NOT EXISTS idx_category_live_path ON category (path text_pattern_ops) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_category_parent_id ON category (parent_id);
+
+-- Soft-deleted rows waiting for SoftDeletePurger, oldest first.
+CREATE INDEX IF NOT EXISTS idx_product_deleted_at ON product (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_category_deleted_at ON category (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Snapshot of GET /categories/stats, used when app.category-stats.materialized-view=true.
+-- It blocks column type changes on product: db/migration.sql must drop it before altering one.
+-- The unique index is required by REFRESH MATERIALIZED VIEW CONCURRENTLY.
+CREATE MATERIALIZED VIEW IF NOT EXISTS category_price_stats AS
+SELECT c.id AS category_id, c.name AS category_name, count(p.price) AS product_count,
+       min(p.price) AS min_price, max(p.price) AS max_price, avg(p.price) AS avg_price
+FROM category c
+LEFT JOIN product p ON p.category_id = c.id AND p.deleted_at IS NULL
+WHERE c.deleted_at IS NULL
+GROUP BY c.id, c.name;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_category_price_stats_category_id ON category_price_stats (category_id);
+
+-- Idempotency-Key store of the POST endpoints, used when app.idempotency.store=jdbc.
+-- A NULL status marks a request still in progress, holding the key until expires_at (its lease); expired rows
+-- are deleted by IdempotentRequestHandler.
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key varchar(300) PRIMARY KEY,
+    request_hash    char(64)    NOT NULL,
+    status          integer,
+    body            text,
+    expires_at      timestamptz NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_record_expires_at ON idempotency_record (expires_at);
+
+-- Purge watermark of catalog_change, written by CatalogChangePurger: every change up to last_purged_seq was
+-- deleted. GET /changes compares positions against it, since the sequence has gaps left by rolled back inserts.
+CREATE TABLE IF NOT EXISTS catalog_change_purge (
+    id              boolean PRIMARY KEY DEFAULT true CHECK (id),
+    last_purged_seq bigint  NOT NULL
+);
+
+-- Catalog changes of the transactions in progress, written by CatalogChangeRecorder along with one
+-- catalog_change_commit row per transaction. When the transaction commits, the deferred trigger moves its changes to
+-- catalog_change under a transaction-scoped advisory lock, so sequence numbers are taken in commit order while the lock
+-- is only held from the start of the commit to its end. Rows never outlive their transaction, so the tables are
+-- unlogged.
+CREATE UNLOGGED TABLE IF NOT EXISTS catalog_change_pending (
+    id          bigint      GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    txid        xid8        NOT NULL DEFAULT pg_current_xact_id(),
+    entity_type varchar(16) NOT NULL,
+    entity_id   bigint      NOT NULL,
+    operation   varchar(16) NOT NULL,
+    changed_at  timestamptz NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_catalog_change_pending_txid ON catalog_change_pending (txid, id);
+CREATE UNLOGGED TABLE IF NOT EXISTS catalog_change_commit (
+    txid xid8 PRIMARY KEY DEFAULT pg_current_xact_id()
+);
+CREATE OR REPLACE FUNCTION catalog_change_publish() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    PERFORM pg_advisory_xact_lock(27973175172951911);
+    INSERT INTO catalog_change (entity_type, entity_id, operation, changed_at)
+    SELECT entity_type, entity_id, operation, changed_at FROM catalog_change_pending
+    WHERE txid = NEW.txid
+    ORDER BY id;
+    DELETE FROM catalog_change_pending WHERE txid = NEW.txid;
+    DELETE FROM catalog_change_commit WHERE txid = NEW.txid;
+    RETURN NULL;
+END';
+DROP TRIGGER IF EXISTS trg_catalog_change_publish ON catalog_change_commit;
+CREATE CONSTRAINT TRIGGER trg_catalog_change_publish AFTER INSERT ON catalog_change_commit
+    DEFERRABLE INITIALLY DEFERRED FOR EACH ROW EXECUTE FUNCTION catalog_change_publish();
@@ -0,0 +1,94 @@
+package br.com.jointecnologia.crud.benchmark;
+
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapperImpl;
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.projection.ProductRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark of the allocations made to write a product listing, comparing the entity path of
+ * {@code GET /products} (entities mapped to {@code ProductDTO}s by {@link ControllerMapper}, written by the
+ * reflective bean serializer) with the {@link ProductRow} path of {@code GET /products/lean}.
+ * <p>
+ * Run the {@link #main(String[])} method from the IDE, or {@code org.openjdk.jmh.Main ProductListAllocationBenchmark
+ * -prof gc} with the test classpath after {@code mvn test-compile}. Each operation is one listed product, so
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per product. Reading the entities from the database
+ * additionally allocates their persistence context entries, which rows do not have and this benchmark leaves out.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListAllocationBenchmark {
+
+    private static final int PRODUCTS = 1000;
+
+    private final ObjectWriter writer = new ObjectMapper().writer();
+    private final ControllerMapper mapper = new ControllerMapperImpl();
+
+    private List<ProductModel> entities;
+    private List<ProductRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        CategoryModel category = CategoryModel.builder().id(1L).name("Electronics").build();
+        entities = new ArrayList<>(PRODUCTS);
+        rows = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            String name = "Product " + id;
+            Price price = Price.ofMinorUnits(random.nextLong(100, 500_000));
+            entities.add(ProductModel.builder().id(id).name(name).price(price).category(category).build());
+            rows.add(new ProductRow(id, name, price, category.getId(), category.getName()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void entitiesMappedToDtos() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), mapper.toProductDTOList(entities));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void rows() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductListAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
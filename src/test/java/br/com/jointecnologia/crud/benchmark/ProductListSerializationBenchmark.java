@@ -0,0 +1,115 @@
+package br.com.jointecnologia.crud.benchmark;
+
+import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.model.Price;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark of the JSON serialization of a product list, comparing the {@link Price} representation of
+ * {@link ProductDTO} with the previous {@code Double} one and with {@link BigDecimal}.
+ * <p>
+ * Run the {@link #main(String[])} method from the IDE, or {@code org.openjdk.jmh.Main ProductListSerializationBenchmark
+ * -prof gc} with the test classpath after {@code mvn test-compile}; {@code gc.alloc.rate.norm} is the number of bytes
+ * allocated per serialized list.
+ * </p>
+ * <p>
+ * Note that {@link BigDecimal} caches its string form, so reusing the same instances across iterations hides the
+ * allocation it incurs on freshly loaded values.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListSerializationBenchmark {
+
+    @Param({"1000"})
+    private int products;
+
+    private final ObjectWriter writer = new ObjectMapper().writer();
+
+    private List<ProductDTO> priceProducts;
+    private List<DoubleProductDTO> doubleProducts;
+    private List<BigDecimalProductDTO> bigDecimalProducts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        CategoryDTO category = CategoryDTO.builder().id(1L).name("Electronics").build();
+        priceProducts = new ArrayList<>(products);
+        doubleProducts = new ArrayList<>(products);
+        bigDecimalProducts = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String name = "Product " + id;
+            long cents = random.nextLong(100, 500_000);
+            priceProducts.add(new ProductDTO(id, name, Price.ofMinorUnits(cents), category));
+            doubleProducts.add(new DoubleProductDTO(id, name, cents / 100.0, category));
+            bigDecimalProducts.add(new BigDecimalProductDTO(id, name, BigDecimal.valueOf(cents, 2), category));
+        }
+    }
+
+    @Benchmark
+    public void price() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), priceProducts);
+    }
+
+    @Benchmark
+    public void doublePrice() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), doubleProducts);
+    }
+
+    @Benchmark
+    public void bigDecimalPrice() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), bigDecimalProducts);
+    }
+
+    /**
+     * Shape of {@link ProductDTO} when prices were {@code Double}s.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record DoubleProductDTO(Long id, String name, Double price, CategoryDTO category) {
+    }
+
+    /**
+     * Shape of {@link ProductDTO} with {@link BigDecimal} prices.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BigDecimalProductDTO(Long id, String name, BigDecimal price, CategoryDTO category) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductListSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.jointecnologia.crud.benchmark;
+
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.index.ProductNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark of {@link ProductNameIndex} prefix lookups and updates.
+ * <p>
+ * Run the {@link #main(String[])} method from the IDE, or {@code org.openjdk.jmh.Main ProductNameIndexBenchmark}
+ * with the test classpath after {@code mvn test-compile}. The memory footprint of the index is printed once per
+ * fork.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductNameIndexBenchmark {
+
+    private static final String[] ADJECTIVES = {"Gaming", "Wireless", "Portable", "Ergonomic", "Compact", "Smart",
+            "Premium", "Classic", "Ultra", "Eco"};
+    private static final String[] NOUNS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headset", "Speaker", "Camera",
+            "Charger", "Stand", "Lamp", "Cable", "Router", "Tablet", "Phone", "Watch"};
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    private ProductNameIndex index;
+    private SplittableRandom random;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        List<ProductSummary> summaries = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            summaries.add(summary(id, randomName()));
+        }
+        index = new ProductNameIndex(null);
+        index.load(summaries);
+        nextId = products + 1L;
+        System.out.println("Index stats: " + index.stats());
+    }
+
+    @Benchmark
+    public List<ProductSummary> shortPrefix() {
+        return index.findByPrefix("la", 10);
+    }
+
+    @Benchmark
+    public List<ProductSummary> longPrefix() {
+        return index.findByPrefix("keyboa", 10);
+    }
+
+    @Benchmark
+    public List<ProductSummary> missingPrefix() {
+        return index.findByPrefix("zzz", 10);
+    }
+
+    @Benchmark
+    public void update() {
+        long id = random.nextLong(1, nextId);
+        index.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, id, randomName(), Price.ofMinorUnits(1000), 1L));
+    }
+
+    private String randomName() {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " " + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+    }
+
+    private static ProductSummary summary(Long id, String name) {
+        return new ProductSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductNameIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
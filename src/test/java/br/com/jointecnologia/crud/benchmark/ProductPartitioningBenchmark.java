@@ -0,0 +1,133 @@
+package br.com.jointecnologia.crud.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the latency of {@code ProductRepository.findByCategoryId} on an unpartitioned and on a hash-partitioned
+ * product table holding the same seeded rows.
+ * <p>
+ * Both tables are created in a throwaway {@code partition_benchmark} schema with the layout and indexes of the
+ * application (see {@code schema.sql} and {@code db/partition-product.sql}), seeded with
+ * {@code generate_series}, and queried with the statement Hibernate generates for the method, for random
+ * categories. The latency percentiles are printed and written to {@code target/partition-benchmark.md}. The schema
+ * is dropped at the end.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp target/test-classes:<classpath> br.com.jointecnologia.crud.benchmark.ProductPartitioningBenchmark
+ * [products] [categories] [partitions] [queries]}. The database is read from the {@code db.url},
+ * {@code db.username} and {@code db.password} system properties, and defaults to the one of
+ * {@code application.yml}.
+ * </p>
+ */
+public class ProductPartitioningBenchmark {
+
+    private static final String SCHEMA = "partition_benchmark";
+    private static final int WARMUP_QUERIES = 500;
+
+    public static void main(String[] args) throws Exception {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int categories = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int partitions = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : 5_000;
+
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("db.url", "jdbc:postgresql://localhost:5432/jointecnologia"),
+                System.getProperty("db.username", "admin"),
+                System.getProperty("db.password", "admin123"))) {
+            try {
+                seed(connection, products, categories, partitions);
+                StringBuilder report = new StringBuilder(String.format(
+                        "findByCategoryId, %d products in %d categories, %d partitions%n%n"
+                                + "| table | median (µs) | p95 (µs) | p99 (µs) | max (µs) |%n|---|---|---|---|---|%n",
+                        products, categories, partitions));
+                for (String table : new String[]{"product_unpartitioned", "product_partitioned"}) {
+                    long[] latencies = measure(connection, table, categories, queries);
+                    String line = String.format("| %s | %d | %d | %d | %d |%n", table,
+                            percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                            latencies[latencies.length - 1]);
+                    System.out.print(line);
+                    report.append(line);
+                }
+                Files.writeString(Path.of("target", "partition-benchmark.md"), report);
+            } finally {
+                execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+        }
+    }
+
+    private static void seed(Connection connection, int products, int categories, int partitions) throws SQLException {
+        execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute(connection, "CREATE SCHEMA " + SCHEMA);
+        execute(connection, "SET search_path TO " + SCHEMA);
+        execute(connection, "CREATE TABLE category (id bigint PRIMARY KEY, name varchar(255) NOT NULL)");
+        execute(connection, "INSERT INTO category SELECT i, 'Category ' || i FROM generate_series(1, " + categories + ") i");
+
+        String columns = "id bigint NOT NULL, name varchar(100) NOT NULL, price numeric(18, 2) NOT NULL, "
+                + "category_id bigint NOT NULL REFERENCES category (id), deleted_at timestamp(6) with time zone";
+        execute(connection, "CREATE TABLE product_unpartitioned (" + columns + ", PRIMARY KEY (id))");
+        execute(connection, "CREATE TABLE product_partitioned (" + columns + ", PRIMARY KEY (id, category_id)) "
+                + "PARTITION BY HASH (category_id)");
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            execute(connection, String.format("CREATE TABLE product_partitioned_p%d PARTITION OF product_partitioned "
+                    + "FOR VALUES WITH (MODULUS %d, REMAINDER %d)", remainder, partitions, remainder));
+        }
+
+        long start = System.nanoTime();
+        execute(connection, "INSERT INTO product_unpartitioned SELECT i, 'Product ' || i, "
+                + "round((random() * 1000)::numeric, 2), 1 + (i % " + categories + "), NULL "
+                + "FROM generate_series(1, " + products + ") i");
+        execute(connection, "INSERT INTO product_partitioned SELECT * FROM product_unpartitioned");
+        for (String table : new String[]{"product_unpartitioned", "product_partitioned"}) {
+            execute(connection, "CREATE INDEX ON " + table + " (category_id, price) WHERE deleted_at IS NULL");
+            execute(connection, "VACUUM ANALYZE " + table);
+        }
+        System.out.printf("Seeded %d products in %d s%n", products, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Runs the query of {@code findByCategoryId} for random categories, reading every row.
+     *
+     * @return the sorted latencies, in microseconds.
+     */
+    private static long[] measure(Connection connection, String table, int categories, int queries) throws SQLException {
+        String sql = "SELECT p.id, p.category_id, p.deleted_at, p.name, p.price FROM " + table + " p "
+                + "WHERE p.deleted_at IS NULL AND p.category_id = ?";
+        SplittableRandom random = new SplittableRandom(42);
+        long[] latencies = new long[queries];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = -WARMUP_QUERIES; i < queries; i++) {
+                long start = System.nanoTime();
+                statement.setLong(1, 1 + random.nextInt(categories));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getString(4);
+                    }
+                }
+                if (i >= 0) {
+                    latencies[i] = (System.nanoTime() - start) / 1_000;
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.jointecnologia.crud.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to first request of the application packaged by {@code mvn -Pfast-startup package}.
+ * <p>
+ * The extracted JAR in {@code target/app} is started several times in each mode (plain JVM, AOT, AOT with the CDS
+ * archive), and the time until {@code GET /categories} answers {@code 200} is recorded. The medians are printed and
+ * written to {@code target/startup-benchmark.md}, which CI publishes to track regressions. The database of the
+ * {@code prod} profile must be reachable.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp target/test-classes br.com.jointecnologia.crud.benchmark.StartupTimeBenchmark [runs]}
+ * </p>
+ */
+public class StartupTimeBenchmark {
+
+    private static final Path APP = Path.of("target", "app");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final int PORT = 18080;
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path jar;
+        try (var files = Files.list(APP)) {
+            jar = files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Run mvn -Pfast-startup package first"));
+        }
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jvm", List.of());
+        modes.put("aot", List.of("-Dspring.aot.enabled=true"));
+        modes.put("aot+cds", List.of("-Dspring.aot.enabled=true",
+                "-XX:SharedArchiveFile=" + APP.resolve("application.jsa"), "-Xlog:cds=off"));
+
+        StringBuilder report = new StringBuilder("| mode | median (ms) | min (ms) | max (ms) |\n|---|---|---|---|\n");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            List<Long> times = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                times.add(timeToFirstRequest(jar, mode.getValue()));
+            }
+            times.sort(null);
+            String line = String.format("| %s | %d | %d | %d |%n", mode.getKey(), times.get(times.size() / 2),
+                    times.get(0), times.get(times.size() - 1));
+            System.out.print(line);
+            report.append(line);
+        }
+        Files.writeString(Path.of("target", "startup-benchmark.md"), report);
+    }
+
+    private static long timeToFirstRequest(Path jar, List<String> jvmOptions) throws Exception {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-Dspring.profiles.active=prod,fast-startup", "-jar", jar.toString(),
+                "--server.port=" + PORT));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/categories")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with code " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("No response within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.jointecnologia.crud.config.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WaitTrackingDataSourceTest {
+
+    @Mock
+    private HikariDataSource pool;
+
+    private final Connection connection = mock(Connection.class);
+
+    @Test
+    @DisplayName("Test threads waiting for a connection are tracked until they get one")
+    void shouldTrackThreadsWaitingForAConnection() throws Exception {
+        // Arrange
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pool.getConnection()).thenAnswer(invocation -> {
+            waiting.countDown();
+            release.await();
+            return connection;
+        });
+        WaitTrackingDataSource dataSource = new WaitTrackingDataSource(pool);
+
+        // Act
+        CompletableFuture<Connection> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(waiting.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, dataSource.getWaiters().size());
+        release.countDown();
+        assertSame(connection, acquired.get(5, TimeUnit.SECONDS));
+        assertTrue(dataSource.getWaiters().isEmpty());
+    }
+}
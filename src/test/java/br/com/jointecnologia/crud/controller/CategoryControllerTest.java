@@ -1,9 +1,21 @@
 package br.com.jointecnologia.crud.controller;
 
+import br.com.jointecnologia.crud.config.IdempotencyProperties;
+import br.com.jointecnologia.crud.controller.cache.CategoryListCache;
 import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.controller.dto.CategoryStatsDTO;
+import br.com.jointecnologia.crud.controller.idempotency.IdempotentRequestHandler;
+import br.com.jointecnologia.crud.controller.idempotency.InMemoryIdempotencyStore;
 import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.repository.projection.CategoryPriceStats;
+import br.com.jointecnologia.crud.repository.projection.CategoryTreeNode;
+import br.com.jointecnologia.crud.repository.projection.CategoryUpsertResult;
 import br.com.jointecnologia.crud.service.CategoryService;
+import br.com.jointecnologia.crud.service.CategoryStatsService;
+import br.com.jointecnologia.crud.service.index.CategoryTree;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,17 +23,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +60,19 @@ class CategoryControllerTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private CategoryListCache categoryListCache;
+
+    @Mock
+    private CategoryStatsService categoryStatsService;
+
     @Mock
     private ControllerMapper controllerMapper;
 
+    @Spy
+    private IdempotentRequestHandler idempotentRequestHandler = new IdempotentRequestHandler(
+            new InMemoryIdempotencyStore(100, Clock.systemUTC()), new ObjectMapper(), new IdempotencyProperties());
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -48,6 +81,24 @@ class CategoryControllerTest {
         this.mockMvc = MockMvcBuilders.standaloneSetup(this.categoryController).build();
     }
 
+    @Test
+    @DisplayName("Test getBreadcrumbs returns the category and its ancestors from the root")
+    void shouldGetBreadcrumbs() throws Exception {
+        CategoryTree.Node root = new CategoryTree.Node(2L, "Root", null);
+        CategoryTree.Node category = new CategoryTree.Node(1L, CATEGORY_NAME, 2L);
+
+        when(categoryService.getBreadcrumbs(1L)).thenReturn(List.of(root, category));
+        when(controllerMapper.toCategoryDTO(root)).thenReturn(CategoryDTO.builder().id(2L).name("Root").build());
+        when(controllerMapper.toCategoryDTO(category))
+                .thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).parentId(2L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_BY_ID_ENDPOINT + "/breadcrumbs", CATEGORY_ID))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(hasEntry("parentId", null)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].parentId").value(2));
+    }
+
     @Test
     @DisplayName("Test createCategory returns status 201 when category is created successfully")
     void shouldCreateCategory() throws Exception {
@@ -68,6 +119,31 @@ class CategoryControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(CATEGORY_NAME));
     }
 
+    @Test
+    @DisplayName("Test createCategory replays the first response when the Idempotency-Key is repeated")
+    void shouldCreateCategoryOnceForRepeatedIdempotencyKey() throws Exception {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setName(CATEGORY_NAME);
+
+        CategoryModel createdCategory = new CategoryModel();
+        createdCategory.setId(1L);
+        createdCategory.setName(CATEGORY_NAME);
+
+        when(categoryService.createCategory(any())).thenReturn(createdCategory);
+        when(controllerMapper.toCategoryDTO(createdCategory)).thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(MockMvcRequestBuilders.post(CATEGORY_ENDPOINT)
+                            .header(IdempotentRequestHandler.IDEMPOTENCY_KEY_HEADER, "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new ObjectMapper().writeValueAsString(categoryDTO)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1));
+        }
+
+        verify(categoryService, times(1)).createCategory(any());
+    }
+
     @Test
     @DisplayName("Test getCategoryById returns category when found")
     void shouldGetCategoryById() throws Exception {
@@ -110,21 +186,97 @@ class CategoryControllerTest {
 
 
     @Test
-    @DisplayName("Test getAllCategories returns list of categories")
+    @DisplayName("Test getAllCategories writes the precomputed list with its version as ETag")
     void shouldGetAllCategories() throws Exception {
-        CategoryDTO categoryDTO = new CategoryDTO();
-        categoryDTO.setName(CATEGORY_NAME);
+        byte[] body = ("[{\"id\":1,\"name\":\"" + CATEGORY_NAME + "\",\"productCount\":3}]").getBytes(StandardCharsets.UTF_8);
 
-        CategoryModel category = new CategoryModel();
-        category.setId(1L);
-        category.setName(CATEGORY_NAME);
-
-        when(categoryService.getAllCategories()).thenReturn(List.of(category));
-        when(controllerMapper.toCategoryDTOList(any())).thenReturn(List.of(categoryDTO));
+        when(categoryListCache.snapshot()).thenReturn(new CategoryListCache.Snapshot(7L, "abc-7", body));
 
         mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_ENDPOINT))
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(CATEGORY_NAME));
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"abc-7\""))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(CATEGORY_NAME))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].productCount").value(3));
+        verify(categoryService, never()).getAllCategories();
+    }
+
+    @Test
+    @DisplayName("Test getAllCategories returns 304 when the list did not change since the client's version")
+    void shouldGetAllCategoriesNotModified() throws Exception {
+        when(categoryListCache.snapshot()).thenReturn(new CategoryListCache.Snapshot(7L, "abc-7", new byte[]{'[', ']'}));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_ENDPOINT).header(HttpHeaders.IF_NONE_MATCH, "\"abc-7\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Test getCategoryById with fields returns only the requested fields")
+    void shouldGetCategoryByIdWithSparseFields() throws Exception {
+        CategoryTreeNode node = mock(CategoryTreeNode.class);
+        CategoryDTO categoryDTO = CategoryDTO.builder().id(1L).name(CATEGORY_NAME).parentId(2L).build();
+
+        when(categoryService.getCategoryById(1L, CategoryTreeNode.class)).thenReturn(node);
+        when(controllerMapper.toCategoryDTO(node)).thenReturn(categoryDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_BY_ID_ENDPOINT, CATEGORY_ID).param("fields", "id"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(not(hasKey("name"))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(not(hasKey("parentId"))));
+    }
+
+    @Test
+    @DisplayName("Test getAllCategories with fields including parentId returns the parent of each category")
+    void shouldGetAllCategoriesWithParentIdField() throws Exception {
+        CategoryTreeNode root = mock(CategoryTreeNode.class);
+        CategoryTreeNode child = mock(CategoryTreeNode.class);
+
+        when(categoryService.getAllCategories(CategoryTreeNode.class)).thenReturn(List.of(root, child));
+        when(controllerMapper.toCategoryDTO(root)).thenReturn(CategoryDTO.builder().id(2L).name("Root").build());
+        when(controllerMapper.toCategoryDTO(child))
+                .thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).parentId(2L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_ENDPOINT).param("fields", "id,parentId"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(hasEntry("parentId", null)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].parentId").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1]").value(not(hasKey("name"))));
+        verify(categoryListCache, never()).snapshot();
+    }
+
+    @Test
+    @DisplayName("Test getAllCategories with fields including productCount returns the count of each category")
+    void shouldGetAllCategoriesWithProductCountField() throws Exception {
+        CategoryListEntry entry = mock(CategoryListEntry.class);
+
+        when(categoryService.getCategoryListEntries()).thenReturn(List.of(entry));
+        when(controllerMapper.toCategoryDTO(entry))
+                .thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).productCount(3L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_ENDPOINT).param("fields", "id,productCount"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].productCount").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(not(hasKey("name"))));
+        verify(categoryService, never()).getAllCategories(CategoryTreeNode.class);
+    }
+
+    @Test
+    @DisplayName("Test getCategoryById with fields including productCount returns the count of the category")
+    void shouldGetCategoryByIdWithProductCountField() throws Exception {
+        CategoryListEntry entry = mock(CategoryListEntry.class);
+
+        when(categoryService.getCategoryListEntry(1L)).thenReturn(entry);
+        when(controllerMapper.toCategoryDTO(entry))
+                .thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).productCount(3L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_BY_ID_ENDPOINT, CATEGORY_ID).param("fields", "productCount"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.productCount").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(not(hasKey("id"))));
     }
 
     @Test
@@ -133,4 +285,63 @@ class CategoryControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.delete(CATEGORY_BY_ID_ENDPOINT, CATEGORY_ID))
                 .andExpect(MockMvcResultMatchers.status().isNoContent());
     }
+
+    @Test
+    @DisplayName("Test getAllCategoryStats returns the statistics of every category")
+    void shouldGetAllCategoryStats() throws Exception {
+        CategoryPriceStats stats = mock(CategoryPriceStats.class);
+        CategoryStatsDTO statsDTO = CategoryStatsDTO.builder()
+                .categoryId(1L).categoryName(CATEGORY_NAME).productCount(2L)
+                .minPrice(Price.parse("10.00")).maxPrice(Price.parse("30.00")).avgPrice(Price.parse("20.05"))
+                .build();
+
+        when(categoryStatsService.getAllCategoryStats()).thenReturn(List.of(stats));
+        when(controllerMapper.toCategoryStatsDTOList(List.of(stats))).thenReturn(List.of(statsDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_ENDPOINT + "/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].productCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].avgPrice").value(20.05));
+    }
+
+    @Test
+    @DisplayName("Test getCategoryStats returns null price statistics for an empty category")
+    void shouldGetCategoryStats() throws Exception {
+        CategoryPriceStats stats = mock(CategoryPriceStats.class);
+        CategoryStatsDTO statsDTO = CategoryStatsDTO.builder().categoryId(1L).categoryName(CATEGORY_NAME).productCount(0L).build();
+
+        when(categoryStatsService.getCategoryStats(1L)).thenReturn(stats);
+        when(controllerMapper.toCategoryStatsDTO(stats)).thenReturn(statsDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CATEGORY_BY_ID_ENDPOINT + "/stats", CATEGORY_ID))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.productCount").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(hasEntry("minPrice", null)));
+    }
+
+    @Test
+    @DisplayName("Test upsertCategoryByName returns status 201 when the category is created")
+    void shouldCreateCategoryByName() throws Exception {
+        CategoryUpsertResult category = mock(CategoryUpsertResult.class);
+        when(category.isCreated()).thenReturn(true);
+        when(categoryService.upsertCategoryByName(CATEGORY_NAME)).thenReturn(category);
+        when(controllerMapper.toCategoryDTO(category)).thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(CATEGORY_ENDPOINT + "/by-name/{name}", CATEGORY_NAME))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(CATEGORY_NAME));
+    }
+
+    @Test
+    @DisplayName("Test upsertCategoryByName returns status 200 when the category already exists")
+    void shouldReturnExistingCategoryByName() throws Exception {
+        CategoryUpsertResult category = mock(CategoryUpsertResult.class);
+        when(category.isCreated()).thenReturn(false);
+        when(categoryService.upsertCategoryByName(CATEGORY_NAME)).thenReturn(category);
+        when(controllerMapper.toCategoryDTO(category)).thenReturn(CategoryDTO.builder().id(1L).name(CATEGORY_NAME).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(CATEGORY_ENDPOINT + "/by-name/{name}", CATEGORY_NAME))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1));
+    }
 }
@@ -0,0 +1,121 @@
+package br.com.jointecnologia.crud.controller;
+
+import br.com.jointecnologia.crud.config.ChangeStreamProperties;
+import br.com.jointecnologia.crud.controller.dto.CatalogChangeDTO;
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.controller.stream.ChangeStreamBroadcaster;
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.service.CatalogChangeService;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeControllerTest {
+
+    private static final String CHANGES_ENDPOINT = "/changes";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private CatalogChangeService catalogChangeService;
+
+    @Mock
+    private ControllerMapper controllerMapper;
+
+    @Spy
+    private ChangeStreamBroadcaster changeStreamBroadcaster = new ChangeStreamBroadcaster(
+            new ObjectMapper(), new ChangeStreamProperties(), new SyncTaskExecutor());
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.standaloneSetup(this.changeController).build();
+    }
+
+    @Test
+    @DisplayName("Test getChanges returns the changes and the sequence number to resume from")
+    void shouldGetChanges() throws Exception {
+        List<CatalogChangeModel> changes = List.of(
+                CatalogChangeModel.builder().seq(11L).entityType(EntityType.PRODUCT).entityId(1L)
+                        .operation(Operation.UPSERT).build(),
+                CatalogChangeModel.builder().seq(12L).entityType(EntityType.CATEGORY).entityId(2L)
+                        .operation(Operation.DELETE).build());
+        when(catalogChangeService.getChanges(10L, 2))
+                .thenReturn(new SliceImpl<>(changes, PageRequest.ofSize(2), true));
+        when(controllerMapper.toCatalogChangeDTOList(changes)).thenReturn(List.of(
+                CatalogChangeDTO.builder().seq(11L).entityType(EntityType.PRODUCT).entityId(1L)
+                        .operation(Operation.UPSERT).build(),
+                CatalogChangeDTO.builder().seq(12L).entityType(EntityType.CATEGORY).entityId(2L)
+                        .operation(Operation.DELETE).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_ENDPOINT).param("since", "10").param("limit", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].operation").value("DELETE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").value(12))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("Test getChanges resumes from the same sequence number when there is no new change")
+    void shouldGetNoChanges() throws Exception {
+        when(catalogChangeService.getChanges(12L, 100)).thenReturn(new SliceImpl<>(List.of()));
+        when(controllerMapper.toCatalogChangeDTOList(List.of())).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_ENDPOINT).param("since", "12"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes.length()").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").value(12))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("Test streamChanges pushes the committed changes of the followed categories")
+    void shouldStreamChangesOfFollowedCategories() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_ENDPOINT + "/stream")
+                        .param("categoryId", "1"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        changeStreamBroadcaster.onProductChanged(
+                new ProductChangedEvent(ChangeType.UPDATED, 10L, "Laptop", Price.parse("10.00"), 1L));
+        changeStreamBroadcaster.onProductChanged(
+                new ProductChangedEvent(ChangeType.UPDATED, 20L, "Novel", Price.parse("5.00"), 2L));
+        changeStreamBroadcaster.onCategoryChanged(CategoryChangedEvent.deleted(1L));
+
+        String content = result.getResponse().getContentAsString();
+        assertTrue(content.contains("event:product\ndata:{\"type\":\"UPDATED\",\"productId\":10,"));
+        assertTrue(content.contains("\"price\":10.00"));
+        assertFalse(content.contains("\"productId\":20"));
+        assertTrue(content.contains("event:category\ndata:{\"type\":\"DELETED\",\"categoryId\":1,"));
+    }
+}
@@ -1,8 +1,23 @@
 package br.com.jointecnologia.crud.controller;
 
+import br.com.jointecnologia.crud.config.IdempotencyProperties;
+import br.com.jointecnologia.crud.controller.dto.CategoryRefDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductBatchDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductCreateDTO;
 import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductImportDTO;
+import br.com.jointecnologia.crud.controller.dto.ProductUpdateDTO;
+import br.com.jointecnologia.crud.controller.idempotency.IdempotentRequestHandler;
+import br.com.jointecnologia.crud.controller.idempotency.InMemoryIdempotencyStore;
 import br.com.jointecnologia.crud.controller.mapper.ControllerMapper;
+import br.com.jointecnologia.crud.model.Price;
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.projection.ProductRow;
+import br.com.jointecnologia.crud.repository.projection.ProductSearchResult;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.ProductBatch;
+import br.com.jointecnologia.crud.service.ProductImportResult;
+import br.com.jointecnologia.crud.service.ProductImportService;
 import br.com.jointecnologia.crud.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,9 +34,23 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +66,16 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductImportService productImportService;
+
     @Mock
     private ControllerMapper controllerMapper;
 
+    @Spy
+    private IdempotentRequestHandler idempotentRequestHandler = new IdempotentRequestHandler(
+            new InMemoryIdempotencyStore(100, Clock.systemUTC()), new ObjectMapper(), new IdempotencyProperties());
+
     @InjectMocks
     private ProductController productController;
 
@@ -52,6 +89,8 @@ class ProductControllerTest {
     void shouldCreateProduct() throws Exception {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setName(PRODUCT_NAME);
+        ProductCreateDTO request = ProductCreateDTO.builder()
+                .name(PRODUCT_NAME).price(Price.parse("10.00")).category(new CategoryRefDTO(1L)).build();
 
         ProductModel createdProduct = new ProductModel();
         createdProduct.setId(1L);
@@ -62,11 +101,125 @@ class ProductControllerTest {
 
         mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(productDTO)))
+                        .content(new ObjectMapper().writeValueAsString(request)))
                 .andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(PRODUCT_NAME));
     }
 
+    @Test
+    @DisplayName("Test createProduct replays the first response when the Idempotency-Key is repeated")
+    void shouldCreateProductOnceForRepeatedIdempotencyKey() throws Exception {
+        ProductCreateDTO request = ProductCreateDTO.builder()
+                .name(PRODUCT_NAME).price(Price.parse("10.00")).category(new CategoryRefDTO(1L)).build();
+
+        ProductModel createdProduct = new ProductModel();
+        createdProduct.setId(1L);
+        createdProduct.setName(PRODUCT_NAME);
+
+        when(productService.createProduct(any())).thenReturn(createdProduct);
+        when(controllerMapper.toProductDTO(createdProduct)).thenReturn(ProductDTO.builder().id(1L).name(PRODUCT_NAME).build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                            .header(IdempotentRequestHandler.IDEMPOTENCY_KEY_HEADER, "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new ObjectMapper().writeValueAsString(request)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1));
+        }
+
+        verify(productService, times(1)).createProduct(any());
+    }
+
+    @Test
+    @DisplayName("Test getProductsByIds returns the products found and the missing IDs")
+    void shouldGetProductsByIds() throws Exception {
+        ProductModel product = ProductModel.builder().id(1L).name(PRODUCT_NAME).build();
+        ProductBatch batch = new ProductBatch(List.of(product), List.of(2L));
+        when(productService.getProductsByIds(List.of(1L, 2L))).thenReturn(batch);
+        when(controllerMapper.toProductBatchDTO(batch)).thenReturn(new ProductBatchDTO(
+                List.of(ProductDTO.builder().id(1L).name(PRODUCT_NAME).build()), List.of(2L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(PRODUCT_ENDPOINT).param("ids", "1,2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.products[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(2));
+    }
+
+    @Test
+    @DisplayName("Test getProductsByIds accepts the IDs in the request body")
+    void shouldGetProductsByIdsFromBody() throws Exception {
+        ProductBatch batch = new ProductBatch(List.of(), List.of(5L));
+        when(productService.getProductsByIds(List.of(5L))).thenReturn(batch);
+        when(controllerMapper.toProductBatchDTO(batch)).thenReturn(new ProductBatchDTO(List.of(), List.of(5L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [5]}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.products").isEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(5));
+    }
+
+    @Test
+    @DisplayName("Test createProduct reads and writes prices as exact decimals")
+    void shouldCreateProductWithExactPrice() throws Exception {
+        ProductModel createdProduct = new ProductModel();
+        createdProduct.setId(1L);
+        createdProduct.setName(PRODUCT_NAME);
+        createdProduct.setPrice(Price.parse("0.30"));
+
+        when(productService.createProduct(argThat(product -> Price.parse("0.30").equals(product.getPrice()))))
+                .thenReturn(createdProduct);
+        when(controllerMapper.toProductModel(any(ProductCreateDTO.class))).thenAnswer(invocation -> {
+            ProductCreateDTO dto = invocation.getArgument(0);
+            return ProductModel.builder().name(dto.getName()).price(dto.getPrice()).build();
+        });
+        when(controllerMapper.toProductDTO(createdProduct))
+                .thenReturn(ProductDTO.builder().id(1L).name(PRODUCT_NAME).price(createdProduct.getPrice()).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + PRODUCT_NAME + "\", \"price\": 0.3, \"category\": {\"id\": 1}}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().string(containsString("\"price\":0.30")));
+    }
+
+    @Test
+    @DisplayName("Test createProduct returns status 400 when the price has more than two decimal places")
+    void shouldRejectPriceWithTooManyDecimals() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + PRODUCT_NAME + "\", \"price\": 1.234, \"category\": {\"id\": 1}}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test createProduct returns status 400 when the price does not fit the price column")
+    void shouldRejectPriceOutOfRange() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + PRODUCT_NAME + "\", \"price\": 10000000000000000, \"category\": {\"id\": 1}}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(productService, never()).createProduct(any());
+    }
+
+    @Test
+    @DisplayName("Test createProduct returns status 400 when the name or the category is missing")
+    void shouldRejectProductWithoutNameOrCategory() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \" \", \"price\": 1.00, \"category\": {\"id\": 1}}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + PRODUCT_NAME + "\", \"price\": 1.00, \"category\": {}}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(productService, never()).createProduct(any());
+    }
+
     @Test
     @DisplayName("Test getProductById returns product when found")
     void shouldGetProductById() throws Exception {
@@ -89,20 +242,24 @@ class ProductControllerTest {
     @Test
     @DisplayName("Test updateProduct returns updated product when update is successful")
     void shouldUpdateProduct() throws Exception {
+        ProductUpdateDTO request = ProductUpdateDTO.builder()
+                .name(PRODUCT_NAME).price(Price.parse("10.00")).category(new CategoryRefDTO(1L)).build();
         ProductDTO productDTO = new ProductDTO();
         productDTO.setId(1L);
         productDTO.setName(PRODUCT_NAME);
 
+        ProductModel changes = ProductModel.builder().name(PRODUCT_NAME).build();
         ProductModel updatedProduct = new ProductModel();
         updatedProduct.setId(1L);
         updatedProduct.setName(PRODUCT_NAME);
 
-        when(productService.updateProduct(any())).thenReturn(updatedProduct);
+        when(controllerMapper.toProductModel(request)).thenReturn(changes);
+        when(productService.updateProduct(eq(1L), eq(changes))).thenReturn(updatedProduct);
         when(controllerMapper.toProductDTO(updatedProduct)).thenReturn(productDTO);
 
         mockMvc.perform(MockMvcRequestBuilders.put(PRODUCT_BY_ID_ENDPOINT, PRODUCT_ID)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(productDTO)))
+                        .content(new ObjectMapper().writeValueAsString(request)))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(PRODUCT_NAME));
     }
@@ -125,10 +282,99 @@ class ProductControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(PRODUCT_NAME));
     }
 
+    @Test
+    @DisplayName("Test getAllProductsLean returns the product rows with their category")
+    void shouldGetAllProductsLean() throws Exception {
+        ProductRow row = new ProductRow(1L, PRODUCT_NAME, Price.ofMinorUnits(79990), 2L, "Electronics");
+
+        when(productService.getAllProductRows()).thenReturn(List.of(row));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(PRODUCT_ENDPOINT + "/lean"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(PRODUCT_NAME))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].price").value(799.9))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].category.id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].category.name").value("Electronics"));
+        verify(controllerMapper, never()).toProductDTOList(any());
+    }
+
+    @Test
+    @DisplayName("Test getAllProducts with fields returns only the requested fields from the summary projection")
+    void shouldGetAllProductsWithSparseFields() throws Exception {
+        ProductSummary summary = mock(ProductSummary.class);
+        ProductDTO productDTO = ProductDTO.builder().id(1L).name(PRODUCT_NAME).build();
+
+        when(productService.getAllProducts(ProductSummary.class)).thenReturn(List.of(summary));
+        when(controllerMapper.toProductDTO(summary)).thenReturn(productDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(PRODUCT_ENDPOINT).param("fields", "name"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(PRODUCT_NAME))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(not(hasKey("id"))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(not(hasKey("price"))));
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    @DisplayName("Test searchProducts returns the matching products")
+    void shouldSearchProducts() throws Exception {
+        ProductSearchResult hit = mock(ProductSearchResult.class);
+        ProductDTO productDTO = ProductDTO.builder().id(1L).name(PRODUCT_NAME).build();
+
+        when(productService.searchProducts("Prod", 0, 20)).thenReturn(List.of(hit));
+        when(controllerMapper.toProductDTO(hit)).thenReturn(productDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(PRODUCT_ENDPOINT + "/search").param("q", " Prod "))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(PRODUCT_NAME));
+    }
+
+    @Test
+    @DisplayName("Test importProducts streams the CSV body to the import service")
+    void shouldImportProducts() throws Exception {
+        ProductImportResult result = new ProductImportResult(1, 1, 0, List.of("Line 2: price is out of range"));
+        ProductImportDTO importDTO = new ProductImportDTO(1, 1, 0, result.errors());
+
+        when(productImportService.importProducts(argThat(csv -> read(csv).equals("Lamp,9.99,Home\n")), eq(true)))
+                .thenReturn(result);
+        when(controllerMapper.toProductImportDTO(result)).thenReturn(importDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT + "/import")
+                        .param("createCategories", "true")
+                        .contentType("text/csv")
+                        .content("Lamp,9.99,Home\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0]").value("Line 2: price is out of range"));
+    }
+
+    @Test
+    @DisplayName("Test importProducts rejects a JSON body")
+    void shouldRejectImportWithoutCsv() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(PRODUCT_ENDPOINT + "/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType());
+        verify(productImportService, never()).importProducts(any(), anyBoolean());
+    }
+
     @Test
     @DisplayName("Test deleteProduct returns status 204 when product is deleted successfully")
     void shouldDeleteProduct() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.delete(PRODUCT_BY_ID_ENDPOINT, PRODUCT_ID))
                 .andExpect(MockMvcResultMatchers.status().isNoContent());
     }
+
+    private static String read(Reader reader) {
+        try {
+            StringBuilder content = new StringBuilder();
+            char[] buffer = new char[256];
+            for (int n; (n = reader.read(buffer)) != -1; ) {
+                content.append(buffer, 0, n);
+            }
+            return content.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package br.com.jointecnologia.crud.controller.cache;
+
+import br.com.jointecnologia.crud.config.CategoryListProperties;
+import br.com.jointecnologia.crud.controller.mapper.ControllerMapperImpl;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.service.CategoryService;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryListCacheTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    private CategoryListCache categoryListCache;
+
+    @BeforeEach
+    void setUp() {
+        // Refreshes run on the calling thread, so every change is visible as soon as its event is handled
+        categoryListCache = new CategoryListCache(categoryService, new ControllerMapperImpl(), new ObjectMapper(),
+                new CategoryListProperties(), Runnable::run);
+        when(categoryService.getCategoryListEntries())
+                .thenReturn(List.of(category(1L, "Books", null, 2), category(2L, "Novels", 1L, 0)));
+        categoryListCache.load();
+    }
+
+    @Test
+    @DisplayName("Test the list is serialized once with the product count of every category")
+    void shouldSerializeList() {
+        // Act
+        CategoryListCache.Snapshot first = categoryListCache.snapshot();
+        CategoryListCache.Snapshot second = categoryListCache.snapshot();
+
+        // Assert
+        assertEquals("[{\"id\":1,\"name\":\"Books\",\"parentId\":null,\"productCount\":2},"
+                + "{\"id\":2,\"name\":\"Novels\",\"parentId\":1,\"productCount\":0}]", body(first));
+        assertEquals(1, first.version());
+        assertSame(first, second);
+        verify(categoryService, times(1)).getCategoryListEntries();
+    }
+
+    @Test
+    @DisplayName("Test a created product reads back only its category and publishes a new version")
+    void shouldRefreshChangedCategory() {
+        // Arrange
+        when(categoryService.getCategoryListEntries(List.of(2L))).thenReturn(List.of(category(2L, "Novels", 1L, 1)));
+
+        // Act
+        categoryListCache.onProductChanged(
+                new ProductChangedEvent(ChangeType.CREATED, 10L, "Dune", Price.parse("9.90"), 2L));
+
+        // Assert
+        CategoryListCache.Snapshot snapshot = categoryListCache.snapshot();
+        assertEquals("[{\"id\":1,\"name\":\"Books\",\"parentId\":null,\"productCount\":2},"
+                + "{\"id\":2,\"name\":\"Novels\",\"parentId\":1,\"productCount\":1}]", body(snapshot));
+        assertEquals(2, snapshot.version());
+        verify(categoryService, times(1)).getCategoryListEntries();
+    }
+
+    @Test
+    @DisplayName("Test a deleted category is removed from the list")
+    void shouldRemoveDeletedCategory() {
+        // Arrange
+        when(categoryService.getCategoryListEntries(List.of(2L))).thenReturn(List.of());
+
+        // Act
+        categoryListCache.onCategoryChanged(CategoryChangedEvent.deleted(2L));
+
+        // Assert
+        assertEquals("[{\"id\":1,\"name\":\"Books\",\"parentId\":null,\"productCount\":2}]", body(categoryListCache.snapshot()));
+    }
+
+    @Test
+    @DisplayName("Test an updated product reads back its category but keeps the version when nothing changed")
+    void shouldKeepVersionWhenNothingChanged() {
+        // Arrange
+        CategoryListCache.Snapshot before = categoryListCache.snapshot();
+        when(categoryService.getCategoryListEntries(List.of(2L))).thenReturn(List.of(category(2L, "Novels", 1L, 0)));
+
+        // Act
+        categoryListCache.onProductChanged(
+                new ProductChangedEvent(ChangeType.UPDATED, 10L, "Dune", Price.parse("12.90"), 2L));
+
+        // Assert
+        assertSame(before, categoryListCache.snapshot());
+        verify(categoryService, times(1)).getCategoryListEntries();
+    }
+
+    @Test
+    @DisplayName("Test a product moved to another category reads back both categories only")
+    void shouldRefreshBothCategoriesOfMovedProduct() {
+        // Arrange
+        when(categoryService.getCategoryListEntries(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L)))))
+                .thenReturn(List.of(category(1L, "Books", null, 1), category(2L, "Novels", 1L, 1)));
+
+        // Act
+        categoryListCache.onProductChanged(
+                new ProductChangedEvent(ChangeType.UPDATED, 10L, "Dune", Price.parse("9.90"), 2L, 1L));
+
+        // Assert
+        assertEquals("[{\"id\":1,\"name\":\"Books\",\"parentId\":null,\"productCount\":1},"
+                + "{\"id\":2,\"name\":\"Novels\",\"parentId\":1,\"productCount\":1}]",
+                body(categoryListCache.snapshot()));
+        verify(categoryService, times(1)).getCategoryListEntries();
+    }
+
+    private static String body(CategoryListCache.Snapshot snapshot) {
+        return new String(snapshot.body(), StandardCharsets.UTF_8);
+    }
+
+    private static CategoryListEntry category(Long id, String name, Long parentId, long productCount) {
+        return new CategoryListEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return productCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.jointecnologia.crud.controller.idempotency;
+
+import br.com.jointecnologia.crud.config.IdempotencyProperties;
+import br.com.jointecnologia.crud.controller.dto.CategoryDTO;
+import br.com.jointecnologia.crud.exceptions.IdempotencyKeyConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotentRequestHandlerTest {
+
+    private static final String OPERATION = "POST /categories";
+    private static final String KEY = "key-1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-11-09T10:00:00Z"));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private InMemoryIdempotencyStore store;
+    private IdempotentRequestHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setTtl(Duration.ofHours(1));
+        store = new InMemoryIdempotencyStore(2, clock);
+        handler = new IdempotentRequestHandler(store, new ObjectMapper(), properties, clock);
+    }
+
+    @Test
+    @DisplayName("Test execute replays the stored response for a repeated key without running the action again")
+    void shouldReplayRepeatedRequest() {
+        // Arrange
+        CategoryDTO request = category(null, "Books");
+
+        // Act
+        ResponseEntity<CategoryDTO> first = handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+        ResponseEntity<CategoryDTO> second = handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotentRequestHandler.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotentRequestHandler.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Test execute rejects a key reused for a different request")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        // Arrange
+        handler.execute(OPERATION, KEY, category(null, "Books"), CategoryDTO.class, this::create);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> handler.execute(OPERATION, KEY, category(null, "Music"), CategoryDTO.class, this::create));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Test execute rejects a key whose first request is still in progress")
+    void shouldRejectKeyInProgress() {
+        // Arrange
+        CategoryDTO request = category(null, "Books");
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class, () -> handler.execute(OPERATION, KEY, request,
+                CategoryDTO.class, () -> handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create)));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Test execute releases the key when the action fails, so the request can be retried")
+    void shouldReleaseKeyOnFailure() {
+        // Arrange
+        CategoryDTO request = category(null, "Books");
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> handler.execute(OPERATION, KEY, request, CategoryDTO.class,
+                () -> {
+                    throw new IllegalStateException("database unavailable");
+                }));
+        ResponseEntity<CategoryDTO> retry = handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Test execute lets a key left in progress by an interrupted request be used once its lease expired")
+    void shouldTakeOverKeyAfterLease() {
+        // Arrange
+        CategoryDTO request = category(null, "Books");
+        store.claim(OPERATION + " " + KEY, "interrupted", clock.instant().plus(Duration.ofMinutes(1)));
+
+        // Act
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create));
+        clock.advance(Duration.ofMinutes(1));
+        ResponseEntity<CategoryDTO> retry = handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Test execute runs the action again once the key expired or was evicted")
+    void shouldExecuteAgainAfterExpirationOrEviction() {
+        // Arrange
+        CategoryDTO request = category(null, "Books");
+        handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+
+        // Act
+        clock.advance(Duration.ofHours(1));
+        handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+        handler.execute(OPERATION, "key-2", request, CategoryDTO.class, this::create);
+        handler.execute(OPERATION, "key-3", request, CategoryDTO.class, this::create);
+        handler.execute(OPERATION, KEY, request, CategoryDTO.class, this::create);
+
+        // Assert
+        assertEquals(5, executions.get());
+        assertEquals(2, store.size());
+    }
+
+    private ResponseEntity<CategoryDTO> create() {
+        long id = executions.incrementAndGet();
+        return new ResponseEntity<>(category(id, "Books"), HttpStatus.CREATED);
+    }
+
+    private static CategoryDTO category(Long id, String name) {
+        CategoryDTO category = new CategoryDTO();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
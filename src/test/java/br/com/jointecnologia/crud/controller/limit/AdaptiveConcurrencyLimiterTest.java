@@ -0,0 +1,60 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        LoadSheddingProperties.Concurrency properties = new LoadSheddingProperties.Concurrency();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(2);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Test requests above the limit are rejected")
+    void shouldRejectRequestsAboveTheLimit() {
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, limiter.tryAcquire());
+        }
+
+        // Assert
+        assertEquals(-1, limiter.tryAcquire());
+        limiter.release(19, FAST);
+        assertTrue(limiter.tryAcquire() >= 0);
+    }
+
+    @Test
+    @DisplayName("Test the limit grows while latency is stable and shrinks when it climbs")
+    void shouldAdaptTheLimitToLatency() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.release(limiter.tryAcquire() + 15, FAST);
+        }
+        int grown = limiter.getLimit();
+        for (int i = 0; i < 50; i++) {
+            limiter.release(limiter.tryAcquire(), SLOW);
+        }
+
+        // Assert
+        assertTrue(grown > 20, "limit should grow, was " + grown);
+        assertTrue(limiter.getLimit() < grown / 2, "limit should shrink, was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
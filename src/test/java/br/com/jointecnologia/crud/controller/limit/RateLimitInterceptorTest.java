@@ -0,0 +1,90 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    private static final String ENDPOINT = "GET /products";
+
+    @Mock
+    private TokenBucketRateLimiter rateLimiter;
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor(rateLimiter, "X-API-Key", false);
+        request = new MockHttpServletRequest("GET", "/products");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/products");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-API-Key", "key-1");
+        when(rateLimiter.tryAcquire(anyString(), eq(ENDPOINT))).thenReturn(0L);
+    }
+
+    @Test
+    @DisplayName("Test the key header is ignored on unauthenticated requests")
+    void shouldUseRemoteAddressWhenNotAuthenticated() {
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), mock(HandlerMethod.class));
+
+        // Assert
+        verify(rateLimiter).tryAcquire("10.0.0.1", ENDPOINT);
+    }
+
+    @Test
+    @DisplayName("Test the key header identifies authenticated clients")
+    void shouldUseKeyHeaderWhenAuthenticated() {
+        // Arrange
+        request.setUserPrincipal(() -> "client");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), mock(HandlerMethod.class));
+
+        // Assert
+        verify(rateLimiter).tryAcquire("key-1", ENDPOINT);
+    }
+
+    @Test
+    @DisplayName("Test a trusted key header identifies unauthenticated clients")
+    void shouldUseTrustedKeyHeader() {
+        // Arrange
+        interceptor = new RateLimitInterceptor(rateLimiter, "X-API-Key", true);
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), mock(HandlerMethod.class));
+
+        // Assert
+        verify(rateLimiter).tryAcquire("key-1", ENDPOINT);
+    }
+
+    @Test
+    @DisplayName("Test requests without the trusted key header fall back to the remote address")
+    void shouldUseRemoteAddressWithoutTrustedKeyHeader() {
+        // Arrange
+        interceptor = new RateLimitInterceptor(rateLimiter, "X-API-Key", true);
+        request.removeHeader("X-API-Key");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), mock(HandlerMethod.class));
+
+        // Assert
+        verify(rateLimiter).tryAcquire("10.0.0.1", ENDPOINT);
+    }
+}
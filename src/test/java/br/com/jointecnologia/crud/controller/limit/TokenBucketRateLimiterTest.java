@@ -0,0 +1,68 @@
+package br.com.jointecnologia.crud.controller.limit;
+
+import br.com.jointecnologia.crud.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private static final String ENDPOINT = "GET /products";
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoadSheddingProperties.RateLimit properties = new LoadSheddingProperties.RateLimit();
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties.getDefaults().setCapacity(3);
+        properties.getDefaults().setRefillRate(10);
+        rateLimiter = new TokenBucketRateLimiter(properties, meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("Test a client can burst up to the capacity and is then limited to the refill rate")
+    void shouldAllowBurstThenRejectUntilRefilled() {
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("client", ENDPOINT));
+        }
+        long wait = rateLimiter.tryAcquire("client", ENDPOINT);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+        assertEquals(0, rateLimiter.tryAcquire("other", ENDPOINT));
+
+        now.addAndGet(wait);
+        assertEquals(0, rateLimiter.tryAcquire("client", ENDPOINT));
+        assertTrue(rateLimiter.tryAcquire("client", ENDPOINT) > 0);
+        assertEquals(2, meterRegistry.counter("api.rate_limit.rejected", "endpoint", ENDPOINT).count());
+    }
+
+    @Test
+    @DisplayName("Test new clients are rejected once every bucket is taken, until idle buckets are swept")
+    void shouldRejectNewClientsWhenFullUntilSwept() {
+        // Arrange
+        properties.setMaxBuckets(2);
+        rateLimiter.tryAcquire("first", ENDPOINT);
+        rateLimiter.tryAcquire("second", ENDPOINT);
+
+        // Act & Assert
+        assertEquals(properties.getSweepInterval().toNanos(), rateLimiter.tryAcquire("third", ENDPOINT));
+        assertEquals(2, rateLimiter.size());
+
+        rateLimiter.evictIdle();
+        assertEquals(2, rateLimiter.size());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rateLimiter.evictIdle();
+        assertEquals(0, rateLimiter.size());
+        assertEquals(0, rateLimiter.tryAcquire("third", ENDPOINT));
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.jointecnologia.crud.controller.stream;
+
+import br.com.jointecnologia.crud.config.ChangeStreamProperties;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangeStreamBroadcasterTest {
+
+    @Test
+    @DisplayName("Test a subscriber whose buffer is full is disconnected")
+    void shouldDisconnectSlowSubscriber() {
+        // Arrange: events are never sent, as if the subscriber stopped reading.
+        ChangeStreamProperties properties = new ChangeStreamProperties();
+        properties.setBufferSize(2);
+        ChangeStreamBroadcaster broadcaster = new ChangeStreamBroadcaster(new ObjectMapper(), properties, task -> {
+        });
+        broadcaster.subscribe(Set.of());
+        ProductChangedEvent event = new ProductChangedEvent(ChangeType.UPDATED, 1L, "Laptop", Price.parse("10.00"), 1L);
+
+        // Act
+        broadcaster.onProductChanged(event);
+        int subscribersWithFullBuffer = broadcaster.subscriberCount();
+        broadcaster.onProductChanged(event);
+
+        // Assert
+        assertEquals(1, subscribersWithFullBuffer);
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Test events of categories a subscriber does not follow are not buffered")
+    void shouldNotBufferEventsOfOtherCategories() {
+        // Arrange
+        ChangeStreamProperties properties = new ChangeStreamProperties();
+        properties.setBufferSize(2);
+        ChangeStreamBroadcaster broadcaster = new ChangeStreamBroadcaster(new ObjectMapper(), properties, task -> {
+        });
+        broadcaster.subscribe(Set.of(1L));
+        ProductChangedEvent event = new ProductChangedEvent(ChangeType.UPDATED, 1L, "Laptop", Price.parse("10.00"), 2L);
+
+        // Act
+        broadcaster.onProductChanged(event);
+        broadcaster.onProductChanged(event);
+
+        // Assert
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Test a product moved to another category is sent to the subscribers of both categories")
+    void shouldSendMovesToOldAndNewCategories() {
+        // Arrange
+        ChangeStreamProperties properties = new ChangeStreamProperties();
+        properties.setBufferSize(2);
+        ChangeStreamBroadcaster broadcaster = new ChangeStreamBroadcaster(new ObjectMapper(), properties, task -> {
+        });
+        broadcaster.subscribe(Set.of(1L));
+        broadcaster.subscribe(Set.of(2L));
+        broadcaster.subscribe(Set.of(3L));
+        ProductChangedEvent event =
+                new ProductChangedEvent(ChangeType.UPDATED, 1L, "Laptop", Price.parse("10.00"), 2L, 1L);
+
+        // Act: a second event overflows the buffers holding the first one.
+        broadcaster.onProductChanged(event);
+        broadcaster.onProductChanged(event);
+
+        // Assert: only the subscriber of the unrelated category is left.
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.jointecnologia.crud.exceptions.handler;
+
+import br.com.jointecnologia.crud.exceptions.ApiError;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApiExceptionHandlerTest {
+
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    @Test
+    @DisplayName("Test a unique violation is answered with 409 without the database message")
+    void shouldAnswerConflictOnUniqueViolation() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("insert failed",
+                new SQLException("Key (name)=(Books) already exists.", "23505"));
+
+        // Act
+        ResponseEntity<ApiError> response = handler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(List.of("A resource with the same unique value already exists."), response.getBody().getErrors());
+    }
+
+    @Test
+    @DisplayName("Test a check violation of the category tree is answered with 409")
+    void shouldAnswerConflictOnCheckViolation() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("update failed",
+                new SQLException("Category 1 cannot be moved under its own subcategory 2", "23514"));
+
+        // Act
+        ResponseEntity<ApiError> response = handler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(List.of("A category cannot be moved under its own subcategory."), response.getBody().getErrors());
+    }
+
+    @Test
+    @DisplayName("Test a foreign key violation is answered with 422 as an unknown category")
+    void shouldAnswerUnprocessableEntityOnForeignKeyViolation() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("insert failed",
+                new SQLException("Key (category_id)=(9) is not present in table \"category\".", "23503"));
+
+        // Act
+        ResponseEntity<ApiError> response = handler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(List.of("The referenced category does not exist."), response.getBody().getErrors());
+    }
+
+    @Test
+    @DisplayName("Test a numeric overflow is answered with 400 without the database message")
+    void shouldAnswerBadRequestOnDataException() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("insert failed",
+                new SQLException("numeric field overflow", "22003"));
+
+        // Act
+        ResponseEntity<ApiError> response = handler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(List.of("A value is out of the range or format accepted for its field."),
+                response.getBody().getErrors());
+    }
+
+    @Test
+    @DisplayName("Test other integrity violations are answered with 500 without the database message")
+    void shouldAnswerInternalServerErrorOnOtherIntegrityViolations() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("insert failed",
+                new SQLException("null value in column \"name\"", "23502"));
+
+        // Act
+        ResponseEntity<ApiError> response = handler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(List.of("DataIntegrityViolationException"), response.getBody().getErrors());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.jointecnologia.crud.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Test parse reads plain decimal amounts into minor units")
+    void shouldParse() {
+        assertEquals(79999, Price.parse("799.99").minorUnits());
+        assertEquals(30, Price.parse("0.3").minorUnits());
+        assertEquals(50, Price.parse(".5").minorUnits());
+        assertEquals(-1200, Price.parse("-12").minorUnits());
+        assertEquals(100, Price.parse("1.000").minorUnits());
+        assertEquals(1234, Price.parse("1.234e1").minorUnits());
+    }
+
+    @Test
+    @DisplayName("Test parse rejects invalid amounts and amounts with more than two decimal places")
+    void shouldRejectInvalidAmounts() {
+        assertThrows(NumberFormatException.class, () -> Price.parse("1.234"));
+        assertThrows(NumberFormatException.class, () -> Price.parse(""));
+        assertThrows(NumberFormatException.class, () -> Price.parse("."));
+        assertThrows(NumberFormatException.class, () -> Price.parse("12a"));
+        assertThrows(NumberFormatException.class, () -> Price.parse("1e-3"));
+        assertThrows(NumberFormatException.class, () -> Price.parse("99999999999999999999"));
+    }
+
+    @Test
+    @DisplayName("Test amounts beyond the NUMERIC(18, 2) column are rejected")
+    void shouldRejectAmountsOutOfColumnRange() {
+        assertEquals(Price.MAX_MINOR_UNITS, Price.parse("9999999999999999.99").minorUnits());
+        assertEquals(-Price.MAX_MINOR_UNITS, Price.parse("-9999999999999999.99").minorUnits());
+        assertThrows(NumberFormatException.class, () -> Price.parse("10000000000000000"));
+        assertThrows(NumberFormatException.class, () -> Price.parse("1e16"));
+        assertThrows(ArithmeticException.class, () -> Price.of(new BigDecimal("10000000000000000.00")));
+    }
+
+    @Test
+    @DisplayName("Test toString always writes two decimal places")
+    void shouldFormat() {
+        assertEquals("0.00", Price.ZERO.toString());
+        assertEquals("0.05", Price.ofMinorUnits(5).toString());
+        assertEquals("-0.05", Price.ofMinorUnits(-5).toString());
+        assertEquals("799.90", Price.ofMinorUnits(79990).toString());
+        assertEquals("-92233720368547758.08", Price.ofMinorUnits(Long.MIN_VALUE).toString());
+    }
+
+    @Test
+    @DisplayName("Test conversion to and from BigDecimal is exact")
+    void shouldConvertBigDecimal() {
+        assertEquals(new BigDecimal("19.90"), Price.parse("19.9").toBigDecimal());
+        assertEquals(Price.parse("19.9"), Price.of(new BigDecimal("19.900")));
+        assertThrows(ArithmeticException.class, () -> Price.of(new BigDecimal("19.999")));
+    }
+
+    @Test
+    @DisplayName("Test JSON round trip keeps the exact amount")
+    void shouldRoundTripJson() throws Exception {
+        Price price = objectMapper.readValue("0.3", Price.class);
+
+        assertEquals(Price.ofMinorUnits(30), price);
+        assertEquals(price, objectMapper.readValue("\"0.30\"", Price.class));
+        assertEquals("0.30", objectMapper.writeValueAsString(price));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("0.301", Price.class));
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.jointecnologia.crud.repository;
+
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.model.ProductModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the materialized paths maintained by the triggers of {@code schema.sql} against the configured database.
+ * Every test runs in a transaction that is rolled back, so nothing is left behind.
+ */
+@SpringBootTest
+@Transactional
+class CategoryRepositoryTreeTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private CategoryModel root;
+    private CategoryModel child;
+    private CategoryModel grandchild;
+
+    @BeforeEach
+    void setUp() {
+        root = save(null);
+        child = save(root.getId());
+        grandchild = save(child.getId());
+    }
+
+    @Test
+    @DisplayName("Test the path of a category lists the IDs of its ancestors and its own")
+    void shouldSetPathOnInsert() {
+        // Assert
+        assertEquals("/" + root.getId() + "/", root.getPath());
+        assertEquals(root.getPath() + child.getId() + "/", child.getPath());
+        assertEquals(child.getPath() + grandchild.getId() + "/", grandchild.getPath());
+        assertEquals(Optional.of(grandchild.getPath()), categoryRepository.findPathById(grandchild.getId()));
+    }
+
+    @Test
+    @DisplayName("Test findSubtree and findByCategorySubtree return the category and all of its descendants")
+    void shouldFindSubtree() {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setName("Tree product");
+        product.setPrice(Price.parse("9.99"));
+        product.setCategory(grandchild);
+        productRepository.saveAndFlush(product);
+
+        // Act
+        List<CategoryModel> subtree = categoryRepository.findSubtree(child.getPath());
+        List<ProductModel> products = productRepository.findByCategorySubtree(root.getPath());
+
+        // Assert
+        assertEquals(List.of(child.getId(), grandchild.getId()), subtree.stream().map(CategoryModel::getId).toList());
+        assertEquals(List.of(product.getId()), products.stream().map(ProductModel::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Test moving a category rewrites the paths of its whole subtree")
+    void shouldMoveSubtree() {
+        // Arrange
+        CategoryModel otherRoot = save(null);
+
+        // Act
+        child.setParentId(otherRoot.getId());
+        categoryRepository.saveAndFlush(child);
+
+        // Assert
+        String childPath = otherRoot.getPath() + child.getId() + "/";
+        assertEquals(childPath, categoryRepository.findById(child.getId()).orElseThrow().getPath());
+        assertEquals(List.of(child.getId(), grandchild.getId()), categoryRepository.findSubtree(childPath).stream()
+                .map(CategoryModel::getId)
+                .toList());
+        assertEquals(List.of(root.getId()), categoryRepository.findSubtree(root.getPath()).stream()
+                .map(CategoryModel::getId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Test the database rejects moving a category under its own descendant")
+    void shouldRejectCycle() {
+        // Arrange
+        root.setParentId(grandchild.getId());
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> categoryRepository.saveAndFlush(root));
+    }
+
+    private CategoryModel save(Long parentId) {
+        CategoryModel category = new CategoryModel();
+        category.setName("Tree " + UUID.randomUUID());
+        category.setParentId(parentId);
+        return categoryRepository.saveAndFlush(category);
+    }
+}
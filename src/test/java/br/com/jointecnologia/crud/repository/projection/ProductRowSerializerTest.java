@@ -0,0 +1,30 @@
+package br.com.jointecnologia.crud.repository.projection;
+
+import br.com.jointecnologia.crud.controller.dto.ProductDTO;
+import br.com.jointecnologia.crud.model.Price;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductRowSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Test rows are written with the fields of ProductDTO, including the null ones")
+    void shouldWriteRowsLikeProductDTO() throws Exception {
+        List<ProductRow> rows = List.of(
+                new ProductRow(1L, "Laptop \"Pro\"", Price.ofMinorUnits(79990), 2L, "Electronics"),
+                new ProductRow(3L, "Book", Price.ofMinorUnits(5), null, null));
+
+        assertEquals("[{\"id\":1,\"name\":\"Laptop \\\"Pro\\\"\",\"price\":799.90,\"category\":{\"id\":2,\"name\":\"Electronics\"}},"
+                        + "{\"id\":3,\"name\":\"Book\",\"price\":0.05,\"category\":null}]",
+                objectMapper.writeValueAsString(rows));
+        assertEquals(objectMapper.writeValueAsString(new ProductDTO(3L, "Book", Price.ofMinorUnits(5), null)),
+                objectMapper.writeValueAsString(rows.get(1)));
+    }
+}
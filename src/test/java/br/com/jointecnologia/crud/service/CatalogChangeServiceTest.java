@@ -0,0 +1,84 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.exceptions.ChangeFeedExpiredException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel;
+import br.com.jointecnologia.crud.repository.CatalogChangeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeServiceTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @InjectMocks
+    private CatalogChangeService catalogChangeService;
+
+    @Test
+    @DisplayName("Test getChanges returns the changes following the given sequence number")
+    void testGetChanges() {
+        // Arrange
+        CatalogChangeModel change = CatalogChangeModel.builder().seq(11L).build();
+        Slice<CatalogChangeModel> changes = new SliceImpl<>(List.of(change));
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(10L, PageRequest.ofSize(50)))
+                .thenReturn(changes);
+        when(catalogChangeRepository.findLastPurgedSeq()).thenReturn(10L);
+
+        // Act
+        Slice<CatalogChangeModel> result = catalogChangeService.getChanges(10L, 50);
+
+        // Assert
+        assertEquals(changes, result);
+    }
+
+    @Test
+    @DisplayName("Test getChanges throws ChangeFeedExpiredException when following changes were purged")
+    void testGetChangesPurged() {
+        // Arrange
+        when(catalogChangeRepository.findLastPurgedSeq()).thenReturn(11L);
+
+        // Act & Assert
+        assertThrows(ChangeFeedExpiredException.class, () -> catalogChangeService.getChanges(10L, 50));
+    }
+
+    @Test
+    @DisplayName("Test getChanges does not report a gap of the sequence as purged changes")
+    void testGetChangesAfterGap() {
+        // Arrange
+        CatalogChangeModel change = CatalogChangeModel.builder().seq(15L).build();
+        Slice<CatalogChangeModel> changes = new SliceImpl<>(List.of(change));
+        when(catalogChangeRepository.findBySeqGreaterThanOrderBySeqAsc(10L, PageRequest.ofSize(50)))
+                .thenReturn(changes);
+        when(catalogChangeRepository.findLastPurgedSeq()).thenReturn(0L);
+
+        // Act
+        Slice<CatalogChangeModel> result = catalogChangeService.getChanges(10L, 50);
+
+        // Assert
+        assertEquals(changes, result);
+    }
+
+    @Test
+    @DisplayName("Test getLatestSeq returns 0 when no change was recorded")
+    void testGetLatestSeqWithoutChanges() {
+        // Arrange
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(0L, catalogChangeService.getLatestSeq());
+    }
+}
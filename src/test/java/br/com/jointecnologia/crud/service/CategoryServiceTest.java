@@ -1,14 +1,29 @@
 package br.com.jointecnologia.crud.service;
 
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
+import br.com.jointecnologia.crud.exceptions.CategoryHierarchyException;
 import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.exceptions.UnknownCategoryException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
 import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.ProductModel;
 import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryListEntry;
+import br.com.jointecnologia.crud.repository.projection.CategoryUpsertResult;
+import br.com.jointecnologia.crud.service.change.CatalogChangeRecorder;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.index.CategoryTree;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +40,21 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogChangeRecorder catalogChangeRecorder;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private SoftDeleteProperties softDeleteProperties = new SoftDeleteProperties();
+
+    @Mock
+    private CategoryTree categoryTree;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -82,6 +112,30 @@ class CategoryServiceTest {
         verify(categoryRepository).findById(CATEGORY_ID);
     }
 
+    @Test
+    @DisplayName("Test getCategoryListEntry returns the category with its product count")
+    void testGetCategoryListEntry() {
+        // Arrange
+        CategoryListEntry entry = mock(CategoryListEntry.class);
+        when(categoryRepository.findListEntriesByIdIn(List.of(CATEGORY_ID))).thenReturn(List.of(entry));
+
+        // Act
+        CategoryListEntry result = categoryService.getCategoryListEntry(CATEGORY_ID);
+
+        // Assert
+        assertSame(entry, result);
+    }
+
+    @Test
+    @DisplayName("Test getCategoryListEntry throws ResourceNotFoundException when category not found")
+    void testGetCategoryListEntryThrowsResourceNotFoundException() {
+        // Arrange
+        when(categoryRepository.findListEntriesByIdIn(List.of(CATEGORY_ID))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryListEntry(CATEGORY_ID));
+    }
+
     @Test
     @DisplayName("Test createCategory saves new category")
     void testCreateCategory() {
@@ -142,6 +196,106 @@ class CategoryServiceTest {
         verify(categoryRepository).existsById(CATEGORY_ID);
     }
 
+    @Test
+    @DisplayName("Test createCategory rejects a parent category that does not exist")
+    void testCreateCategoryRejectsUnknownParent() {
+        // Arrange
+        CategoryModel category = CategoryModel.builder().name(CATEGORY_NAME).parentId(2L).build();
+        when(categoryTree.breadcrumbs(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UnknownCategoryException.class, () -> categoryService.createCategory(category));
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test updateCategory rejects moving a category under one of its descendants")
+    void testUpdateCategoryRejectsCycle() {
+        // Arrange
+        CategoryModel category = CategoryModel.builder().name(CATEGORY_NAME).parentId(3L).build();
+        when(categoryRepository.existsById(CATEGORY_ID)).thenReturn(true);
+        when(categoryTree.breadcrumbs(3L)).thenReturn(Optional.of(List.of(
+                new CategoryTree.Node(CATEGORY_ID, CATEGORY_NAME, null),
+                new CategoryTree.Node(2L, "Child", CATEGORY_ID),
+                new CategoryTree.Node(3L, "Grandchild", 2L))));
+
+        // Act & Assert
+        CategoryHierarchyException exception = assertThrows(CategoryHierarchyException.class,
+                () -> categoryService.updateCategory(CATEGORY_ID, category));
+        assertEquals("Category 1 cannot be moved under its own subcategory 3", exception.getMessage());
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test getSubtreeProducts queries the products by the path of the category")
+    void testGetSubtreeProducts() {
+        // Arrange
+        ProductModel product = ProductModel.builder().id(10L).build();
+        when(categoryRepository.findPathById(CATEGORY_ID)).thenReturn(Optional.of("/1/"));
+        when(productRepository.findByCategorySubtree("/1/")).thenReturn(List.of(product));
+
+        // Act
+        List<ProductModel> result = categoryService.getSubtreeProducts(CATEGORY_ID);
+
+        // Assert
+        assertEquals(List.of(product), result);
+    }
+
+    @Test
+    @DisplayName("Test upsertCategoryByName returns the existing category without writing it")
+    void testUpsertCategoryByName() {
+        // Arrange
+        CategoryUpsertResult existing = mock(CategoryUpsertResult.class);
+        when(existing.getId()).thenReturn(CATEGORY_ID);
+        when(categoryRepository.insertByName(CATEGORY_NAME)).thenReturn(Optional.empty());
+        when(categoryRepository.findUpsertResultByName(CATEGORY_NAME)).thenReturn(Optional.of(existing));
+
+        // Act
+        CategoryUpsertResult result = categoryService.upsertCategoryByName(CATEGORY_NAME);
+
+        // Assert
+        assertEquals(CATEGORY_ID, result.getId());
+        verify(categoryRepository).insertByName(CATEGORY_NAME);
+        verify(categoryRepository).findUpsertResultByName(CATEGORY_NAME);
+        verifyNoMoreInteractions(categoryRepository);
+        verify(catalogChangeRecorder, never()).record(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test upsertCategoryByName inserts again when the category holding the name was deleted meanwhile")
+    void testUpsertCategoryByNameRetriesAfterDeletion() {
+        // Arrange
+        CategoryUpsertResult inserted = mock(CategoryUpsertResult.class);
+        when(inserted.getId()).thenReturn(CATEGORY_ID);
+        when(inserted.isCreated()).thenReturn(true);
+        when(categoryRepository.insertByName(CATEGORY_NAME)).thenReturn(Optional.empty(), Optional.of(inserted));
+        when(categoryRepository.findUpsertResultByName(CATEGORY_NAME)).thenReturn(Optional.empty());
+
+        // Act
+        CategoryUpsertResult result = categoryService.upsertCategoryByName(CATEGORY_NAME);
+
+        // Assert
+        assertSame(inserted, result);
+        verify(categoryRepository, times(2)).insertByName(CATEGORY_NAME);
+        verify(catalogChangeRecorder).record(EntityType.CATEGORY, CATEGORY_ID, Operation.UPSERT);
+    }
+
+    @Test
+    @DisplayName("Test upsertCategoryByName records the creation in the catalog change feed")
+    void testUpsertCategoryByNameRecordsCreation() {
+        // Arrange
+        CategoryUpsertResult upserted = mock(CategoryUpsertResult.class);
+        when(upserted.getId()).thenReturn(CATEGORY_ID);
+        when(upserted.isCreated()).thenReturn(true);
+        when(categoryRepository.insertByName(CATEGORY_NAME)).thenReturn(Optional.of(upserted));
+
+        // Act
+        categoryService.upsertCategoryByName(CATEGORY_NAME);
+
+        // Assert
+        verify(catalogChangeRecorder).record(EntityType.CATEGORY, CATEGORY_ID, Operation.UPSERT);
+    }
+
     @Test
     @DisplayName("Test deleteCategory deletes category")
     void testDeleteCategory() {
@@ -151,4 +305,70 @@ class CategoryServiceTest {
         // Assert
         verify(categoryRepository).deleteById(CATEGORY_ID);
     }
+
+    @Test
+    @DisplayName("Test deleteCategory rejects a category that has subcategories")
+    void testDeleteCategoryRejectsParent() {
+        // Arrange
+        when(categoryRepository.existsByParentId(CATEGORY_ID)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(CategoryHierarchyException.class, () -> categoryService.deleteCategory(CATEGORY_ID));
+        verify(categoryRepository, never()).deleteById(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Test deleteCategory publishes a deletion event for every cascaded product")
+    void testDeleteCategoryPublishesProductDeletions() {
+        // Arrange
+        CategoryModel category = new CategoryModel();
+        category.setId(CATEGORY_ID);
+        category.setProducts(List.of(ProductModel.builder().id(10L).build(), ProductModel.builder().id(11L).build()));
+        when(categoryRepository.findById(CATEGORY_ID)).thenReturn(Optional.of(category));
+
+        // Act
+        categoryService.deleteCategory(CATEGORY_ID);
+
+        // Assert
+        verify(categoryRepository).deleteById(CATEGORY_ID);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(10L, CATEGORY_ID));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(11L, CATEGORY_ID));
+        verify(eventPublisher).publishEvent(CategoryChangedEvent.deleted(CATEGORY_ID));
+    }
+
+    @Test
+    @DisplayName("Test deleteCategory only marks the category and its products as deleted in soft-delete mode")
+    void testDeleteCategorySoftDeletes() {
+        // Arrange
+        softDeleteProperties.setEnabled(true);
+        when(categoryRepository.softDeleteById(CATEGORY_ID)).thenReturn(1);
+        when(productRepository.softDeleteByCategoryId(CATEGORY_ID)).thenReturn(List.of(10L, 11L));
+
+        // Act
+        categoryService.deleteCategory(CATEGORY_ID);
+
+        // Assert
+        verify(categoryRepository, never()).deleteById(any());
+        verify(catalogChangeRecorder).recordAll(EntityType.PRODUCT, List.of(10L, 11L), Operation.DELETE);
+        verify(catalogChangeRecorder).record(EntityType.CATEGORY, CATEGORY_ID, Operation.DELETE);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(10L, CATEGORY_ID));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(11L, CATEGORY_ID));
+        verify(eventPublisher).publishEvent(CategoryChangedEvent.deleted(CATEGORY_ID));
+    }
+
+    @Test
+    @DisplayName("Test deleteCategory does nothing in soft-delete mode when the category is already deleted")
+    void testDeleteCategorySoftDeletesOnlyOnce() {
+        // Arrange
+        softDeleteProperties.setEnabled(true);
+        when(categoryRepository.softDeleteById(CATEGORY_ID)).thenReturn(0);
+
+        // Act
+        categoryService.deleteCategory(CATEGORY_ID);
+
+        // Assert
+        verifyNoInteractions(productRepository, eventPublisher);
+        verify(catalogChangeRecorder, never()).record(any(), any(), any());
+    }
 }
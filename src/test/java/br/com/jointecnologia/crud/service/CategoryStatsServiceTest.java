@@ -0,0 +1,92 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.config.CategoryStatsProperties;
+import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryPriceStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryStatsServiceTest {
+
+    private static final Long CATEGORY_ID = 1L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CategoryStatsProperties properties;
+
+    private CategoryStatsService categoryStatsService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CategoryStatsProperties();
+        categoryStatsService = new CategoryStatsService(productRepository, properties);
+    }
+
+    @Test
+    @DisplayName("Test getAllCategoryStats aggregates on every call by default")
+    void testGetAllCategoryStatsAggregates() {
+        // Arrange
+        CategoryPriceStats stats = mock(CategoryPriceStats.class);
+        when(productRepository.aggregatePriceStatsByCategory()).thenReturn(List.of(stats));
+
+        // Act
+        List<CategoryPriceStats> result = categoryStatsService.getAllCategoryStats();
+
+        // Assert
+        assertEquals(List.of(stats), result);
+        verify(productRepository, never()).findPriceStatsSnapshot();
+    }
+
+    @Test
+    @DisplayName("Test getAllCategoryStats reads the materialized view when enabled")
+    void testGetAllCategoryStatsFromMaterializedView() {
+        // Arrange
+        properties.setMaterializedView(true);
+        CategoryPriceStats stats = mock(CategoryPriceStats.class);
+        when(productRepository.findPriceStatsSnapshot()).thenReturn(List.of(stats));
+
+        // Act
+        List<CategoryPriceStats> result = categoryStatsService.getAllCategoryStats();
+
+        // Assert
+        assertEquals(List.of(stats), result);
+        verify(productRepository, never()).aggregatePriceStatsByCategory();
+    }
+
+    @Test
+    @DisplayName("Test getCategoryStats returns the statistics of the category")
+    void testGetCategoryStats() {
+        // Arrange
+        CategoryPriceStats stats = mock(CategoryPriceStats.class);
+        when(productRepository.aggregatePriceStatsByCategoryId(CATEGORY_ID)).thenReturn(Optional.of(stats));
+
+        // Act
+        CategoryPriceStats result = categoryStatsService.getCategoryStats(CATEGORY_ID);
+
+        // Assert
+        assertEquals(stats, result);
+    }
+
+    @Test
+    @DisplayName("Test getCategoryStats throws ResourceNotFoundException when category not found")
+    void testGetCategoryStatsNotFound() {
+        // Arrange
+        when(productRepository.aggregatePriceStatsByCategoryId(CATEGORY_ID)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> categoryStatsService.getCategoryStats(CATEGORY_ID));
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.exceptions.InvalidImportFileException;
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports products into the configured database. Every test runs in a transaction that is rolled back, so nothing
+ * is left behind.
+ */
+@SpringBootTest
+@Transactional
+@RecordApplicationEvents
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private CategoryModel category;
+
+    @BeforeEach
+    void setUp() {
+        category = new CategoryModel();
+        category.setName("Import " + UUID.randomUUID());
+        category = categoryRepository.saveAndFlush(category);
+    }
+
+    @Test
+    @DisplayName("Test importProducts imports the valid rows and reports the rejected ones")
+    void shouldImportValidRows() {
+        // Arrange
+        String csv = String.join("\n",
+                "name,price,category",
+                "\"Desk, \"\"oak\"\"\",250," + category.getName(),
+                "Mouse\\pad,abc," + category.getName(),
+                ",1.00," + category.getName(),
+                "Lamp,9.99,Unknown " + category.getName(),
+                "Mouse\\pad,19.9," + category.getName(),
+                "");
+
+        // Act
+        ProductImportResult result = productImportService.importProducts(new StringReader(csv), false);
+
+        // Assert
+        assertEquals(2, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(0, result.createdCategories());
+        assertEquals(List.of(
+                "Line 3: price must be a number with at most 2 decimal places"
+                        + " and at most 9999999999999999.99 in absolute value",
+                "Line 4: name must have between 1 and 100 characters",
+                "Line 5: unknown category 'Unknown " + category.getName() + "'"), result.errors());
+        List<ProductModel> products = productRepository.findByCategoryId(category.getId()).stream()
+                .sorted(Comparator.comparing(ProductModel::getId))
+                .toList();
+        assertEquals(List.of("Desk, \"oak\"", "Mouse\\pad"), products.stream().map(ProductModel::getName).toList());
+        assertEquals("19.90", products.get(1).getPrice().toString());
+        publishChanges();
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM catalog_change "
+                + "WHERE entity_type = 'PRODUCT' AND entity_id IN (?, ?)", Long.class,
+                products.get(0).getId(), products.get(1).getId()));
+        assertEquals(List.of(new ProductsImportedEvent(Map.of(products.get(0).getId(), products.get(0).getName(),
+                        products.get(1).getId(), products.get(1).getName()), Set.of(category.getId()))),
+                applicationEvents.stream(ProductsImportedEvent.class).toList());
+        assertEquals(0, applicationEvents.stream(ProductChangedEvent.class).count());
+    }
+
+    @Test
+    @DisplayName("Test importProducts creates the unknown categories when asked to")
+    void shouldCreateUnknownCategories() {
+        // Arrange
+        String name = "Created " + UUID.randomUUID();
+        String csv = "Lamp,9.99," + name + "\nChair,49.90," + name + "\nDesk,250," + category.getName() + "\n";
+
+        // Act
+        ProductImportResult result = productImportService.importProducts(new StringReader(csv), true);
+
+        // Assert
+        assertEquals(3, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(1, result.createdCategories());
+        assertTrue(result.errors().isEmpty());
+        CategoryModel created = categoryRepository.findByName(name).orElseThrow();
+        assertEquals(2, productRepository.findByCategoryId(created.getId()).size());
+        publishChanges();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM catalog_change "
+                + "WHERE entity_type = 'CATEGORY' AND entity_id = ?", Long.class, created.getId()));
+    }
+
+    @Test
+    @DisplayName("Test importProducts rejects a malformed file")
+    void shouldRejectMalformedFile() {
+        StringReader csv = new StringReader("\"Lamp,9.99," + category.getName() + "\n");
+
+        assertThrows(InvalidImportFileException.class, () -> productImportService.importProducts(csv, false));
+    }
+
+    /**
+     * Fires the deferred trigger publishing the recorded changes to catalog_change, as the commit would.
+     */
+    private void publishChanges() {
+        jdbcTemplate.execute("SET CONSTRAINTS ALL IMMEDIATE");
+    }
+}
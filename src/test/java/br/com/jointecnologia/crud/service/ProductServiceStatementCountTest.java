@@ -0,0 +1,94 @@
+package br.com.jointecnologia.crud.service;
+
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.index.CategoryIdCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the statements Hibernate issues for a product insert, against the configured database. Every test runs
+ * in a transaction that is rolled back, so nothing is left behind.
+ */
+@SpringBootTest
+@Transactional
+class ProductServiceStatementCountTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryIdCache categoryIdCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        CategoryModel category = new CategoryModel();
+        category.setName("Statement count " + UUID.randomUUID());
+        categoryId = categoryRepository.saveAndFlush(category).getId();
+        assertTrue(categoryIdCache.contains(categoryId));
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        categoryIdCache.onCategoryChanged(CategoryChangedEvent.deleted(categoryId));
+    }
+
+    @Test
+    @DisplayName("Test createProduct writes the product with a single INSERT and does not load its category")
+    void shouldCreateProductWithSingleInsert() {
+        // Arrange
+        ProductModel product = ProductModel.builder()
+                .name("Statement count")
+                .price(Price.parse("1.00"))
+                .category(CategoryModel.builder().id(categoryId).build())
+                .build();
+
+        // Act
+        productService.createProduct(product);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertFalse(Hibernate.isInitialized(product.getCategory()));
+    }
+}
@@ -1,30 +1,80 @@
 package br.com.jointecnologia.crud.service;
 
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
 import br.com.jointecnologia.crud.exceptions.ResourceNotFoundException;
+import br.com.jointecnologia.crud.exceptions.UnknownCategoryException;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.EntityType;
+import br.com.jointecnologia.crud.model.CatalogChangeModel.Operation;
+import br.com.jointecnologia.crud.model.CategoryModel;
+import br.com.jointecnologia.crud.model.Price;
 import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
 import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.ProductSearchResult;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.batch.ProductBatchLoader;
+import br.com.jointecnologia.crud.service.change.CatalogChangeRecorder;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.index.CategoryIdCache;
+import br.com.jointecnologia.crud.service.index.ProductNameIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
 
     private static final Long PRODUCT_ID = 1L;
     private static final String PRODUCT_NAME = "Test Product";
+    private static final Long CATEGORY_ID = 2L;
 
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryIdCache categoryIdCache;
+
+    @Mock
+    private ProductNameIndex productNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<ProductBatchLoader> productBatchLoader;
+
+    @Spy
+    private SoftDeleteProperties softDeleteProperties = new SoftDeleteProperties();
+
+    @Mock
+    private CatalogChangeRecorder catalogChangeRecorder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductService productService;
 
@@ -54,7 +104,7 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("Test getProductById returns product when found")
+    @DisplayName("Test getProductById returns product when found, read in a read-only transaction")
     void testGetProductById() {
         // Arrange
         ProductModel product = new ProductModel();
@@ -69,6 +119,57 @@ class ProductServiceTest {
         // Assert
         assertEquals(product, result);
         verify(productRepository).findById(PRODUCT_ID);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("Test getProductById goes through the batch loader when batching is enabled")
+    void testGetProductByIdBatched() {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setId(PRODUCT_ID);
+        ProductBatchLoader batchLoader = mock(ProductBatchLoader.class);
+        when(productBatchLoader.getIfAvailable()).thenReturn(batchLoader);
+        when(batchLoader.load(PRODUCT_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(product)));
+
+        // Act
+        ProductModel result = productService.getProductById(PRODUCT_ID);
+
+        // Assert
+        assertEquals(product, result);
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Test getProductById rethrows the exception of a failed batch unwrapped")
+    void testGetProductByIdBatchFailure() {
+        // Arrange
+        ProductBatchLoader batchLoader = mock(ProductBatchLoader.class);
+        when(productBatchLoader.getIfAvailable()).thenReturn(batchLoader);
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("connection refused");
+        when(batchLoader.load(PRODUCT_ID)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        // Act & Assert
+        assertSame(failure, assertThrows(DataAccessResourceFailureException.class,
+                () -> productService.getProductById(PRODUCT_ID)));
+    }
+
+    @Test
+    @DisplayName("Test getProductsByIds returns the products in the requested order and the missing IDs")
+    void testGetProductsByIds() {
+        // Arrange
+        ProductModel first = ProductModel.builder().id(1L).name("First").build();
+        ProductModel third = ProductModel.builder().id(3L).name("Third").build();
+        when(productRepository.findAllWithCategoryByIdIn(Set.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+
+        // Act
+        ProductBatch result = productService.getProductsByIds(List.of(3L, 2L, 1L, 3L));
+
+        // Assert
+        assertEquals(List.of(third, first), result.products());
+        assertEquals(List.of(2L), result.missingIds());
+        verify(productRepository).findAllWithCategoryByIdIn(any());
+        verifyNoMoreInteractions(productRepository);
     }
 
     @Test
@@ -82,17 +183,53 @@ class ProductServiceTest {
         verify(productRepository).findById(PRODUCT_ID);
     }
 
+    @Test
+    @DisplayName("Test getAllProducts with projection returns projected products")
+    void testGetAllProductsWithProjection() {
+        // Arrange
+        ProductSummary summary = mock(ProductSummary.class);
+        when(productRepository.findAllProjectedBy(ProductSummary.class)).thenReturn(List.of(summary));
+
+        // Act
+        List<ProductSummary> result = productService.getAllProducts(ProductSummary.class);
+
+        // Assert
+        assertEquals(List.of(summary), result);
+        verify(productRepository).findAllProjectedBy(ProductSummary.class);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Test searchProducts escapes wildcards and requests the given page")
+    void testSearchProducts() {
+        // Arrange
+        ProductSearchResult hit = mock(ProductSearchResult.class);
+        when(productRepository.searchByName("50%_off", "%50\\%\\_off%", PageRequest.of(1, 10))).thenReturn(List.of(hit));
+
+        // Act
+        List<ProductSearchResult> result = productService.searchProducts("50%_off", 1, 10);
+
+        // Assert
+        assertEquals(List.of(hit), result);
+        verify(productRepository).searchByName("50%_off", "%50\\%\\_off%", PageRequest.of(1, 10));
+    }
+
     @Test
     @DisplayName("Test createProduct saves new product")
     void testCreateProduct() {
         // Arrange
         ProductModel product = new ProductModel();
         product.setName(PRODUCT_NAME);
+        product.setCategory(CategoryModel.builder().id(CATEGORY_ID).build());
 
+        CategoryModel categoryReference = CategoryModel.builder().id(CATEGORY_ID).build();
         ProductModel savedProduct = new ProductModel();
         savedProduct.setId(PRODUCT_ID);
         savedProduct.setName(PRODUCT_NAME);
+        savedProduct.setCategory(categoryReference);
 
+        when(categoryIdCache.contains(CATEGORY_ID)).thenReturn(true);
+        when(categoryRepository.getReferenceById(CATEGORY_ID)).thenReturn(categoryReference);
         when(productRepository.save(product)).thenReturn(savedProduct);
 
         // Act
@@ -100,55 +237,135 @@ class ProductServiceTest {
 
         // Assert
         assertEquals(savedProduct, result);
+        assertSame(categoryReference, product.getCategory());
         verify(productRepository).save(product);
+        verify(categoryRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(
+                new ProductChangedEvent(ChangeType.CREATED, PRODUCT_ID, PRODUCT_NAME, null, CATEGORY_ID));
     }
 
     @Test
-    @DisplayName("Test updateProduct updates existing product")
-    void testUpdateProduct() {
+    @DisplayName("Test createProduct throws UnknownCategoryException when the category does not exist")
+    void testCreateProductThrowsUnknownCategoryException() {
         // Arrange
         ProductModel product = new ProductModel();
-        product.setId(PRODUCT_ID);
         product.setName(PRODUCT_NAME);
+        product.setCategory(CategoryModel.builder().id(CATEGORY_ID).build());
+
+        when(categoryIdCache.contains(CATEGORY_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(UnknownCategoryException.class, () -> productService.createProduct(product));
+        verify(productRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test updateProduct copies the new state onto the loaded product without saving it")
+    void testUpdateProduct() {
+        // Arrange
+        CategoryModel category = CategoryModel.builder().id(CATEGORY_ID).build();
+        ProductModel changes = ProductModel.builder()
+                .name("Updated Product").price(Price.parse("9.90"))
+                .category(CategoryModel.builder().id(CATEGORY_ID).build()).build();
 
-        ProductModel updatedProduct = new ProductModel();
-        updatedProduct.setId(PRODUCT_ID);
-        updatedProduct.setName("Updated Product");
+        ProductModel existingProduct = new ProductModel();
+        existingProduct.setId(PRODUCT_ID);
+        existingProduct.setName(PRODUCT_NAME);
+        existingProduct.setCategory(CategoryModel.builder().id(1L).build());
 
-        when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
-        when(productRepository.save(product)).thenReturn(updatedProduct);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(existingProduct));
+        when(categoryIdCache.contains(CATEGORY_ID)).thenReturn(true);
+        when(categoryRepository.getReferenceById(CATEGORY_ID)).thenReturn(category);
 
         // Act
-        ProductModel result = productService.updateProduct(product);
+        ProductModel result = productService.updateProduct(PRODUCT_ID, changes);
 
         // Assert
-        assertEquals(updatedProduct, result);
-        verify(productRepository).existsById(PRODUCT_ID);
-        verify(productRepository).save(product);
+        assertSame(existingProduct, result);
+        assertEquals(PRODUCT_ID, result.getId());
+        assertEquals("Updated Product", result.getName());
+        assertEquals(Price.parse("9.90"), result.getPrice());
+        assertSame(category, result.getCategory());
+        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).existsById(any());
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(
+                ChangeType.UPDATED, PRODUCT_ID, "Updated Product", Price.parse("9.90"), CATEGORY_ID, 1L));
     }
 
     @Test
     @DisplayName("Test updateProduct throws ResourceNotFoundException when product does not exist")
     void testUpdateProductThrowsResourceNotFoundException() {
         // Arrange
-        ProductModel product = new ProductModel();
-        product.setId(PRODUCT_ID);
-        product.setName(PRODUCT_NAME);
+        ProductModel changes = new ProductModel();
+        changes.setName(PRODUCT_NAME);
 
-        when(productRepository.existsById(PRODUCT_ID)).thenReturn(false);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> productService.updateProduct(product));
-        verify(productRepository).existsById(PRODUCT_ID);
+        assertThrows(ResourceNotFoundException.class, () -> productService.updateProduct(PRODUCT_ID, changes));
+        verify(productRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    @DisplayName("Test deleteProduct deletes product")
+    @DisplayName("Test deleteProduct deletes product and publishes its category")
     void testDeleteProduct() {
+        // Arrange
+        ProductModel product = ProductModel.builder()
+                .id(PRODUCT_ID).category(CategoryModel.builder().id(CATEGORY_ID).build()).build();
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+
+        // Act
+        productService.deleteProduct(PRODUCT_ID);
+
+        // Assert
+        verify(productRepository).delete(product);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(PRODUCT_ID, CATEGORY_ID));
+    }
+
+    @Test
+    @DisplayName("Test deleteProduct does nothing when the product does not exist")
+    void testDeleteProductNotFound() {
+        // Arrange
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
+
+        // Act
+        productService.deleteProduct(PRODUCT_ID);
+
+        // Assert
+        verify(productRepository, never()).delete(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test deleteProduct only marks the product as deleted in soft-delete mode")
+    void testDeleteProductSoftDeletes() {
+        // Arrange
+        softDeleteProperties.setEnabled(true);
+        when(productRepository.softDeleteById(PRODUCT_ID)).thenReturn(Optional.of(CATEGORY_ID));
+
+        // Act
+        productService.deleteProduct(PRODUCT_ID);
+
+        // Assert
+        verify(productRepository, never()).delete(any());
+        verify(catalogChangeRecorder).record(EntityType.PRODUCT, PRODUCT_ID, Operation.DELETE);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(PRODUCT_ID, CATEGORY_ID));
+    }
+
+    @Test
+    @DisplayName("Test deleteProduct does nothing in soft-delete mode when the product is already deleted")
+    void testDeleteProductSoftDeletesOnlyOnce() {
+        // Arrange
+        softDeleteProperties.setEnabled(true);
+        when(productRepository.softDeleteById(PRODUCT_ID)).thenReturn(Optional.empty());
+
         // Act
         productService.deleteProduct(PRODUCT_ID);
 
         // Assert
-        verify(productRepository).deleteById(PRODUCT_ID);
+        verify(catalogChangeRecorder, never()).record(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
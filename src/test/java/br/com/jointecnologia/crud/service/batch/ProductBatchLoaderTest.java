@@ -0,0 +1,111 @@
+package br.com.jointecnologia.crud.service.batch;
+
+import br.com.jointecnologia.crud.config.ProductBatchingProperties;
+import br.com.jointecnologia.crud.model.ProductModel;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchLoaderTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductBatchingProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductBatchLoader productBatchLoader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductBatchingProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productBatchLoader.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test load serves the lookups of a window with a single query")
+    void testLoadBatchesLookupsOfWindow() {
+        // Arrange
+        properties.setWindow(Duration.ofMillis(200));
+        productBatchLoader = new ProductBatchLoader(productRepository, transactionManager, properties, meterRegistry);
+        ProductModel first = ProductModel.builder().id(1L).build();
+        ProductModel second = ProductModel.builder().id(2L).build();
+        when(productRepository.findAllWithCategoryByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(first, second));
+
+        // Act
+        CompletableFuture<Optional<ProductModel>> firstLookup = productBatchLoader.load(1L);
+        CompletableFuture<Optional<ProductModel>> secondLookup = productBatchLoader.load(2L);
+        CompletableFuture<Optional<ProductModel>> repeatedLookup = productBatchLoader.load(1L);
+        CompletableFuture<Optional<ProductModel>> missingLookup = productBatchLoader.load(3L);
+
+        // Assert
+        assertEquals(Optional.of(first), firstLookup.join());
+        assertEquals(Optional.of(second), secondLookup.join());
+        assertEquals(Optional.of(first), repeatedLookup.join());
+        assertEquals(Optional.empty(), missingLookup.join());
+        verify(productRepository, times(1)).findAllWithCategoryByIdIn(any());
+        assertEquals(3.0, meterRegistry.get("product.batch.size").summary().totalAmount());
+        assertEquals(4.0, meterRegistry.get("product.batch.lookups").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Test load queries a batch as soon as it is full")
+    void testLoadQueriesFullBatch() {
+        // Arrange
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setMaxBatchSize(2);
+        productBatchLoader = new ProductBatchLoader(productRepository, transactionManager, properties, meterRegistry);
+        when(productRepository.findAllWithCategoryByIdIn(any())).thenReturn(List.of());
+
+        // Act
+        CompletableFuture<Optional<ProductModel>> firstLookup = productBatchLoader.load(1L);
+        CompletableFuture<Optional<ProductModel>> secondLookup = productBatchLoader.load(2L);
+
+        // Assert
+        assertEquals(Optional.empty(), firstLookup.join());
+        assertEquals(Optional.empty(), secondLookup.join());
+        verify(productRepository).findAllWithCategoryByIdIn(Set.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Test load fails every lookup of a batch whose query fails")
+    void testLoadPropagatesQueryFailure() {
+        // Arrange
+        properties.setWindow(Duration.ofMillis(1));
+        productBatchLoader = new ProductBatchLoader(productRepository, transactionManager, properties, meterRegistry);
+        when(productRepository.findAllWithCategoryByIdIn(any())).thenThrow(new IllegalStateException("database down"));
+
+        // Act
+        CompletableFuture<Optional<ProductModel>> lookup = productBatchLoader.load(1L);
+
+        // Assert
+        assertThrows(Exception.class, lookup::join);
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.projection.CategorySummary;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryIdCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryIdCache categoryIdCache;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAllProjectedBy(CategorySummary.class)).thenReturn(List.of(category(1L), category(2L)));
+        categoryIdCache.load();
+    }
+
+    @Test
+    @DisplayName("Test contains answers loaded categories without querying the database")
+    void shouldContainLoadedCategories() {
+        assertTrue(categoryIdCache.contains(1L));
+        assertTrue(categoryIdCache.contains(2L));
+        assertFalse(categoryIdCache.contains(null));
+        verify(categoryRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Test contains looks up unknown IDs and remembers the ones found")
+    void shouldRememberCategoriesFoundInTheDatabase() {
+        when(categoryRepository.existsById(3L)).thenReturn(true);
+        when(categoryRepository.existsById(4L)).thenReturn(false);
+
+        assertTrue(categoryIdCache.contains(3L));
+        assertTrue(categoryIdCache.contains(3L));
+        assertFalse(categoryIdCache.contains(4L));
+        assertFalse(categoryIdCache.contains(4L));
+
+        verify(categoryRepository, times(1)).existsById(3L);
+        verify(categoryRepository, times(2)).existsById(4L);
+    }
+
+    @Test
+    @DisplayName("Test committed category changes are reflected by contains")
+    void shouldApplyChanges() {
+        categoryIdCache.onCategoryChanged(new CategoryChangedEvent(ChangeType.CREATED, 5L, "Garden"));
+        categoryIdCache.onCategoryChanged(CategoryChangedEvent.deleted(1L));
+
+        assertTrue(categoryIdCache.contains(5L));
+        assertFalse(categoryIdCache.contains(1L));
+    }
+
+    private static CategorySummary category(Long id) {
+        return new CategorySummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Category " + id;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.projection.CategoryTreeNode;
+import br.com.jointecnologia.crud.service.event.CategoryChangedEvent;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryTree categoryTree;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAllProjectedBy(CategoryTreeNode.class))
+                .thenReturn(List.of(category(1L, null), category(2L, 1L), category(3L, 2L)));
+        categoryTree.load();
+    }
+
+    @Test
+    @DisplayName("Test breadcrumbs lists the ancestors from the root without querying the database")
+    void shouldReturnBreadcrumbs() {
+        // Act
+        Optional<List<CategoryTree.Node>> breadcrumbs = categoryTree.breadcrumbs(3L);
+
+        // Assert
+        assertEquals(Optional.of(List.of(
+                new CategoryTree.Node(1L, "Category 1", null),
+                new CategoryTree.Node(2L, "Category 2", 1L),
+                new CategoryTree.Node(3L, "Category 3", 2L))), breadcrumbs);
+        assertEquals(Optional.of(List.of(1L)), ancestorIds(1L));
+        verify(categoryRepository, times(1)).findAllProjectedBy(CategoryTreeNode.class);
+        verify(categoryRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Test a committed category change reloads the tree on the next lookup")
+    void shouldReloadAfterChange() {
+        // Arrange
+        when(categoryRepository.findAllProjectedBy(CategoryTreeNode.class))
+                .thenReturn(List.of(category(1L, null), category(2L, null), category(3L, 2L)));
+
+        // Act
+        categoryTree.onCategoryChanged(new CategoryChangedEvent(ChangeType.UPDATED, 2L, "Category 2"));
+
+        // Assert
+        assertEquals(Optional.of(List.of(2L, 3L)), ancestorIds(3L));
+        assertEquals(Optional.of(List.of(2L, 3L)), ancestorIds(3L));
+        verify(categoryRepository, times(2)).findAllProjectedBy(CategoryTreeNode.class);
+    }
+
+    @Test
+    @DisplayName("Test an unknown ID reloads the tree only when the category exists in the database")
+    void shouldReloadForCategoriesFoundInTheDatabase() {
+        // Arrange
+        when(categoryRepository.existsById(4L)).thenReturn(true);
+        when(categoryRepository.existsById(5L)).thenReturn(false);
+        when(categoryRepository.findAllProjectedBy(CategoryTreeNode.class))
+                .thenReturn(List.of(category(1L, null), category(4L, 1L)));
+
+        // Act & Assert
+        assertEquals(Optional.of(List.of(1L, 4L)), ancestorIds(4L));
+        assertEquals(Optional.empty(), categoryTree.breadcrumbs(5L));
+        verify(categoryRepository, times(2)).findAllProjectedBy(CategoryTreeNode.class);
+    }
+
+    private Optional<List<Long>> ancestorIds(Long id) {
+        return categoryTree.breadcrumbs(id).map(nodes -> nodes.stream().map(CategoryTree.Node::id).toList());
+    }
+
+    private static CategoryTreeNode category(Long id, Long parentId) {
+        return new CategoryTreeNode() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Category " + id;
+            }
+
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.jointecnologia.crud.service.index;
+
+import br.com.jointecnologia.crud.model.Price;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import br.com.jointecnologia.crud.repository.projection.ProductSummary;
+import br.com.jointecnologia.crud.service.event.ChangeType;
+import br.com.jointecnologia.crud.service.event.ProductChangedEvent;
+import br.com.jointecnologia.crud.service.event.ProductsImportedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductNameIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllProjectedBy(ProductSummary.class)).thenReturn(List.of(
+                product(1L, "Gaming Laptop"),
+                product(2L, "Laptop Stand"),
+                product(3L, "Desk Lamp"),
+                product(4L, "USB-C Cable")));
+        productNameIndex.build();
+    }
+
+    @Test
+    @DisplayName("Test findByPrefix matches the start of any word, case-insensitively")
+    void shouldFindByWordPrefix() {
+        assertEquals(List.of(1L, 2L), ids(productNameIndex.findByPrefix("LAP", 10)));
+        assertEquals(List.of(3L), ids(productNameIndex.findByPrefix("lam", 10)));
+        assertEquals(List.of(4L), ids(productNameIndex.findByPrefix("c", 10)));
+        assertTrue(productNameIndex.findByPrefix("aptop", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test findByPrefix honours the limit")
+    void shouldLimitResults() {
+        assertEquals(List.of(1L), ids(productNameIndex.findByPrefix("lap", 1)));
+    }
+
+    @Test
+    @DisplayName("Test committed changes are reflected by findByPrefix")
+    void shouldApplyChanges() {
+        productNameIndex.onProductChanged(new ProductChangedEvent(ChangeType.CREATED, 5L, "Laptop Sleeve", Price.parse("19.90"), 1L));
+        productNameIndex.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, 2L, "Monitor Stand", Price.parse("29.90"), 1L));
+        productNameIndex.onProductChanged(ProductChangedEvent.deleted(1L, 1L));
+
+        assertEquals(List.of(5L), ids(productNameIndex.findByPrefix("lap", 10)));
+        assertEquals(List.of(2L), ids(productNameIndex.findByPrefix("mon", 10)));
+        assertEquals("Monitor Stand", productNameIndex.findByPrefix("stand", 10).get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Test imported products are indexed without reading the products back")
+    void shouldApplyImports() {
+        productNameIndex.onProductsImported(new ProductsImportedEvent(Map.of(5L, "Laptop Sleeve", 6L, "Monitor Arm"),
+                Set.of(1L)));
+
+        assertEquals(List.of(1L, 5L, 2L), ids(productNameIndex.findByPrefix("lap", 10)));
+        assertEquals(List.of(6L), ids(productNameIndex.findByPrefix("arm", 10)));
+        assertEquals(2, productNameIndex.stats().pendingChanges());
+        verify(productRepository, times(1)).findAllProjectedBy(ProductSummary.class);
+    }
+
+    @Test
+    @DisplayName("Test stats reports the indexed products and pending changes")
+    void shouldReportStats() {
+        productNameIndex.onProductChanged(new ProductChangedEvent(ChangeType.CREATED, 5L, "Laptop Sleeve", Price.parse("19.90"), 1L));
+
+        ProductNameIndex.Stats stats = productNameIndex.stats();
+        assertEquals(4, stats.products());
+        assertEquals(9, stats.keys());
+        assertEquals(1, stats.pendingChanges());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    private static List<Long> ids(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::getId).toList();
+    }
+
+    private static ProductSummary product(Long id, String name) {
+        return new ProductSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.jointecnologia.crud.service.ingest;
+
+import br.com.jointecnologia.crud.model.Price;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CopyWriterTest {
+
+    @Test
+    @DisplayName("Test values are separated by tabs, rows ended by line breaks and texts escaped")
+    void shouldWriteRows() throws SQLException {
+        // Arrange
+        CopyIn copy = mock(CopyIn.class);
+        ByteArrayOutputStream written = capture(copy);
+        when(copy.endCopy()).thenReturn(2L);
+
+        // Act
+        long copied;
+        try (CopyWriter writer = new CopyWriter(copy)) {
+            writer.value(1).value("Café\tà\\la\r\ncarte").value(Price.ofMinorUnits(5)).endRow();
+            writer.value(2).value("Mouse").value(Price.ofMinorUnits(1990)).endRow();
+            copied = writer.finish();
+        }
+
+        // Assert
+        assertEquals(2, copied);
+        assertEquals("1\tCafé\\tà\\\\la\\r\\ncarte\t0.05\n2\tMouse\t19.90\n", written.toString(StandardCharsets.UTF_8));
+        verify(copy, never()).cancelCopy();
+    }
+
+    @Test
+    @DisplayName("Test rows are sent once the buffer is full")
+    void shouldFlushFullBuffer() throws SQLException {
+        // Arrange
+        CopyIn copy = mock(CopyIn.class);
+        ByteArrayOutputStream written = capture(copy);
+        String name = "x".repeat(1000);
+        // Each row is the name and its line break, so the last row reaches the size of the buffer
+        int rows = CopyWriter.BUFFER_SIZE / 1001 + 1;
+
+        // Act
+        try (CopyWriter writer = new CopyWriter(copy)) {
+            for (int i = 0; i < rows; i++) {
+                writer.value(name).endRow();
+            }
+
+            // Assert
+            verify(copy, times(1)).writeToCopy(any(), anyInt(), anyInt());
+            assertEquals(rows * 1001, written.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test closing an unfinished writer cancels the copy")
+    void shouldCancelUnfinishedCopy() throws SQLException {
+        // Arrange
+        CopyIn copy = mock(CopyIn.class);
+        when(copy.isActive()).thenReturn(true);
+
+        // Act
+        try (CopyWriter writer = new CopyWriter(copy)) {
+            writer.value("Mouse").endRow();
+        }
+
+        // Assert
+        verify(copy).cancelCopy();
+        verify(copy, never()).endCopy();
+    }
+
+    private static ByteArrayOutputStream capture(CopyIn copy) throws SQLException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            written.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copy).writeToCopy(any(), anyInt(), anyInt());
+        return written;
+    }
+}
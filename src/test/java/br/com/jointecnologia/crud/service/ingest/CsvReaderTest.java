@@ -0,0 +1,59 @@
+package br.com.jointecnologia.crud.service.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("Test plain and quoted fields are split on commas")
+    void shouldReadFields() throws IOException {
+        // Arrange
+        CsvReader reader = new CsvReader(new StringReader("Mouse,19.90,Electronics\r\n\"Desk, \"\"oak\"\"\",250,\n"));
+
+        // Act & Assert
+        assertEquals(List.of("Mouse", "19.90", "Electronics"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("Desk, \"oak\"", "250", ""), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Test a quoted field may span several lines")
+    void shouldReadMultilineField() throws IOException {
+        // Arrange
+        CsvReader reader = new CsvReader(new StringReader("\"Two\nlines\",1,A\nLast,2,B"));
+
+        // Act & Assert
+        assertEquals(List.of("Two\nlines", "1", "A"), reader.next());
+        assertEquals(List.of("Last", "2", "B"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Test a leading byte order mark is skipped")
+    void shouldSkipByteOrderMark() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\uFEFFname,price,category\n"));
+
+        assertEquals(List.of("name", "price", "category"), reader.next());
+    }
+
+    @Test
+    @DisplayName("Test an unclosed quoted field is rejected")
+    void shouldRejectUnclosedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("\"Mouse,19.90,Electronics\n"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("Unclosed quoted field starting on line 1", exception.getMessage());
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.jointecnologia.crud.service.purge;
+
+import br.com.jointecnologia.crud.config.SoftDeleteProperties;
+import br.com.jointecnologia.crud.repository.CategoryRepository;
+import br.com.jointecnologia.crud.repository.ProductRepository;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeletePurgerTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private final SoftDeleteProperties properties = new SoftDeleteProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SoftDeletePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(BATCH_SIZE);
+        properties.setMaxBatches(3);
+        properties.setPause(Duration.ZERO);
+        properties.setMaxActiveRequests(1);
+        purger = new SoftDeletePurger(productRepository, categoryRepository, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test purge removes batches until one is not full, products before categories")
+    void shouldPurgeUntilABatchIsNotFull() {
+        // Arrange
+        when(productRepository.purgeDeletedBefore(any(), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE, 4);
+        when(categoryRepository.purgeDeletedBefore(any(), eq(BATCH_SIZE))).thenReturn(1);
+
+        // Act
+        purger.purge();
+
+        // Assert
+        verify(productRepository, times(2)).purgeDeletedBefore(any(), eq(BATCH_SIZE));
+        verify(categoryRepository, times(1)).purgeDeletedBefore(any(), eq(BATCH_SIZE));
+        assertEquals(14, meterRegistry.get("catalog.tombstones.purged").tag("entity", "product").counter().count());
+        assertEquals(1, meterRegistry.get("catalog.tombstones.purged").tag("entity", "category").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test purge stops after the maximum number of batches")
+    void shouldStopAfterTheMaximumNumberOfBatches() {
+        // Arrange
+        when(productRepository.purgeDeletedBefore(any(), anyInt())).thenReturn(BATCH_SIZE);
+
+        // Act
+        purger.purge();
+
+        // Assert
+        verify(productRepository, times(3)).purgeDeletedBefore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test purge only removes rows deleted before the retention")
+    void shouldKeepRowsWithinTheRetention() {
+        // Arrange
+        properties.setRetention(Duration.ofHours(1));
+        Instant expected = Instant.now().minus(Duration.ofHours(1));
+
+        // Act
+        purger.purge();
+
+        // Assert
+        verify(productRepository).purgeDeletedBefore(
+                argThat(before -> !before.isBefore(expected)
+                        && before.isBefore(expected.plusSeconds(5))), eq(BATCH_SIZE));
+    }
+
+    @Test
+    @DisplayName("Test purge is postponed while too many requests are in progress")
+    void shouldPostponeWhileRequestsAreInProgress() {
+        // Arrange
+        LongTaskTimer requests = LongTaskTimer.builder("http.server.requests.active").register(meterRegistry);
+        requests.start();
+        requests.start();
+
+        // Act
+        purger.purge();
+
+        // Assert
+        assertFalse(purger.isQuiet());
+        verify(productRepository, never()).purgeDeletedBefore(any(), anyInt());
+        verify(categoryRepository, never()).purgeDeletedBefore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test purge is postponed while threads wait for a database connection")
+    void shouldPostponeWhileConnectionsArePending() {
+        // Arrange
+        AtomicInteger pending = new AtomicInteger(1);
+        meterRegistry.gauge("hikaricp.connections.pending", pending);
+
+        // Act & Assert
+        assertFalse(purger.isQuiet());
+        pending.set(0);
+        assertTrue(purger.isQuiet());
+    }
+}
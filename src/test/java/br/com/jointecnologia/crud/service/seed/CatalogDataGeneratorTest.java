@@ -0,0 +1,95 @@
+package br.com.jointecnologia.crud.service.seed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogDataGeneratorTest {
+
+    @Test
+    @DisplayName("Test the same seed generates the same catalog")
+    void shouldBeReproducible() {
+        // Arrange
+        CatalogDataGenerator first = new CatalogDataGenerator(7, 50, 1.0);
+        CatalogDataGenerator second = new CatalogDataGenerator(7, 50, 1.0);
+
+        // Act & Assert
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first.nextCategory(), second.nextCategory());
+            assertEquals(first.nextProductName(), second.nextProductName());
+            assertEquals(first.nextPriceCents(), second.nextPriceCents());
+        }
+    }
+
+    @Test
+    @DisplayName("Test category sizes follow a Zipf distribution")
+    void shouldSkewCategorySizes() {
+        // Arrange
+        int categories = 100;
+        CatalogDataGenerator generator = new CatalogDataGenerator(42, categories, 1.0);
+        int[] sizes = new int[categories];
+
+        // Act
+        for (int i = 0; i < 200_000; i++) {
+            sizes[generator.nextCategory()]++;
+        }
+
+        // Assert
+        int[] sorted = Arrays.stream(sizes).sorted().toArray();
+        int largest = sorted[categories - 1];
+        int second = sorted[categories - 2];
+        int tenth = sorted[categories - 10];
+        // Expected shares of 1, 1/2 and 1/10 of the largest category, within sampling noise
+        assertEquals(0.5, (double) second / largest, 0.05);
+        assertEquals(0.1, (double) tenth / largest, 0.03);
+        assertTrue(sorted[0] > 0, "Every category should get products");
+    }
+
+    @Test
+    @DisplayName("Test an exponent of 0 spreads products evenly")
+    void shouldSpreadEvenlyWithoutSkew() {
+        // Arrange
+        CatalogDataGenerator generator = new CatalogDataGenerator(42, 10, 0);
+        int[] sizes = new int[10];
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            sizes[generator.nextCategory()]++;
+        }
+
+        // Assert
+        Arrays.stream(sizes).forEach(size -> assertEquals(10_000, size, 500));
+    }
+
+    @Test
+    @DisplayName("Test category names are unique")
+    void shouldGenerateUniqueCategoryNames() {
+        Set<String> names = new HashSet<>();
+        IntStream.range(0, 5_000).forEach(i -> names.add(CatalogDataGenerator.categoryName(i)));
+
+        assertEquals(5_000, names.size());
+        assertEquals("Electronics Accessories", CatalogDataGenerator.categoryName(0));
+    }
+
+    @Test
+    @DisplayName("Test product names and prices fit the product table")
+    void shouldGenerateValidProducts() {
+        CatalogDataGenerator generator = new CatalogDataGenerator(42, 10, 1.0);
+
+        for (int i = 0; i < 10_000; i++) {
+            String name = generator.nextProductName();
+            long cents = generator.nextPriceCents();
+
+            assertTrue(name.length() <= 100, name);
+            assertTrue(name.chars().noneMatch(c -> c == '\t' || c == '\n' || c == '\\'), name);
+            assertTrue(cents >= CatalogDataGenerator.MIN_PRICE_CENTS && cents <= CatalogDataGenerator.MAX_PRICE_CENTS);
+        }
+    }
+}
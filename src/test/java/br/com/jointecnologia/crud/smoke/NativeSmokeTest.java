@@ -0,0 +1,165 @@
+package br.com.jointecnologia.crud.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Smoke tests run against the native executable built by {@code mvn -Pnative native:compile}.
+ * <p>
+ * Only enabled when the {@code smoke.binary} system property points to the executable, e.g.
+ * {@code mvn test -Dtest=NativeSmokeTest -Dsmoke.binary=target/crud}. Extra application arguments can be given in
+ * {@code smoke.args}. The startup time and the resident set size after startup and after the tests are printed and
+ * written to {@code target/native-smoke.md}. The database must be reachable.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "smoke.binary", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeTest {
+
+    private static final int PORT = 18081;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Process process;
+    private long startupMillis;
+    private long startupRssKib;
+    private long categoryId;
+    private long productId;
+
+    @BeforeAll
+    void start() throws Exception {
+        List<String> command = new ArrayList<>(List.of(System.getProperty("smoke.binary"), "--server.port=" + PORT));
+        String args = System.getProperty("smoke.args", "");
+        if (!args.isBlank()) {
+            command.addAll(List.of(args.trim().split("\\s+")));
+        }
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "native-smoke.log").toFile()).start();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with code " + process.exitValue());
+            }
+            try {
+                if (send("GET", "/actuator/health", null).statusCode() == 200) {
+                    startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    startupRssKib = rssKib();
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("The application did not start within " + STARTUP_TIMEOUT);
+    }
+
+    @AfterAll
+    void stop() throws Exception {
+        if (process == null) {
+            return;
+        }
+        String report = String.format("| startup (ms) | RSS after startup (MiB) | RSS after tests (MiB) |%n|---|---|---|%n"
+                + "| %d | %d | %d |%n", startupMillis, startupRssKib / 1024, rssKib() / 1024);
+        System.out.print(report);
+        Files.writeString(Path.of("target", "native-smoke.md"), report);
+        process.destroy();
+        process.waitFor(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Test a category can be created")
+    void shouldCreateCategory() throws Exception {
+        HttpResponse<String> response = send("POST", "/categories",
+                "{\"name\":\"Smoke " + UUID.randomUUID().toString().substring(0, 8) + "\"}");
+
+        assertEquals(201, response.statusCode());
+        categoryId = objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test a product can be created and read back")
+    void shouldCreateAndReadProduct() throws Exception {
+        HttpResponse<String> created = send("POST", "/products",
+                "{\"name\":\"Smoke product\",\"price\":9.99,\"category\":{\"id\":" + categoryId + "}}");
+        assertEquals(201, created.statusCode());
+        productId = objectMapper.readTree(created.body()).get("id").asLong();
+
+        HttpResponse<String> read = send("GET", "/products/" + productId, null);
+        assertEquals(200, read.statusCode());
+        JsonNode product = objectMapper.readTree(read.body());
+        assertEquals("Smoke product", product.get("name").asText());
+        assertEquals(9.99, product.get("price").asDouble());
+        assertEquals(categoryId, product.get("category").get("id").asLong());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test projections, validation errors and the change feed work")
+    void shouldServeProjectionsErrorsAndChanges() throws Exception {
+        assertEquals(200, send("GET", "/categories/" + categoryId + "?fields=name", null).statusCode());
+        assertEquals(200, send("GET", "/products?ids=" + productId, null).statusCode());
+        assertEquals(400, send("GET", "/products/not-a-number", null).statusCode());
+        assertEquals(400, send("POST", "/products/batch", "{\"ids\":[]}").statusCode());
+        assertEquals(200, send("GET", "/changes/latest", null).statusCode());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test the product and the category can be deleted")
+    void shouldDeleteProductAndCategory() throws Exception {
+        assertEquals(204, send("DELETE", "/products/" + productId, null).statusCode());
+        assertEquals(204, send("DELETE", "/categories/" + categoryId, null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path))
+                .timeout(Duration.ofSeconds(10))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long rssKib() throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+}